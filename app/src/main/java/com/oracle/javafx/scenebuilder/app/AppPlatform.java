@@ -54,6 +54,7 @@ public class AppPlatform {
     private static String applicationDataFolder;
     private static String userLibraryFolder;
     private static String messageBoxFolder;
+    private static String metadataCacheFile;
     private static MessageBox<MessageBoxMessage> messageBox;
     
     public static synchronized String getApplicationDataFolder() {
@@ -89,6 +90,16 @@ public class AppPlatform {
         
         return userLibraryFolder;
     }
+    
+    
+    public static synchronized String getMetadataCacheFile() {
+        
+        if (metadataCacheFile == null) {
+            metadataCacheFile = getApplicationDataFolder() + "/MetadataCache.bin"; //NOI18N
+        }
+        
+        return metadataCacheFile;
+    }
 
     public static boolean requestStart(
             AppNotificationHandler notificationHandler, Application.Parameters parameters)  
@@ -66,6 +66,7 @@ import com.oracle.javafx.scenebuilder.kit.editor.search.SearchController;
 import com.oracle.javafx.scenebuilder.kit.editor.selection.AbstractSelectionGroup;
 import com.oracle.javafx.scenebuilder.kit.editor.selection.ObjectSelectionGroup;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocumentLoadTask;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMNodes;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
 import com.oracle.javafx.scenebuilder.kit.library.Library;
@@ -77,15 +78,17 @@ import com.oracle.javafx.scenebuilder.kit.util.Utils;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -97,6 +100,7 @@ import java.util.Optional;
 import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -387,12 +391,32 @@ public class DocumentWindowController extends AbstractFxmlWindowController {
         final URL fxmlURL = fxmlFile.toURI().toURL();
         final String fxmlText = FXOMDocument.readContentFromURL(fxmlURL);
         editorController.setFxmlTextAndLocation(fxmlText, fxmlURL, false);
-        updateLoadFileTime();
-        updateStageTitle(); // No-op if fxml has not been loaded yet
-        updateFromDocumentPreferences(true);
-        watchingController.update();
-
-        WarnThemeAlert.showAlertIfRequired(editorController, editorController.getFxomDocument(), getStage());
+        fileDidLoad();
+    }
+    
+    /**
+     * Loads the specified file on a background thread. The returned task is
+     * already running: callers may observe its progress or cancel it.
+     * When the task succeeds, the document is attached to this window on the
+     * JavaFX application thread, as loadFromFile() would do.
+     * 
+     * @param fxmlFile the fxml file to be loaded (never null)
+     * @return the running load task.
+     * @throws MalformedURLException if fxmlFile cannot be converted to an URL
+     */
+    public FXOMDocumentLoadTask loadFromFileInBackground(File fxmlFile) throws MalformedURLException {
+        final URL fxmlURL = fxmlFile.toURI().toURL();
+        final FXOMDocumentLoadTask result = editorController.makeLoadTask(fxmlURL);
+        result.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, e -> {
+            editorController.setFxomDocumentAndLocation(result.getValue(), fxmlURL, false);
+            fileDidLoad();
+        });
+        
+        final Thread thread = new Thread(result, "Load " + fxmlFile.getName()); //NOI18N
+        thread.setDaemon(true);
+        thread.start();
+        
+        return result;
     }
     
     public void loadFromURL(URL fxmlURL, boolean refreshThemeFromDocumentPreferences) {
@@ -1885,21 +1909,15 @@ public class DocumentWindowController extends AbstractFxmlWindowController {
                 }
             
                 if (saveConfirmed) {
-                    try {
-                        watchingController.removeDocumentTarget();
-                        var recordGlobal = getPreferencesRecordGlobal();
-                        final byte[] fxmlBytes = editorController.getFxmlText(recordGlobal.isWildcardImports()).getBytes(StandardCharsets.UTF_8); //NOI18N
-                        Files.write(fxmlPath, fxmlBytes);
-                        updateLoadFileTime();
-                        watchingController.update();
-
-                        editorController.getMessageLog().logInfoMessage(
-                                "log.info.save.confirmation", I18N.getBundle(), fileName);
-                        result = ActionStatus.DONE;
-                    } catch(UnsupportedEncodingException x) {
-                        // Should not happen
-                        throw new RuntimeException("Bug", x); //NOI18N
-                    }
+                    watchingController.removeDocumentTarget();
+                    var recordGlobal = getPreferencesRecordGlobal();
+                    writeFxmlFile(fxmlPath, recordGlobal.isWildcardImports());
+                    updateLoadFileTime();
+                    watchingController.update();
+
+                    editorController.getMessageLog().logInfoMessage(
+                            "log.info.save.confirmation", I18N.getBundle(), fileName);
+                    result = ActionStatus.DONE;
                 } else {
                     result = ActionStatus.CANCELLED;
                 }
@@ -2141,6 +2159,15 @@ public class DocumentWindowController extends AbstractFxmlWindowController {
     }
     
     
+    private void fileDidLoad() {
+        updateLoadFileTime();
+        updateStageTitle(); // No-op if fxml has not been loaded yet
+        updateFromDocumentPreferences(true);
+        watchingController.update();
+
+        WarnThemeAlert.showAlertIfRequired(editorController, editorController.getFxomDocument(), getStage());
+    }
+    
     private void updateLoadFileTime() {
         
         final URL fxmlURL = editorController.getFxmlLocation();
@@ -2163,6 +2190,37 @@ public class DocumentWindowController extends AbstractFxmlWindowController {
     }
     
     
+    /*
+     * FXML text is encoded and written to a temporary file as it is 
+     * serialized. The temporary file then replaces fxmlPath: if 
+     * serialization fails, the user file is left untouched.
+     */
+    private void writeFxmlFile(Path fxmlPath, boolean wildcardImports) throws IOException {
+        // Same directory so that the move can be atomic. Unlike
+        // Files.createTempFile(), default file permissions are kept.
+        final Path tmpPath = fxmlPath.resolveSibling("." + fxmlPath.getFileName() + ".tmp"); //NOI18N
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(tmpPath, 
+                    StandardOpenOption.WRITE, 
+                    StandardOpenOption.CREATE, 
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                editorController.writeFxmlText(channel, wildcardImports);
+            }
+            try {
+                Files.move(tmpPath, fxmlPath, 
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch(AtomicMoveNotSupportedException x) {
+                Files.move(tmpPath, fxmlPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+        } finally {
+            if (moved == false) {
+                Files.deleteIfExists(tmpPath);
+            }
+        }
+    }
+    
     private boolean checkLoadFileTime() throws IOException {
         assert editorController.getFxmlLocation() != null;
         
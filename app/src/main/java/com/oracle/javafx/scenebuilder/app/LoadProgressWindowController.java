@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.app;
+
+import com.oracle.javafx.scenebuilder.app.i18n.I18N;
+import com.oracle.javafx.scenebuilder.kit.editor.panel.util.AbstractWindowController;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocumentLoadTask;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.WindowEvent;
+import javafx.util.Duration;
+
+/**
+ * Small window showing the progress of a document loaded in the background,
+ * with a button to cancel the load. The window only opens if the load lasts
+ * more than {@link #OPEN_DELAY}; it closes itself when the load ends.
+ */
+public class LoadProgressWindowController extends AbstractWindowController {
+    
+    private static final Duration OPEN_DELAY = Duration.millis(500);
+    
+    private final FXOMDocumentLoadTask task;
+    private final PauseTransition openTimer = new PauseTransition(OPEN_DELAY);
+    private boolean opened;
+    
+    public LoadProgressWindowController(FXOMDocumentLoadTask task) {
+        assert task != null;
+        this.task = task;
+    }
+    
+    /**
+     * Opens this window after {@link #OPEN_DELAY} unless the task is done.
+     */
+    public void watchTask() {
+        openTimer.setOnFinished(e -> {
+            if (task.isDone() == false) {
+                opened = true;
+                openWindow();
+            }
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, e -> taskDidEnd());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, e -> taskDidEnd());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, e -> taskDidEnd());
+        openTimer.play();
+    }
+    
+    
+    /*
+     * AbstractWindowController
+     */
+    
+    @Override
+    protected void makeRoot() {
+        final Label messageLabel = new Label();
+        messageLabel.textProperty().bind(task.messageProperty());
+        
+        final ProgressBar progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.progressProperty().bind(task.progressProperty());
+        
+        final Button cancelButton = new Button(I18N.getString("label.cancel"));
+        cancelButton.setCancelButton(true);
+        cancelButton.setOnAction(e -> task.cancel());
+        final HBox buttonBox = new HBox(cancelButton);
+        buttonBox.setAlignment(Pos.CENTER_RIGHT);
+        
+        final VBox root = new VBox(8.0, messageLabel, progressBar, buttonBox);
+        root.setPadding(new Insets(12.0));
+        root.setPrefWidth(360.0);
+        setRoot(root);
+    }
+    
+    @Override
+    public void onCloseRequest(WindowEvent event) {
+        task.cancel();
+    }
+    
+    @Override
+    protected void controllerDidCreateStage() {
+        super.controllerDidCreateStage();
+        getStage().setTitle(I18N.getString("alert.title.open"));
+        getStage().setResizable(false);
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void taskDidEnd() {
+        openTimer.stop();
+        if (opened) {
+            closeWindow();
+        }
+    }
+}
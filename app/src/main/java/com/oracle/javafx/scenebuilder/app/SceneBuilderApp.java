@@ -56,6 +56,7 @@ import com.oracle.javafx.scenebuilder.kit.editor.EditorController;
 import com.oracle.javafx.scenebuilder.kit.editor.EditorPlatform;
 import com.oracle.javafx.scenebuilder.kit.editor.panel.util.dialog.AlertDialog;
 import com.oracle.javafx.scenebuilder.kit.editor.panel.util.dialog.ErrorDialog;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocumentLoadTask;
 import com.oracle.javafx.scenebuilder.kit.library.BuiltinLibrary;
 import com.oracle.javafx.scenebuilder.kit.library.user.UserLibrary;
 import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
@@ -72,8 +73,10 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -87,6 +90,7 @@ import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -116,6 +120,8 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
     private static final CountDownLatch launchLatch = new CountDownLatch(1);
 
     private final ObservableList<DocumentWindowController> windowList = FXCollections.observableArrayList();
+    private final Map<DocumentWindowController, FXOMDocumentLoadTask> pendingLoads = new HashMap<>();
+    private boolean exiting;
     private UserLibrary userLibrary;
     private ToolTheme toolTheme = ToolTheme.DEFAULT;
 
@@ -289,7 +295,14 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
         try {
             final URI fxmlURI = fxmlLocation.toURI();
             for (DocumentWindowController dwc : windowList) {
-                final URL docLocation = dwc.getEditorController().getFxmlLocation();
+                final URL docLocation;
+                final FXOMDocumentLoadTask pendingLoad = pendingLoads.get(dwc);
+                if (pendingLoad != null) {
+                    // Document location is set once the load succeeds
+                    docLocation = pendingLoad.getLocation();
+                } else {
+                    docLocation = dwc.getEditorController().getFxmlLocation();
+                }
                 if ((docLocation != null) && fxmlURI.equals(docLocation.toURI())) {
                     result = dwc;
                     break;
@@ -307,7 +320,7 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
         DocumentWindowController result = null;
 
         for (DocumentWindowController dwc : windowList) {
-            if (dwc.isUnused()) {
+            if (dwc.isUnused() && (pendingLoads.containsKey(dwc) == false)) {
                 result = dwc;
                 break;
             }
@@ -376,6 +389,13 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
 
     }
 
+    @Override
+    public void stop() throws Exception {
+        // Saves custom component introspections not yet written to disk
+        Metadata.getMetadata().flushIntrospectionCache();
+        super.stop();
+    }
+
     /*
      * AppPlatform.AppNotificationHandler
      */
@@ -644,13 +664,16 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
         assert fxmlFiles != null;
         assert fxmlFiles.isEmpty() == false;
 
-        final Map<File, IOException> exceptions = new HashMap<>();
+        final Map<File, Throwable> exceptions = new HashMap<>();
+        final Set<FXOMDocumentLoadTask> runningTasks = new HashSet<>();
+        // Files whose load is cancelled by the user are removed
+        final List<File> openedFiles = new ArrayList<>(fxmlFiles);
         for (File fxmlFile : fxmlFiles) {
             try {
                 final DocumentWindowController dwc
                         = lookupDocumentWindowControllers(fxmlFile.toURI().toURL());
                 if (dwc != null) {
-                    // fxmlFile is already opened
+                    // fxmlFile is already opened (or being opened)
                     dwc.getStage().toFront();
                 } else {
                     // Open fxmlFile
@@ -662,14 +685,52 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
                     } else {
                         hostWindow = makeNewWindow();
                     }
-                    hostWindow.loadFromFile(fxmlFile);
-                    hostWindow.openWindow();
+                    final FXOMDocumentLoadTask task = hostWindow.loadFromFileInBackground(fxmlFile);
+                    pendingLoads.put(hostWindow, task);
+                    runningTasks.add(task);
+                    task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, e -> {
+                        hostWindow.openWindow();
+                        loadDidComplete(hostWindow, task, runningTasks, openedFiles, exceptions);
+                    });
+                    task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, e -> {
+                        exceptions.put(fxmlFile, task.getException());
+                        loadDidComplete(hostWindow, task, runningTasks, openedFiles, exceptions);
+                    });
+                    task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, e -> {
+                        if (exiting) {
+                            // Open operation is interrupted: nothing to report
+                            pendingLoads.remove(hostWindow);
+                        } else {
+                            // Cancelled from the progress window
+                            openedFiles.remove(fxmlFile);
+                            loadDidComplete(hostWindow, task, runningTasks, openedFiles, exceptions);
+                        }
+                    });
+                    new LoadProgressWindowController(task).watchTask();
                 }
             } catch (IOException xx) {
                 exceptions.put(fxmlFile, xx);
             }
         }
 
+        if (runningTasks.isEmpty()) {
+            reportOpenResults(fxmlFiles, exceptions);
+        }
+    }
+
+    private void loadDidComplete(DocumentWindowController hostWindow,
+                                 FXOMDocumentLoadTask task,
+                                 Set<FXOMDocumentLoadTask> runningTasks,
+                                 List<File> fxmlFiles,
+                                 Map<File, Throwable> exceptions) {
+        pendingLoads.remove(hostWindow);
+        runningTasks.remove(task);
+        if (runningTasks.isEmpty()) {
+            reportOpenResults(fxmlFiles, exceptions);
+        }
+    }
+
+    private void reportOpenResults(List<File> fxmlFiles, Map<File, Throwable> exceptions) {
         switch (exceptions.size()) {
             case 0: { // Good
                 // Update recent items with opened files
@@ -679,7 +740,7 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
             }
             case 1: {
                 final File fxmlFile = exceptions.keySet().iterator().next();
-                final Exception x = exceptions.get(fxmlFile);
+                final Throwable x = exceptions.get(fxmlFile);
                 final ErrorDialog errorDialog = new ErrorDialog(null);
                 errorDialog.setMessage(I18N.getString("alert.open.failure1.message", displayName(fxmlFile.getPath())));
                 errorDialog.setDetails(I18N.getString("alert.open.failure1.details"));
@@ -778,6 +839,11 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
 
         // Exit if confirmed
         if (exitConfirmed) {
+            // Interrupts documents still loading in the background
+            exiting = true;
+            for (FXOMDocumentLoadTask task : new ArrayList<>(pendingLoads.values())) {
+                task.cancel();
+            }
             for (DocumentWindowController dwc : new ArrayList<>(windowList)) {
                 // Write to java preferences before closing
                 dwc.updatePreferences();
@@ -860,7 +926,8 @@ public class SceneBuilderApp extends Application implements AppPlatform.AppNotif
         assert Platform.isFxApplicationThread() == false; // Warning 
 
         PreferencesController.getSingleton();
-        Metadata.getMetadata();
+        Metadata.getMetadata().setIntrospectionCacheFile(
+                Paths.get(AppPlatform.getMetadataCacheFile()));
     }
 
     private void backgroundStartPhase2() {
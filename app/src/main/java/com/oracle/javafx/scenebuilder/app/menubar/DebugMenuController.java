@@ -42,10 +42,14 @@ import com.oracle.javafx.scenebuilder.kit.editor.job.Job;
 import com.oracle.javafx.scenebuilder.kit.editor.job.reference.UpdateReferencesJob;
 import com.oracle.javafx.scenebuilder.kit.editor.panel.content.ContentPanelController;
 import com.oracle.javafx.scenebuilder.kit.editor.panel.util.dialog.ErrorDialog;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshMetrics;
 import com.oracle.javafx.scenebuilder.kit.util.MathUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import javafx.geometry.Point2D;
@@ -116,6 +120,30 @@ class DebugMenuController {
             undoRedoStackMenuShowing((Menu) t.getTarget());
         });
                 
+        /*
+         * Refresh metrics
+         */
+        final MenuItem printMetricsMenuItem = new MenuItem();
+        printMetricsMenuItem.setText("Print Refresh Metrics"); //NOI18N
+        printMetricsMenuItem.setOnAction(t -> {
+            System.out.println("REFRESH METRICS"); //NOI18N
+            System.out.print(RefreshMetrics.getMetrics());
+        });
+        final MenuItem resetMetricsMenuItem = new MenuItem();
+        resetMetricsMenuItem.setText("Reset Refresh Metrics"); //NOI18N
+        resetMetricsMenuItem.setOnAction(t -> RefreshMetrics.getMetrics().reset());
+        
+        final Menu metricsMenu = new Menu("Refresh Metrics"); //NOI18N
+        metricsMenu.getItems().add(printMetricsMenuItem);
+        metricsMenu.getItems().add(resetMetricsMenuItem);
+        
+        /*
+         * Memory report
+         */
+        final MenuItem memoryReportMenuItem = new MenuItem();
+        memoryReportMenuItem.setText("Print Memory Report"); //NOI18N
+        memoryReportMenuItem.setOnAction(t -> printMemoryReport());
+        
         menu.getItems().add(libraryFolderMenu);
         menu.getItems().add(new SeparatorMenuItem());
         menu.getItems().add(layoutMenuItem);
@@ -124,6 +152,9 @@ class DebugMenuController {
         menu.getItems().add(useDarkThemeMenuItem);
         menu.getItems().add(new SeparatorMenuItem());
         menu.getItems().add(undoRedoStack);
+        menu.getItems().add(new SeparatorMenuItem());
+        menu.getItems().add(metricsMenu);
+        menu.getItems().add(memoryReportMenuItem);
     }
     
     public Menu getMenu() {
@@ -167,6 +198,29 @@ class DebugMenuController {
         }
     }
     
+    /*
+     * Private (memory report)
+     */
+    
+    private void printMemoryReport() {
+        final List<MemoryReport> reports = new ArrayList<>();
+        for (DocumentWindowController dwc : SceneBuilderApp.getSingleton().getDocumentWindowControllers()) {
+            final MemoryReport report = dwc.getEditorController().makeMemoryReport();
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        reports.sort(Comparator.comparingLong(MemoryReport::getTotalBytes).reversed());
+        
+        long totalBytes = 0;
+        System.out.println("MEMORY REPORT (estimates)"); //NOI18N
+        for (MemoryReport report : reports) {
+            System.out.print(report);
+            totalBytes += report.getTotalBytes();
+        }
+        System.out.println(String.format("%d documents: %,d KB", reports.size(), totalBytes / 1024)); //NOI18N
+    }
+    
     /*
      * Private (undo/redo stack)
      */
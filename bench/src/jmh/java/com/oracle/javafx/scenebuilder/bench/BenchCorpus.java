@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.bench;
+
+import com.oracle.javafx.scenebuilder.kit.corpus.FXMLCorpusGenerator;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import java.io.IOException;
+import java.net.URL;
+import javafx.application.Platform;
+
+/**
+ * FXML documents the benchmarks run on. A corpus name is either the name 
+ * of a built-in template, "generated-N": a document with about N FXOM
+ * objects produced by the kit test {@link FXMLCorpusGenerator}, or 
+ * "custom-N": a document with N {@link BenchCustomButton} imported
+ * with wildcard imports.
+ */
+final class BenchCorpus {
+    
+    /* Default @Param values of the document benchmarks */
+    static final String BASIC_DESKTOP = "BasicDesktopApplication"; //NOI18N
+    static final String COMPLEX_DESKTOP = "ComplexDesktopApplication"; //NOI18N
+    static final String GENERATED_100 = "generated-100"; //NOI18N
+    static final String GENERATED_1K = "generated-1000"; //NOI18N
+    static final String GENERATED_10K = "generated-10000"; //NOI18N
+    static final String CUSTOM_1K = "custom-1000"; //NOI18N
+    
+    private static final String GENERATED_PREFIX = "generated-"; //NOI18N
+    private static final String CUSTOM_PREFIX = "custom-"; //NOI18N
+    private static final String TEMPLATE_FOLDER 
+            = "/com/oracle/javafx/scenebuilder/kit/template/"; //NOI18N
+    
+    private BenchCorpus() {
+        // Only static methods
+    }
+    
+    public static String getFxmlText(String name) throws IOException {
+        final String result;
+        if (name.startsWith(GENERATED_PREFIX)) {
+            result = makeFxmlText(Integer.parseInt(name.substring(GENERATED_PREFIX.length())));
+        } else if (name.startsWith(CUSTOM_PREFIX)) {
+            result = makeCustomFxmlText(Integer.parseInt(name.substring(CUSTOM_PREFIX.length())));
+        } else {
+            result = FXOMDocument.readContentFromURL(getLocation(name));
+        }
+        return result;
+    }
+    
+    /*
+     * Returns null for generated and custom documents: they have no location.
+     */
+    public static URL getLocation(String name) throws IOException {
+        final URL result;
+        if (name.startsWith(GENERATED_PREFIX) || name.startsWith(CUSTOM_PREFIX)) {
+            result = null;
+        } else {
+            result = BenchCorpus.class.getResource(TEMPLATE_FOLDER + name + ".fxml"); //NOI18N
+            if (result == null) {
+                throw new IOException("Unknown template " + name); //NOI18N
+            }
+        }
+        return result;
+    }
+    
+    public static ClassLoader getClassLoader() {
+        return BenchCorpus.class.getClassLoader();
+    }
+    
+    public static void startToolkit() {
+        try {
+            Platform.startup(() -> {});
+            Platform.setImplicitExit(false);
+        } catch(IllegalStateException x) {
+            // Toolkit already started by a previous trial
+        }
+    }
+    
+    /*
+     * Returns an FXML text with about objectCount FXOM objects. Seed is fixed
+     * so that every run measures the same document.
+     */
+    static String makeFxmlText(int objectCount) throws IOException {
+        final FXMLCorpusGenerator generator = new FXMLCorpusGenerator();
+        generator.setNodeCount(objectCount);
+        generator.setSeed(objectCount);
+        return generator.generate();
+    }
+    
+    /*
+     * Returns an FXML text with componentCount custom components. The 
+     * custom package comes last in the imports so that FXMLLoader first 
+     * probes the JavaFX packages for each tag.
+     */
+    static String makeCustomFxmlText(int componentCount) {
+        final String customPackage = BenchCustomButton.class.getPackage().getName();
+        final StringBuilder result = new StringBuilder();
+        result.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n"); //NOI18N
+        result.append("<?import javafx.scene.control.*?>\n"); //NOI18N
+        result.append("<?import javafx.scene.layout.*?>\n"); //NOI18N
+        result.append("<?import ").append(customPackage).append(".*?>\n\n"); //NOI18N
+        result.append("<VBox xmlns=\"http://javafx.com/javafx\" xmlns:fx=\"http://javafx.com/fxml/1\">\n"); //NOI18N
+        result.append("  <children>\n"); //NOI18N
+        for (int i = 0; i < componentCount; i++) {
+            result.append("    <BenchCustomButton caption=\"c"); //NOI18N
+            result.append(i).append("\" weight=\"").append(i % 10).append("\" />\n"); //NOI18N
+        }
+        result.append("  </children>\n"); //NOI18N
+        result.append("</VBox>\n"); //NOI18N
+        return result.toString();
+    }
+}
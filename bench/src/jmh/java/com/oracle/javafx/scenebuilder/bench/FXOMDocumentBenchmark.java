@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.bench;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMArchive;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMCloner;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * FXOM document life cycle: load, save, scene graph refresh, clone and
+ * clipboard decoding (FXOMArchive).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FXOMDocumentBenchmark {
+    
+    @Param({
+        BenchCorpus.BASIC_DESKTOP, 
+        BenchCorpus.COMPLEX_DESKTOP,
+        BenchCorpus.GENERATED_100, 
+        BenchCorpus.GENERATED_1K, 
+        BenchCorpus.GENERATED_10K,
+        BenchCorpus.CUSTOM_1K
+    })
+    public String corpus;
+    
+    private String fxmlText;
+    private URL location;
+    private FXOMDocument document;
+    private FXOMArchive archive;
+    private FXOMDocument targetDocument;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchCorpus.startToolkit();
+        fxmlText = BenchCorpus.getFxmlText(corpus);
+        location = BenchCorpus.getLocation(corpus);
+        document = new FXOMDocument(fxmlText, location, BenchCorpus.getClassLoader(), null);
+        archive = new FXOMArchive(Collections.singletonList(document.getFxomRoot()));
+        targetDocument = new FXOMDocument();
+    }
+    
+    @Benchmark
+    public FXOMDocument load() throws IOException {
+        return new FXOMDocument(fxmlText, location, BenchCorpus.getClassLoader(), null);
+    }
+    
+    @Benchmark
+    public String getFxmlText() {
+        return document.getFxmlText(false /* wildcardImports */);
+    }
+    
+    @Benchmark
+    public int refresh() {
+        // Full refresh: FXOMRefresher reloads the whole document
+        document.refreshSceneGraph();
+        return document.sceneGraphRevisionProperty().get();
+    }
+    
+    @Benchmark
+    public FXOMObject cloneRoot() {
+        final FXOMCloner cloner = new FXOMCloner(document);
+        return cloner.clone(document.getFxomRoot());
+    }
+    
+    @Benchmark
+    public List<FXOMObject> decodeArchive() throws IOException {
+        return archive.decode(targetDocument);
+    }
+}
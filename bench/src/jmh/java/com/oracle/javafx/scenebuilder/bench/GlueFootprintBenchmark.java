@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.bench;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Footprint of glue documents loaded from a synthetic FXML text.
+ * 
+ * Bytes allocated per document are reported by the GC profiler 
+ * (gc.alloc.rate.norm), for example:
+ * <pre>
+ * ./gradlew :bench:jmh -PjmhInclude="GlueFootprintBenchmark" -PjmhProfilers="gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GlueFootprintBenchmark {
+    
+    @Param({"1000", "10000"})
+    public int elementCount;
+    
+    private String fxmlText;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        fxmlText = makeFxmlText(elementCount);
+    }
+    
+    @Benchmark
+    public GlueDocument load() throws IOException {
+        return new GlueDocument(fxmlText);
+    }
+    
+    /*
+     * Returns an FXML text with elementCount elements: rows of buttons 
+     * and labels inside VBoxes. One third of the elements are property
+     * elements, as in documents saved by Scene Builder.
+     */
+    static String makeFxmlText(int elementCount) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n"); //NOI18N
+        sb.append("<?import javafx.scene.control.Button?>\n"); //NOI18N
+        sb.append("<?import javafx.scene.control.Label?>\n"); //NOI18N
+        sb.append("<?import javafx.scene.layout.VBox?>\n\n"); //NOI18N
+        sb.append("<VBox xmlns=\"http://javafx.com/javafx/11\" xmlns:fx=\"http://javafx.com/fxml/1\">\n"); //NOI18N
+        sb.append("   <children>\n"); //NOI18N
+        
+        int count = 2; // VBox + children
+        int boxIndex = 0;
+        while (count < elementCount) {
+            sb.append("      <VBox fx:id=\"box").append(boxIndex).append("\" spacing=\"4.0\">\n"); //NOI18N
+            sb.append("         <children>\n"); //NOI18N
+            count += 2;
+            for (int i = 0; (i < 10) && (count < elementCount); i++) {
+                if (i % 2 == 0) {
+                    sb.append("            <Button fx:id=\"button").append(boxIndex).append('_').append(i) //NOI18N
+                            .append("\" layoutX=\"").append(i * 10).append(".0\" text=\"Button\" />\n"); //NOI18N
+                    count += 1;
+                } else {
+                    sb.append("            <Label text=\"Label ").append(i).append("\">\n"); //NOI18N
+                    sb.append("               <tooltip><String fx:value=\"Tip\" /></tooltip>\n"); //NOI18N
+                    sb.append("            </Label>\n"); //NOI18N
+                    count += 3;
+                }
+            }
+            sb.append("         </children>\n"); //NOI18N
+            sb.append("      </VBox>\n"); //NOI18N
+            boxIndex++;
+        }
+        
+        sb.append("   </children>\n"); //NOI18N
+        sb.append("</VBox>\n"); //NOI18N
+        return sb.toString();
+    }
+}
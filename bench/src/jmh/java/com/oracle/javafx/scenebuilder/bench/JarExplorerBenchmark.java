@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.bench;
+
+import com.oracle.javafx.scenebuilder.kit.library.util.JarExplorer;
+import com.oracle.javafx.scenebuilder.kit.library.util.JarReport;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Button;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Exploration of a component jar, as performed when a jar is imported in
+ * the user library. The jar explored is the one providing JavaFX controls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JarExplorerBenchmark {
+    
+    private Path jar;
+    private URLClassLoader classLoader;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException {
+        BenchCorpus.startToolkit();
+        final CodeSource codeSource = Button.class.getProtectionDomain().getCodeSource();
+        if ((codeSource == null) || (codeSource.getLocation().getPath().endsWith(".jar") == false)) { //NOI18N
+            throw new IllegalStateException("JavaFX controls are not loaded from a jar"); //NOI18N
+        }
+        jar = Paths.get(codeSource.getLocation().toURI());
+    }
+    
+    @Setup(Level.Iteration)
+    public void setUpClassLoader() throws IOException {
+        // A fresh class loader per iteration: exploration loads every class
+        classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, 
+                BenchCorpus.getClassLoader());
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownClassLoader() throws IOException {
+        classLoader.close();
+    }
+    
+    @Benchmark
+    public JarReport explore() throws IOException {
+        final JarExplorer explorer = new JarExplorer(jar);
+        return explorer.explore(classLoader);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.bench;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.klass.ComponentClassMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.GridPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Metadata lookups performed by the inspector, the refresher and the 
+ * drag and drop controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetadataBenchmark {
+    
+    private static final Class<?>[] COMPONENT_CLASSES = {
+        Button.class, Label.class, TextField.class, 
+        AnchorPane.class, GridPane.class, TableView.class
+    };
+    
+    private static final PropertyName[] PROPERTY_NAMES = {
+        new PropertyName("layoutX"), //NOI18N
+        new PropertyName("text"), //NOI18N
+        new PropertyName("children"), //NOI18N
+        new PropertyName("style"), //NOI18N
+        new PropertyName("prefWidth"), //NOI18N
+        new PropertyName("rowIndex", GridPane.class) //NOI18N
+    };
+    
+    private static final PropertyName[] VALUE_NAMES = {
+        new PropertyName("layoutX"), //NOI18N
+        new PropertyName("text"), //NOI18N
+        new PropertyName("style"), //NOI18N
+        new PropertyName("prefWidth"), //NOI18N
+        new PropertyName("rowIndex", GridPane.class) //NOI18N
+    };
+    
+    private Metadata metadata;
+    private Button button;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchCorpus.startToolkit();
+        metadata = Metadata.getMetadata();
+        button = new Button("OK"); //NOI18N
+        GridPane.setRowIndex(button, 1);
+    }
+    
+    @Benchmark
+    public void queryProperty(Blackhole blackhole) {
+        for (Class<?> componentClass : COMPONENT_CLASSES) {
+            for (PropertyName name : PROPERTY_NAMES) {
+                blackhole.consume(metadata.queryProperty(componentClass, name));
+            }
+        }
+    }
+    
+    /*
+     * Scene graph reads performed by the inspector and the refresher.
+     */
+    @Benchmark
+    public void getValue(Blackhole blackhole) {
+        for (PropertyName name : VALUE_NAMES) {
+            blackhole.consume(name.getValue(button));
+        }
+    }
+    
+    /*
+     * Baseline: same lookups by walking the class metadata chain, as
+     * queryProperty() did before properties were flattened.
+     */
+    @Benchmark
+    public void queryPropertyByWalk(Blackhole blackhole) {
+        for (Class<?> componentClass : COMPONENT_CLASSES) {
+            for (PropertyName name : PROPERTY_NAMES) {
+                blackhole.consume(walkProperty(componentClass, name));
+            }
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private PropertyMetadata walkProperty(Class<?> componentClass, PropertyName name) {
+        final Map<PropertyName, PropertyMetadata> properties = new HashMap<>();
+        ComponentClassMetadata classMetadata = metadata.queryComponentMetadata(componentClass);
+        while (classMetadata != null) {
+            for (PropertyMetadata pm : classMetadata.getProperties()) {
+                properties.putIfAbsent(pm.getName(), pm);
+            }
+            classMetadata = classMetadata.getParentMetadata();
+        }
+        PropertyMetadata result = null;
+        for (PropertyMetadata pm : new HashSet<>(properties.values())) {
+            if (pm.getName().equals(name)) {
+                result = pm;
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -76,6 +76,7 @@ import com.oracle.javafx.scenebuilder.kit.editor.selection.ObjectSelectionGroup;
 import com.oracle.javafx.scenebuilder.kit.editor.selection.Selection;
 import com.oracle.javafx.scenebuilder.kit.editor.util.ContextMenuController;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocumentLoadTask;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMInstance;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMIntrinsic;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
@@ -92,12 +93,14 @@ import com.oracle.javafx.scenebuilder.kit.metadata.util.DesignHierarchyMask;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.DesignHierarchyMask.Accessory;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.PrefixedValue;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
 import com.oracle.javafx.scenebuilder.kit.util.control.effectpicker.Utils;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -277,6 +280,7 @@ public class EditorController {
             = new SimpleBooleanProperty(false);
     private final BooleanProperty sampleDataEnabledProperty
             = new SimpleBooleanProperty(false);
+    private boolean lazyContentEnabled;
     private final SimpleStringProperty toolStylesheetProperty
             = new SimpleStringProperty(getBuiltinToolStylesheet());
     
@@ -293,6 +297,8 @@ public class EditorController {
      */
     public EditorController() {
         jobManager.revisionProperty().addListener((ChangeListener<Number>) (ov, t, t1) -> jobManagerRevisionDidChange());
+        // Registered first: panels find selected objects materialized
+        selection.revisionProperty().addListener((ChangeListener<Number>) (ov, t, t1) -> selectionDidChange());
     }
 
     /**
@@ -355,19 +361,30 @@ public class EditorController {
         if (fxomDocument == null) {
             result = null;
         } else {
-            final boolean sampleDataEnabled = fxomDocument.isSampleDataEnabled();
-            if (sampleDataEnabled) {
-                fxomDocument.setSampleDataEnabled(false);
-            }
+            // Sample data is not part of the text: no need to remove it
             result = fxomDocument.getFxmlText(wildcardImports);
-            if (sampleDataEnabled) {
-                fxomDocument.setSampleDataEnabled(true);
-            }
         }
         
         return result;
     }
     
+    /**
+     * Writes the fxml content being edited by this editor to the specified
+     * channel (UTF-8 encoded). Same content as {@link #getFxmlText(boolean)}
+     * but the text is not built in memory. Writes nothing if this editor is 
+     * empty. channel is not closed.
+     * 
+     * @param channel a channel (never null)
+     * @param wildcardImports If the FXML should have wildcards in its imports.
+     * @throws IOException if channel fails
+     */
+    public void writeFxmlText(WritableByteChannel channel, boolean wildcardImports) throws IOException {
+        final FXOMDocument fxomDocument = getFxomDocument();
+        if (fxomDocument != null) {
+            fxomDocument.writeFxmlText(channel, wildcardImports);
+        }
+    }
+    
     /**
      * Returns true if fxml content being edited can be returned safely.
      * This method will return false if there is a text editing session on-going.
@@ -716,6 +733,30 @@ public class EditorController {
         }
     }
     
+    /**
+     * Returns true if the content of non-selected Tabs and collapsed 
+     * TitledPanes is instantiated only when some of it is selected.
+     * 
+     * @return true if lazy content is enabled (default is false).
+     */
+    public boolean isLazyContentEnabled() {
+        return lazyContentEnabled;
+    }
+    
+    /**
+     * Enables or disables lazy instantiation of non-selected Tab and 
+     * collapsed TitledPane contents (see 
+     * {@link FXOMDocument#setLazyContentEnabled(boolean)}).
+     * 
+     * @param lazyContentEnabled true if content should be instantiated lazily
+     */
+    public void setLazyContentEnabled(boolean lazyContentEnabled) {
+        this.lazyContentEnabled = lazyContentEnabled;
+        if (getFxomDocument() != null) {
+            getFxomDocument().setLazyContentEnabled(lazyContentEnabled);
+        }
+    }
+    
     /**
      * The property indicating if sample data should be displayed or not.
      * 
@@ -798,6 +839,35 @@ public class EditorController {
         this.fxmlLocationProperty.setValue(fxmlLocation);
     }
     
+    /**
+     * Returns a task which loads the fxml document at the specified location
+     * with the class loader and resources of this editor. The task does not
+     * touch this editor: when it succeeds, its value should be passed to
+     * {@link #setFxomDocumentAndLocation(FXOMDocument, URL, boolean)}.
+     * 
+     * @param fxmlLocation the location of the fxml text to be loaded (never null)
+     * @return a task ready to be run outside of the JavaFX application thread.
+     */
+    public FXOMDocumentLoadTask makeLoadTask(URL fxmlLocation) {
+        assert fxmlLocation != null;
+        return new FXOMDocumentLoadTask(fxmlLocation, getLibrary().getClassLoader(), getResources());
+    }
+    
+    /**
+     * Sets the document to be edited by this editor and its location.
+     * Same as setFxmlTextAndLocation() but the document has been loaded
+     * beforehand (see {@link #makeLoadTask(URL)}).
+     * 
+     * @param fxomDocument null or the document to be edited
+     * @param fxmlLocation null or the location of the fxml text being edited
+     * @param checkTheme if set to true a check will be made if the fxml contains
+     *                           Gluon controls and if so, the correct theme is set
+     */
+    public void setFxomDocumentAndLocation(FXOMDocument fxomDocument, URL fxmlLocation, boolean checkTheme) {
+        updateFxomDocument(fxomDocument, checkTheme);
+        this.fxmlLocationProperty.setValue(fxmlLocation);
+    }
+    
     /**
      * The property holding the document associated to this editor.
      * @return the property holding the document associated to this editor.
@@ -815,6 +885,21 @@ public class EditorController {
         return fxomDocumentProperty.getValue();
     }
     
+    /**
+     * Applies the pending scene graph refresh of the document, if any.
+     * Refreshes are coalesced (see {@link FXOMDocument#isRefreshCoalescingEnabled()}):
+     * code reading the scene graph of the document right after an edit must
+     * call this method first. Does nothing while the document is being updated.
+     */
+    public void flushSceneGraphRefresh() {
+        final FXOMDocument fxomDocument = getFxomDocument();
+        if ((fxomDocument != null) 
+                && (fxomDocument.isUpdateOnGoing() == false)
+                && fxomDocument.isSceneGraphRefreshPending()) {
+            fxomDocument.flushSceneGraphRefresh();
+        }
+    }
+    
     /**
      * Returns the tool stylesheet associated to this editor controller.
      * Its default value equals to getBuiltinToolStylesheet().
@@ -924,6 +1009,24 @@ public class EditorController {
         return jobManager;
     }
     
+    /**
+     * Returns an estimate of the memory retained by the document of this 
+     * editor, including its undo and redo stacks. Sizes are heuristics.
+     * 
+     * @return a new memory report (null if this editor has no document).
+     */
+    public MemoryReport makeMemoryReport() {
+        final FXOMDocument fxomDocument = getFxomDocument();
+        final MemoryReport result;
+        if (fxomDocument == null) {
+            result = null;
+        } else {
+            result = fxomDocument.makeMemoryReport();
+            new JobMemoryEstimator(fxomDocument).estimate(jobManager, result);
+        }
+        return result;
+    }
+    
     /**
      * @treatAsPrivate Returns the message log associated to this editor.
      * 
@@ -2561,6 +2664,19 @@ public class EditorController {
         } else {
             newFxomDocument = null;
         }
+        updateFxomDocument(newFxomDocument, checkTheme);
+    }
+    
+    private void updateFxomDocument(FXOMDocument newFxomDocument, boolean checkTheme) {
+        final FXOMDocument oldFxomDocument = getFxomDocument();
+        if (oldFxomDocument != null) {
+            oldFxomDocument.setRefreshCoalescingEnabled(false);
+        }
+        if (newFxomDocument != null) {
+            // Bursts of edits (sliders, nudges...) refresh once per pulse
+            newFxomDocument.setRefreshCoalescingEnabled(true);
+            newFxomDocument.setLazyContentEnabled(lazyContentEnabled);
+        }
         jobManager.clear();
         selection.clear();
         messageLog.clear();
@@ -2578,6 +2694,8 @@ public class EditorController {
             = (ov, t, t1) -> libraryClassLoaderDidChange();
     
     private void libraryClassLoaderDidChange() {
+        // Lookups memoized with the previous class loader are stale
+        FXOMDocument.clearClassResolutionCache();
         if (getFxomDocument() != null) {
             errorReport.forget();
             getFxomDocument().setClassLoader(libraryProperty.get().getClassLoader());
@@ -2591,6 +2709,20 @@ public class EditorController {
         }
     }
     
+    private void selectionDidChange() {
+        final FXOMDocument fxomDocument = getFxomDocument();
+        final AbstractSelectionGroup group = selection.getGroup();
+        if ((fxomDocument != null) && fxomDocument.isLazyContentEnabled() && (group != null)) {
+            if (group instanceof ObjectSelectionGroup) {
+                for (FXOMObject fxomObject : ((ObjectSelectionGroup) group).getItems()) {
+                    fxomDocument.materializeContent(fxomObject);
+                }
+            } else if (group.getAncestor() != null) {
+                fxomDocument.materializeContent(group.getAncestor());
+            }
+        }
+    }
+    
     private void jobManagerRevisionDidChange() {
         errorReport.forget();
         watchingController.jobManagerRevisionDidChange();
@@ -79,6 +79,7 @@ public class JobManager {
         }
         
         final Job fixJob = new UpdateReferencesJob(job);
+        flushSceneGraphRefresh(fixJob);
         executeJob(fixJob);
         undoStack.add(0, fixJob);
         if (undoStack.size() > undoStackMaxSize) {
@@ -123,6 +124,7 @@ public class JobManager {
         }
         
         final Job job = undoStack.get(0);
+        flushSceneGraphRefresh(job);
         undoJob(job);
         undoStack.remove(0);
         redoStack.add(0, job);
@@ -152,6 +154,7 @@ public class JobManager {
         }
         
         final Job job = redoStack.get(0);
+        flushSceneGraphRefresh(job);
         redoJob(job);
         redoStack.remove(0);
         undoStack.add(0, job);
@@ -187,6 +190,16 @@ public class JobManager {
      * Private
      */
     
+    /*
+     * Jobs reading layout bounds (relocate, wrap, fit to parent...) see the
+     * changes of previous jobs. Other jobs let their refreshes coalesce.
+     */
+    private void flushSceneGraphRefresh(Job job) {
+        if (job.requiresConsistentSceneGraph()) {
+            editorController.flushSceneGraphRefresh();
+        }
+    }
+    
     private void executeJob(Job job) {
         lock = true;
         try {
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.editor;
+
+import com.oracle.javafx.scenebuilder.kit.editor.job.Job;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMMemoryEstimator;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport.Category;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the memory retained by the undo and redo stacks of a job manager.
+ * 
+ * Jobs do not expose their state: their fields are walked reflectively.
+ * Only jobs, FXOM objects, strings and collections of them are followed.
+ * FXOM objects which are still in the document are accounted by the document 
+ * report: only detached subtrees (deleted, cut, replaced...) are charged 
+ * to the undo stack.
+ */
+class JobMemoryEstimator {
+    
+    // Job header and a few fields
+    private static final int JOB_BYTES = 32;
+    private static final int REFERENCE = 4;
+    
+    private final FXOMDocument fxomDocument;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int jobCount;
+    private long bytes;
+    
+    JobMemoryEstimator(FXOMDocument fxomDocument) {
+        this.fxomDocument = fxomDocument;
+    }
+    
+    void estimate(JobManager jobManager, MemoryReport report) {
+        assert jobManager != null;
+        assert report != null;
+        
+        for (Job job : jobManager.getUndoStack()) {
+            estimateObject(job);
+        }
+        for (Job job : jobManager.getRedoStack()) {
+            estimateObject(job);
+        }
+        report.addBytes(Category.UNDO_STACK, bytes);
+        report.setJobCount(jobCount);
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void estimateObject(Object object) {
+        if ((object == null) || (visited.add(object) == false)) {
+            return;
+        }
+        
+        if (object instanceof Job) {
+            jobCount++;
+            bytes += JOB_BYTES;
+            for (Class<?> c = object.getClass(); c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()) == false) {
+                        bytes += REFERENCE;
+                        if (isFollowed(f.getType())) {
+                            estimateObject(readField(f, object));
+                        }
+                    }
+                }
+            }
+        } else if (object instanceof FXOMObject) {
+            estimateFxomObject((FXOMObject) object);
+        } else if (object instanceof String) {
+            bytes += 24 + 16 + ((String) object).length();
+        } else if (object instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) object;
+            bytes += 32 + REFERENCE * collection.size();
+            for (Object item : collection) {
+                estimateObject(item);
+            }
+        } else if (object instanceof Map) {
+            final Map<?,?> map = (Map<?,?>) object;
+            bytes += 48 + 32 * map.size();
+            for (Map.Entry<?,?> e : map.entrySet()) {
+                estimateObject(e.getKey());
+                estimateObject(e.getValue());
+            }
+        }
+    }
+    
+    private void estimateFxomObject(FXOMObject fxomObject) {
+        FXOMObject top = fxomObject;
+        while (top.getParentObject() != null) {
+            top = top.getParentObject();
+        }
+        final boolean attached = (top.getFxomDocument() == fxomDocument) 
+                && (top == fxomDocument.getFxomRoot());
+        if ((attached == false) && ((top == fxomObject) || visited.add(top))) {
+            bytes += FXOMMemoryEstimator.estimateBytes(top);
+        }
+    }
+    
+    private static boolean isFollowed(Class<?> type) {
+        return (type == Object.class)
+                || Job.class.isAssignableFrom(type)
+                || FXOMObject.class.isAssignableFrom(type)
+                || (type == String.class)
+                || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type);
+    }
+    
+    private static Object readField(Field field, Object object) {
+        Object result;
+        try {
+            field.setAccessible(true);
+            result = field.get(object);
+        } catch(IllegalAccessException | RuntimeException x) {
+            // Inaccessible field: not accounted
+            result = null;
+        }
+        return result;
+    }
+}
@@ -53,6 +53,10 @@ public abstract class BatchDocumentJob extends CompositeJob {
     @Override
     public final List<Job> getSubJobs() {
         if (subJobs == null) {
+            if (requiresConsistentSceneGraph()) {
+                // Sub jobs are computed from the scene graph
+                getEditorController().flushSceneGraphRefresh();
+            }
             subJobs = Collections.unmodifiableList(makeSubJobs());
             assert subJobs != null;
         }
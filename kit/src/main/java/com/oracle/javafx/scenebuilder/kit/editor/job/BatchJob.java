@@ -103,6 +103,18 @@ public class BatchJob extends Job {
      * Job
      */
     
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        boolean result = false;
+        for (Job subJob : subJobs) {
+            if (subJob.requiresConsistentSceneGraph()) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+    
     @Override
     public boolean isExecutable() {
         return subJobs.isEmpty() == false;
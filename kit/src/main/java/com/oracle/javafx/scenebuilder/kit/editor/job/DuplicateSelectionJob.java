@@ -61,6 +61,12 @@ public class DuplicateSelectionJob extends BatchSelectionJob {
         super(editorController);
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Duplicates are offset from the layout of the originals
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
         final List<Job> result = new LinkedList<>();
@@ -81,6 +81,12 @@ public class FitToParentObjectJob extends BatchDocumentJob {
         this.parentInstance = (parentProperty == null) ? null : parentProperty.getParentInstance();
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Sizes are computed from layout bounds
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
 
@@ -51,6 +51,12 @@ public class FitToParentSelectionJob extends BatchDocumentJob {
         super(editorController);
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Sub jobs are FitToParentObjectJob
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
 
@@ -48,6 +48,19 @@ public abstract class Job {
         return editorController;
     }
     
+    /**
+     * Returns true if this job reads the scene graph (layout bounds, layout
+     * coordinates...) to compute its changes. When scene graph refreshes are
+     * coalesced, the pending refresh is applied before such a job is built,
+     * executed, undone or redone. Other jobs (eg property modifications)
+     * leave the pending refresh to coalesce with their own.
+     * 
+     * @return true if this job needs an up to date scene graph (default is false).
+     */
+    public boolean requiresConsistentSceneGraph() {
+        return false;
+    }
+    
     public abstract boolean isExecutable();
     public abstract void execute();
     public abstract void undo();
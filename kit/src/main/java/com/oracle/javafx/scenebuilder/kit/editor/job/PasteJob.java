@@ -60,6 +60,12 @@ public class PasteJob extends BatchSelectionJob {
         super(editorController);
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Pasted nodes are offset from the layout of the originals
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
         final List<Job> result = new ArrayList<>();
@@ -154,6 +154,12 @@ public class RelocateSelectionJob extends BatchDocumentJob {
         return result;
     }
     
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Anchors are computed from layout bounds
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
         final List<Job> result = new ArrayList<>();
@@ -119,6 +119,12 @@ public class RelocateNodeJob extends Job {
     /*
      * Job
      */
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Anchors are computed from layout bounds
+        return true;
+    }
+    
     @Override
     public boolean isExecutable() {
         return true;
@@ -63,6 +63,11 @@ public class UpdateReferencesJob extends Job {
      * Job
      */
     
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        return subJob.requiresConsistentSceneGraph();
+    }
+    
     @Override
     public boolean isExecutable() {
         return subJob.isExecutable();
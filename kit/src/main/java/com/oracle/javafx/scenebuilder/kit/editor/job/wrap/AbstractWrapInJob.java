@@ -165,6 +165,12 @@ public abstract class AbstractWrapInJob extends BatchSelectionJob {
                 && !(parentSceneGraphObject instanceof TabPane); // accepts only Tabs
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Children are relocated from their layout bounds
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
         final List<Job> result = new ArrayList<>();
@@ -145,6 +145,12 @@ public class UnwrapJob extends BatchSelectionJob {
         }
     }
 
+    @Override
+    public boolean requiresConsistentSceneGraph() {
+        // Children are relocated from the container layout
+        return true;
+    }
+
     @Override
     protected List<Job> makeSubJobs() {
         final List<Job> result = new ArrayList<>();
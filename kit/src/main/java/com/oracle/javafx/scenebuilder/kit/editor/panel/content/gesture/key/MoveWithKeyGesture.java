@@ -101,7 +101,8 @@ public class MoveWithKeyGesture extends AbstractKeyGesture {
         final ObjectSelectionGroup osg
                 = (ObjectSelectionGroup) selection.getGroup();
         
-        // Builds a RelocateSelectionJob
+        // Builds a RelocateSelectionJob from the current layout
+        editorController.flushSceneGraphRefresh();
         final Map<FXOMObject, Point2D> locationMap = new HashMap<>();
         for (FXOMObject selectedObject : osg.getItems()) {
             assert selectedObject.isNode(); // Because (1)
@@ -148,7 +148,7 @@ public class PickModeController extends AbstractModeController {
                 FXOMObject fxomObject = null;
                 Node node = hitNode;
                 while ((fxomObject == null) && (node != null)) {
-                    fxomObject = fxomRoot.searchWithSceneGraphObject(node);
+                    fxomObject = fxomDocument.searchWithSceneGraphObject(node);
                     node = node.getParent();
                 }
                 hitObject = fxomObject;
@@ -677,7 +677,7 @@ public class HierarchyTreeCell<T extends HierarchyItem> extends TreeCell<Hierarc
 
                             // Check duplicared fx ids
                             final FXOMDocument fxomDocument = editorController.getFxomDocument();
-                            final Set<String> fxIds2 = fxomDocument.collectFxIds().keySet();
+                            final Set<String> fxIds2 = fxomDocument.getFxIdIndex().getFxIds().keySet();
                             if (fxIds2.contains(fxId)) {
                                 editorController.getMessageLog().logWarningMessage(
                                         "log.warning.duplicate.fxid", fxId);
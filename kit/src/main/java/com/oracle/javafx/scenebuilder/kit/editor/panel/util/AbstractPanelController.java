@@ -34,6 +34,8 @@ package com.oracle.javafx.scenebuilder.kit.editor.panel.util;
 
 import com.oracle.javafx.scenebuilder.kit.editor.EditorController;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshMetrics;
+import com.oracle.javafx.scenebuilder.kit.metrics.RevisionListenerEvent;
 
 import java.util.List;
 import java.util.logging.Level;
@@ -201,11 +203,21 @@ public abstract class AbstractPanelController {
     
     private final ChangeListener<Number> fxomDocumentRevisionListener
             = (observable, oldValue, newValue) -> {
+        final RevisionListenerEvent event = new RevisionListenerEvent();
+        event.begin();
+        final long startTime = System.nanoTime();
         try {
             sceneGraphRevisionDidChange();
         } catch(RuntimeException x) {
             LOG.log(Level.SEVERE, "Bug", x); //NOI18N
         }
+        RefreshMetrics.getMetrics().recordListener(getClass().getSimpleName(), System.nanoTime() - startTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.listener = getClass().getName();
+            event.revision = newValue.intValue();
+            event.commit();
+        }
     };
     
     private final ChangeListener<Number> cssRevisionListener
@@ -33,29 +33,47 @@
 
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 /**
- *
+ * Archive of FXOM objects exchanged through the clipboard.
+ * 
+ * Each object is archived as FXML text: this is what travels through the
+ * system clipboard. In addition, the most recent archive keeps an in-process
+ * snapshot of the archived objects (as detached FXOM documents). When an 
+ * archive is decoded in the process which created it, objects are cloned
+ * from the snapshot: FXML text is neither parsed nor loaded.
  */
 public class FXOMArchive implements Serializable {
     
     private static final long serialVersionUID = 7777;
+    
+    /* Snapshot of the most recent archive created by this process */
+    private static String snapshotKey;
+    private static List<FXOMDocument> snapshot = Collections.emptyList();
 
     private final List<Entry> entries = new ArrayList<>();
+    private final String key = UUID.randomUUID().toString();
     
     public FXOMArchive(List<FXOMObject> fxomObjects) {
         assert fxomObjects != null;
         
+        final List<FXOMDocument> documents = new ArrayList<>();
         for (FXOMObject o : fxomObjects) {
             final URL location = o.getFxomDocument().getLocation();
-            final String fxmlText = FXOMNodes.newDocument(o).getFxmlText(false);
-            entries.add(new Entry(fxmlText, location));
+            final FXOMDocument d = FXOMNodes.newDocument(o);
+            entries.add(new Entry(d.getFxmlText(false), location));
+            documents.add(d);
         }
+        
+        setSnapshot(key, documents);
     }
     
     public List<Entry> getEntries() {
@@ -64,10 +82,30 @@ public class FXOMArchive implements Serializable {
     
     public List<FXOMObject> decode(FXOMDocument targetDocument)
     throws IOException {
-        final List<FXOMObject> result = new ArrayList<>();
+        final List<FXOMObject> result;
         
         assert targetDocument != null;
         
+        final List<FXOMDocument> documents = getSnapshot(key);
+        if (isClonable(documents, targetDocument)) {
+            result = new ArrayList<>();
+            for (FXOMDocument d : documents) {
+                result.add(cloneRoot(d, targetDocument));
+            }
+        } else {
+            result = decodeFxmlText(targetDocument);
+        }
+        
+        return result;
+    }
+    
+    /*
+     * Decodes the FXML text of the entries (archive comes from another
+     * process or is no longer the most recent one).
+     */
+    List<FXOMObject> decodeFxmlText(FXOMDocument targetDocument) throws IOException {
+        final List<FXOMObject> result = new ArrayList<>();
+        
         for (Entry e : entries) {
             final URL location = e.getLocation();
             final String fxmlText = e.getFxmlText();
@@ -83,8 +121,59 @@ public class FXOMArchive implements Serializable {
     }
     
     
-    public static class Entry implements Serializable {
+    /*
+     * Private
+     */
+    
+    private static synchronized void setSnapshot(String key, List<FXOMDocument> documents) {
+        snapshotKey = key;
+        snapshot = documents;
+    }
+    
+    private static synchronized List<FXOMDocument> getSnapshot(String key) {
+        // key is null in archives serialized before it was introduced
+        return ((key != null) && key.equals(snapshotKey)) ? snapshot : null;
+    }
+    
+    private static boolean isClonable(List<FXOMDocument> documents, FXOMDocument targetDocument) {
+        boolean result = (documents != null);
+        if (result) {
+            for (FXOMDocument d : documents) {
+                // Declared classes must be the ones the target would resolve
+                if ((d.getClassLoader() != targetDocument.getClassLoader())
+                        || ((d.getFxomRoot() instanceof FXOMInstance) == false)
+                        || (d.getFxomRoot().getSceneGraphObject() == null)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static FXOMObject cloneRoot(FXOMDocument source, FXOMDocument targetDocument) {
+        final FXOMObject sourceRoot = source.getFxomRoot();
         
+        // Clones into an empty document with source location: fx:id and 
+        // relative paths are then adjusted by moveToFxomDocument() exactly 
+        // as for objects decoded from FXML text.
+        final FXOMDocument holder = new FXOMDocument(new byte[0], new GlueDocument(),
+                source.getLocation(), targetDocument.getClassLoader(), 
+                targetDocument.getResources(), false /* normalize */, Collections.emptyMap());
+        final FXOMObject result = new FXOMCloner(holder).clone(sourceRoot);
+        
+        // Paste logic inspects the scene graph object of the decoded objects.
+        // Source one is lent as is: stale generation ensures that it is never
+        // inserted in the target scene graph (see FXOMDeltaRefresher).
+        result.setSceneGraphObject(sourceRoot.getSceneGraphObject());
+        result.moveToFxomDocument(targetDocument);
+        result.invalidateSceneGraphGeneration();
+        
+        return result;
+    }
+    
+    
+    public static class Entry implements Serializable {
         private static final long serialVersionUID = 8888;
         
         private final String fxmlText;
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the FXOM changes performed on a document since its last scene
+ * graph refresh.
+ * 
+ * Property values and child lists are recorded as (instance, property name)
+ * pairs: the refresher reads their current FXOM state when it applies them.
+ * Any change that cannot be described this way simply marks the document
+ * as requiring a full reload.
+ */
+class FXOMChangeTracker {
+    
+    private final Map<FXOMInstance, Set<PropertyName>> dirtyProperties = new LinkedHashMap<>();
+    private final Set<FXOMObject> dirtyFxIds = new LinkedHashSet<>();
+    private boolean fullRefreshRequired;
+    private boolean objectsAttached;
+    
+    public void propertyDidChange(FXOMInstance instance, PropertyName name) {
+        assert instance != null;
+        assert name != null;
+        
+        if (fullRefreshRequired == false) {
+            dirtyProperties.computeIfAbsent(instance, k -> new LinkedHashSet<>()).add(name);
+        }
+    }
+    
+    public void fxIdDidChange(FXOMObject object) {
+        assert object != null;
+        
+        if (fullRefreshRequired == false) {
+            dirtyFxIds.add(object);
+        }
+    }
+    
+    /*
+     * Attached objects have no scene graph object until next refresh.
+     */
+    public void objectDidAttach() {
+        objectsAttached = true;
+    }
+    
+    public void structureDidChange() {
+        fullRefreshRequired = true;
+        // Details are useless from now on
+        dirtyProperties.clear();
+        dirtyFxIds.clear();
+    }
+    
+    public boolean isFullRefreshRequired() {
+        return fullRefreshRequired;
+    }
+    
+    public boolean hasAttachedObjects() {
+        return objectsAttached || fullRefreshRequired;
+    }
+    
+    public boolean isEmpty() {
+        return (fullRefreshRequired == false) 
+                && dirtyProperties.isEmpty() 
+                && dirtyFxIds.isEmpty();
+    }
+    
+    public Map<FXOMInstance, Set<PropertyName>> getDirtyProperties() {
+        return Collections.unmodifiableMap(dirtyProperties);
+    }
+    
+    public Set<FXOMObject> getDirtyFxIds() {
+        return Collections.unmodifiableSet(dirtyFxIds);
+    }
+    
+    public void reset() {
+        fullRefreshRequired = false;
+        objectsAttached = false;
+        dirtyProperties.clear();
+        dirtyFxIds.clear();
+    }
+}
@@ -85,6 +85,7 @@ public class FXOMCollection extends FXOMObject {
 
     public void setDeclaredClass(Class<?> declaredClass) {
         this.declaredClass = declaredClass;
+        getFxomDocument().getImportIndex().objectDidChange(this);
     }
 
     public List<FXOMObject> getItems() {
@@ -264,6 +265,10 @@ public class FXOMCollection extends FXOMObject {
         } else {
             items.add(index, item);
         }
+        getFxomDocument().getChangeTracker().structureDidChange();
+        getFxomDocument().getSceneGraphIndex().invalidate();
+        getFxomDocument().getFxIdIndex().objectDidAttach(item);
+        getFxomDocument().getImportIndex().objectDidAttach(item);
     }
     
     /* Reserved to FXOMObject.removeFromParentCollection() private use */
@@ -272,5 +277,8 @@ public class FXOMCollection extends FXOMObject {
         assert item.getParentProperty() == null;
         assert items.contains(item);
         items.remove(item);
+        getFxomDocument().getChangeTracker().structureDidChange();
+        getFxomDocument().getFxIdIndex().objectDidDetach(item);
+        getFxomDocument().getImportIndex().objectDidDetach(item);
     }
 }
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueInstruction;
+import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.ComponentPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.ValuePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.BooleanPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoublePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EnumerationPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EventHandlerPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.IntegerPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.SingleValuePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.StringPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PrefixedValue;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.collections.ObservableList;
+import javafx.css.CssMetaData;
+import javafx.css.Styleable;
+import javafx.css.StyleableProperty;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TableColumnBase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Applies the changes recorded by an FXOMChangeTracker directly to the live
+ * scene graph of a document.
+ * 
+ * prepare() checks that every recorded change can be expressed as a delta
+ * and computes the scene graph values. It does not modify the scene graph:
+ * if it returns false, the caller must fall back on a full reload.
+ * apply() then performs the modifications.
+ * 
+ * When a container receives objects which have no scene graph object yet,
+ * prepare() re-instantiates each of them by loading the FXML text of its 
+ * subtree only. Names defined outside of the subtree are resolved against
+ * the live scene graph objects.
+ */
+class FXOMDeltaRefresher {
+    
+    private static final PropertyName idName = new PropertyName("id");
+    
+    private final FXOMDocument document;
+    private final FXOMRefresher refresher;
+    private final List<Runnable> detachments = new ArrayList<>();
+    private final List<Runnable> attachments = new ArrayList<>();
+    private final List<Runnable> valueUpdates = new ArrayList<>();
+    private final Set<FXOMInstance> updatedInstances = new LinkedHashSet<>();
+    private final Set<FXOMObject> instantiatedObjects = new LinkedHashSet<>();
+    
+    public FXOMDeltaRefresher(FXOMDocument document, FXOMRefresher refresher) {
+        assert document != null;
+        assert refresher != null;
+        this.document = document;
+        this.refresher = refresher;
+    }
+    
+    public boolean prepare(FXOMChangeTracker tracker) {
+        assert tracker != null;
+        
+        if (tracker.isFullRefreshRequired()
+                || (document.getFxomRoot() == null)
+                || (document.getSceneGraphRoot() == null)
+                || (document.getDisplayNode() != null)) {
+            return false;
+        }
+        
+        // Containers are processed before their content: when a subtree
+        // is re-instantiated, changes recorded inside it are already 
+        // reflected by its new scene graph objects.
+        final Map<FXOMInstance, Set<PropertyName>> dirtyProperties = tracker.getDirtyProperties();
+        final List<FXOMInstance> dirtyInstances = new ArrayList<>(dirtyProperties.keySet());
+        dirtyInstances.sort(Comparator.comparingInt(FXOMDeltaRefresher::getDepth));
+        
+        // Deferred contents have no scene graph: changes inside them are
+        // picked up when they are materialized.
+        final FXOMLazyContent lazyContent = document.getLazyContent();
+        
+        boolean result = true;
+        for (FXOMInstance instance : dirtyInstances) {
+            if (isAttached(instance) 
+                    && (isInstantiated(instance) == false)
+                    && (lazyContent.isDeferred(instance) == false)) {
+                if (isReusable(instance) == false) {
+                    // Unresolved instance or stale scene graph object
+                    result = false;
+                    break;
+                }
+                for (PropertyName name : dirtyProperties.get(instance)) {
+                    if (lazyContent.isDeferred(instance, name)) {
+                        result = result && prepareDeferredContent(instance, name);
+                    } else {
+                        result = result && prepareProperty(instance, name);
+                    }
+                }
+                updatedInstances.add(instance);
+            }
+            if (result == false) {
+                break;
+            }
+        }
+        
+        if (result) {
+            for (FXOMObject object : tracker.getDirtyFxIds()) {
+                if (isAttached(object) 
+                        && (isInstantiated(object) == false)
+                        && (lazyContent.isDeferred(object) == false)
+                        && (prepareFxId(object) == false)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    public void apply() {
+        // Detaches first so that an object moving from one container
+        // to another never belongs to two scene graph parents at once
+        for (Runnable r : detachments) {
+            r.run();
+        }
+        for (Runnable r : attachments) {
+            r.run();
+        }
+        for (Runnable r : valueUpdates) {
+            r.run();
+        }
+    }
+    
+    /**
+     * Returns the instances whose scene graph object has been updated.
+     * 
+     * @return the instances whose scene graph object has been updated.
+     */
+    public Set<FXOMInstance> getUpdatedInstances() {
+        return Collections.unmodifiableSet(updatedInstances);
+    }
+    
+    /**
+     * Returns the objects whose subtree has been re-instantiated.
+     * 
+     * @return the objects whose subtree has been re-instantiated.
+     */
+    public Set<FXOMObject> getInstantiatedObjects() {
+        return Collections.unmodifiableSet(instantiatedObjects);
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private boolean isAttached(FXOMObject fxomObject) {
+        FXOMObject topObject = fxomObject;
+        while (topObject.getParentObject() != null) {
+            topObject = topObject.getParentObject();
+        }
+        
+        final boolean result = (fxomObject.getFxomDocument() == document)
+                && (topObject == document.getFxomRoot());
+        if (result == false) {
+            // The detached subtree misses this change: its scene graph 
+            // objects cannot be reinserted later without a full reload.
+            topObject.invalidateSceneGraphGeneration();
+        }
+        
+        return result;
+    }
+    
+    private boolean prepareProperty(FXOMInstance instance, PropertyName name) {
+        final Object sceneGraphObject = instance.getSceneGraphObject();
+        final PropertyMetadata pm 
+                = Metadata.getMetadata().queryProperty(sceneGraphObject.getClass(), name);
+        final FXOMProperty property = instance.getProperties().get(name);
+        
+        final boolean result;
+        if (pm instanceof ValuePropertyMetadata) {
+            result = prepareValue(instance, (ValuePropertyMetadata) pm, property);
+        } else if (pm instanceof ComponentPropertyMetadata) {
+            result = prepareComponent(instance, (ComponentPropertyMetadata) pm, property);
+        } else {
+            // Unknown property
+            result = false;
+        }
+        
+        return result;
+    }
+    
+    private boolean prepareValue(FXOMInstance instance, ValuePropertyMetadata vpm, FXOMProperty property) {
+        
+        if (vpm instanceof EventHandlerPropertyMetadata) {
+            // Event handlers are ignored by static load
+            return true;
+        }
+        if ((vpm.isReadWrite() == false) || (isTextEncodable(vpm) == false)) {
+            return false;
+        }
+        
+        final Object value;
+        if (property == null) {
+            if (vpm.getDefaultValueAlternatives().isEmpty() == false) {
+                // Default value depends on the context
+                return false;
+            }
+            if (isStyleable(instance.getSceneGraphObject(), vpm.getName())) {
+                // Setting the default would make it a user value which 
+                // overrides CSS: only a reload leaves the property unset
+                return false;
+            }
+            if (vpm.getName().equals(idName) && (instance.getFxId() != null)) {
+                // FXMLLoader copies fx:id into id when id is not specified
+                value = instance.getFxId();
+            } else if (vpm instanceof EnumerationPropertyMetadata) {
+                final EnumerationPropertyMetadata epm = (EnumerationPropertyMetadata) vpm;
+                value = makeEnumValue(epm, epm.getDefaultValue());
+            } else {
+                value = vpm.getDefaultValueObject();
+            }
+        } else if (property instanceof FXOMPropertyT) {
+            final FXOMPropertyT propertyT = (FXOMPropertyT) property;
+            final String text = propertyT.getValue();
+            final PrefixedValue pv = new PrefixedValue(text);
+            if ((pv.isPlainString() == false) || text.startsWith(FXMLLoader.ESCAPE_PREFIX)) {
+                // Resource keys, expressions, relative paths...
+                return false;
+            }
+            if (vpm instanceof EnumerationPropertyMetadata) {
+                final EnumerationPropertyMetadata epm = (EnumerationPropertyMetadata) vpm;
+                if (epm.getValidValues().contains(text) == false) {
+                    return false;
+                }
+                value = makeEnumValue(epm, text);
+            } else {
+                value = ((SingleValuePropertyMetadata<?>) vpm).makeValueFromProperty(propertyT);
+            }
+        } else {
+            // Complex value (FXOMPropertyC)
+            return false;
+        }
+        
+        valueUpdates.add(() -> vpm.setValueInSceneGraphObject(instance, value));
+        return true;
+    }
+    
+    private boolean prepareComponent(FXOMInstance instance, ComponentPropertyMetadata cpm, FXOMProperty property) {
+        
+        final List<Object> children = new ArrayList<>();
+        if (property instanceof FXOMPropertyC) {
+            for (FXOMObject value : ((FXOMPropertyC) property).getValues()) {
+                if ((isReusable(value) == false) && (instantiate(value) == false)) {
+                    return false;
+                }
+                children.add(value.getSceneGraphObject());
+            }
+        } else if (property != null) {
+            // $null or expression
+            return false;
+        }
+        
+        final Object sceneGraphObject = instance.getSceneGraphObject();
+        final PropertyName name = cpm.getName();
+        if (cpm.isCollection()) {
+            final Object currentValue = name.getValue(sceneGraphObject);
+            if ((currentValue instanceof List) == false) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            final List<Object> currentChildren = (List<Object>) currentValue;
+            if (currentChildren.equals(children) == false) {
+                detachments.add(() -> currentChildren.retainAll(children));
+                attachments.add(() -> {
+                    if (currentChildren instanceof ObservableList) {
+                        ((ObservableList<Object>) currentChildren).setAll(children);
+                    } else {
+                        currentChildren.clear();
+                        currentChildren.addAll(children);
+                    }
+                });
+            }
+        } else if (children.isEmpty()) {
+            detachments.add(() -> name.setValue(sceneGraphObject, null));
+        } else if (children.size() == 1) {
+            final Object child = children.get(0);
+            attachments.add(() -> name.setValue(sceneGraphObject, child));
+        } else {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    private boolean prepareDeferredContent(FXOMInstance instance, PropertyName name) {
+        final Object sceneGraphObject = instance.getSceneGraphObject();
+        final FXOMProperty property = instance.getProperties().get(name);
+        
+        detachments.add(() -> name.setValue(sceneGraphObject, null));
+        if (property instanceof FXOMPropertyC) {
+            final List<FXOMObject> values = ((FXOMPropertyC) property).getValues();
+            valueUpdates.add(() -> {
+                for (FXOMObject value : values) {
+                    FXOMLazyContent.clearSceneGraphObjects(value);
+                }
+            });
+        }
+        
+        return true;
+    }
+    
+    private boolean prepareFxId(FXOMObject fxomObject) {
+        if ((fxomObject instanceof FXOMInstance) == false) {
+            return false;
+        }
+        
+        final FXOMInstance instance = (FXOMInstance) fxomObject;
+        final Object sceneGraphObject = instance.getSceneGraphObject();
+        final boolean result;
+        if (isReusable(instance) == false) {
+            result = false;
+        } else if (instance.getProperties().get(idName) != null) {
+            // Explicit id wins over fx:id
+            result = true;
+        } else if ((sceneGraphObject instanceof Node)
+                || (sceneGraphObject instanceof MenuItem)
+                || (sceneGraphObject instanceof Tab)
+                || (sceneGraphObject instanceof TableColumnBase)) {
+            // Classes annotated with @IDProperty("id")
+            final String fxId = instance.getFxId();
+            valueUpdates.add(() -> idName.setValue(sceneGraphObject, fxId));
+            result = true;
+        } else {
+            result = false;
+        }
+        
+        return result;
+    }
+    
+    private boolean isReusable(FXOMObject fxomObject) {
+        return (fxomObject instanceof FXOMInstance)
+                && (fxomObject.getSceneGraphObject() != null)
+                && (fxomObject.getSceneGraphGeneration() == document.getSceneGraphGeneration());
+    }
+    
+    private boolean instantiate(FXOMObject fxomObject) {
+        if (((fxomObject instanceof FXOMInstance) == false)
+                || (fxomObject.getFxomDocument() != document)
+                || (((FXOMInstance) fxomObject).getDeclaredClass() == null)) {
+            // Intrinsics, foreign or unresolved objects need a full reload
+            return false;
+        }
+        
+        boolean result;
+        try {
+            final Set<String> imports = collectFragmentImports(fxomObject);
+            final GlueElement glueElement = fxomObject.getGlueElement();
+            final FXOMDocument fragment = new FXOMDocument(
+                    document.getGlue().makeFragmentText(glueElement, imports).getBytes(StandardCharsets.UTF_8),
+                    document.getGlue().makeFragmentCopy(glueElement, imports),
+                    document.getLocation(),
+                    document.getClassLoader(),
+                    document.getResources(),
+                    false /* normalize */,
+                    makeNamespace(fxomObject));
+            final FXOMObject fragmentRoot = fragment.getFxomRoot();
+            result = (fragmentRoot != null)
+                    && (fragmentRoot.getClass() == fxomObject.getClass())
+                    && (fragmentRoot.getSceneGraphObject() != null);
+            if (result) {
+                // Scene graph objects are stamped with current generation
+                refresher.refreshFxomObject(fxomObject, fragmentRoot);
+                instantiatedObjects.add(fxomObject);
+            }
+        } catch(IOException x) {
+            // Let full reload report the error
+            result = false;
+        }
+        
+        return result;
+    }
+    
+    private Set<String> collectFragmentImports(FXOMObject fxomObject) {
+        // Imports of the live document (they may be wildcards)
+        // plus the ones required by the subtree
+        final Set<String> result = new TreeSet<>();
+        for (GlueInstruction i : document.getGlue().collectInstructions("import")) { //NOI18N
+            result.add(i.getData());
+        }
+        result.addAll(new FXOMSaver().collectImports(fxomObject));
+        
+        return result;
+    }
+    
+    private Map<String, Object> makeNamespace(FXOMObject fxomObject) {
+        final Map<String, Object> result = new HashMap<>();
+        
+        for (Map.Entry<String, FXOMObject> e : document.getFxIdIndex().getFxIds().entrySet()) {
+            final FXOMObject target = e.getValue();
+            if (isReusable(target) 
+                    && (target != fxomObject)
+                    && (target.isDescendantOf(fxomObject) == false)) {
+                result.put(e.getKey(), target.getSceneGraphObject());
+            }
+        }
+        
+        return result;
+    }
+    
+    private boolean isInstantiated(FXOMObject fxomObject) {
+        boolean result = false;
+        for (FXOMObject o : instantiatedObjects) {
+            if ((fxomObject == o) || fxomObject.isDescendantOf(o)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+    
+    private static int getDepth(FXOMObject fxomObject) {
+        int result = 0;
+        FXOMObject parent = fxomObject.getParentObject();
+        while (parent != null) {
+            result++;
+            parent = parent.getParentObject();
+        }
+        return result;
+    }
+    
+    private static boolean isTextEncodable(ValuePropertyMetadata vpm) {
+        return (vpm instanceof BooleanPropertyMetadata)
+                || (vpm instanceof DoublePropertyMetadata)
+                || (vpm instanceof IntegerPropertyMetadata)
+                || (vpm instanceof StringPropertyMetadata)
+                || (vpm instanceof EnumerationPropertyMetadata);
+    }
+    
+    /*
+     * Returns true if name is a property of sceneGraphObject which can be
+     * set by CSS (padding, font, focusTraversable...).
+     */
+    private static boolean isStyleable(Object sceneGraphObject, PropertyName name) {
+        boolean result = false;
+        if ((name.getResidenceClass() == null) && (sceneGraphObject instanceof Styleable)) {
+            final Styleable styleable = (Styleable) sceneGraphObject;
+            for (CssMetaData<? extends Styleable, ?> cssMetaData : styleable.getCssMetaData()) {
+                @SuppressWarnings("unchecked")
+                final CssMetaData<Styleable, ?> md = (CssMetaData<Styleable, ?>) cssMetaData;
+                final StyleableProperty<?> property = md.getStyleableProperty(styleable);
+                if ((property instanceof ReadOnlyProperty) 
+                        && name.getName().equals(((ReadOnlyProperty<?>) property).getName())) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static Object makeEnumValue(EnumerationPropertyMetadata epm, String text) {
+        Object result = null;
+        for (Object e : epm.getValueClass().getEnumConstants()) {
+            if (e.toString().equals(text)) {
+                result = e;
+                break;
+            }
+        }
+        // result is null when text is the null equivalent
+        return result;
+    }
+}
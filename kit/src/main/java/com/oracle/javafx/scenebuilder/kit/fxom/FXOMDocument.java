@@ -33,17 +33,23 @@
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 import com.oracle.javafx.scenebuilder.kit.editor.EditorPlatform;
 import javafx.beans.property.ReadOnlyIntegerProperty;
@@ -51,10 +57,14 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.scene.Node;
 
 import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
 import com.oracle.javafx.scenebuilder.kit.fxom.sampledata.SampleDataGenerator;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshPhase;
 import com.oracle.javafx.scenebuilder.kit.util.Deprecation;
 import com.oracle.javafx.scenebuilder.kit.util.URLUtils;
 import javafx.scene.Parent;
+import javafx.util.Duration;
 
 /**
  *
@@ -75,32 +85,66 @@ public class FXOMDocument {
     private final SimpleIntegerProperty cssRevision = new SimpleIntegerProperty();
     private SceneGraphHolder sceneGraphHolder;
     private int updateDepth;
+    private final FXOMChangeTracker changeTracker = new FXOMChangeTracker();
+    private final FXOMSceneGraphIndex sceneGraphIndex = new FXOMSceneGraphIndex(this);
+    private final FXOMFxIdIndex fxIdIndex = new FXOMFxIdIndex(this, false /* snapshot */);
+    private final FXOMImportIndex importIndex = new FXOMImportIndex(this);
+    private final FXOMTransientStateRegistry transientStateRegistry = new FXOMTransientStateRegistry(this);
+    private final FXOMLazyContent lazyContent = new FXOMLazyContent(this);
+    private boolean deltaRefreshEnabled = true;
+    private final FXOMRefreshScheduler refreshScheduler = new FXOMRefreshScheduler(this::updateSceneGraph);
+    private boolean refreshCoalescingEnabled;
+    private RefreshMode lastRefreshMode;
+    private int sceneGraphGeneration;
 
     private boolean hasGluonControls;
     
     private List<Class<?>> initialDeclaredClasses;
     
     public FXOMDocument(String fxmlText, URL location, ClassLoader classLoader, ResourceBundle resources, boolean normalize) throws IOException {
-        this.glue = new GlueDocument(fxmlText);
+        // Encoded once and shared by glue and fxml loaders
+        this(fxmlText.getBytes(StandardCharsets.UTF_8), null, 
+                location, classLoader, resources, normalize, Collections.emptyMap());
+    }
+    
+    
+    /*
+     * Loads UTF-8 encoded fxml text with a namespace pre-populated with the 
+     * specified entries. Used to instantiate fragments of a live document.
+     * 
+     * When fxml text has been produced from an existing glue document, glue
+     * may be a copy of it (see GlueDocument.makeCopy()): fxml text is then 
+     * parsed by FXMLLoader only.
+     */
+    FXOMDocument(byte[] fxmlBytes, GlueDocument glue, URL location, ClassLoader classLoader, 
+            ResourceBundle resources, boolean normalize, Map<String, Object> namespace) throws IOException {
+        if (glue == null) {
+            this.glue = new GlueDocument(fxmlBytes);
+        } else {
+            assert (glue.getRootElement() == null) == GlueDocument.isEmptyXmlBytes(fxmlBytes);
+            this.glue = glue;
+        }
         this.location = location;
         this.classLoader = classLoader;
         this.resources = resources;
         initialDeclaredClasses = new ArrayList<>();
         if (this.glue.getRootElement() != null) {
             final FXOMLoader loader = new FXOMLoader(this);
-            loader.load(fxmlText);
+            loader.load(fxmlBytes, namespace);
             if (normalize) {
                 final FXOMNormalizer normalizer = new FXOMNormalizer(this);
                 normalizer.normalize();
             }
         } else {
             // Document is empty
-            assert GlueDocument.isEmptyXmlText(fxmlText);
+            assert GlueDocument.isEmptyXmlBytes(fxmlBytes);
             // Keeps this.fxomRoot == null
             // Keeps this.sceneGraphRoot == null
         }
 
-        hasGluonControls = fxmlText.contains(EditorPlatform.GLUON_PACKAGE);
+        hasGluonControls = containsAscii(fxmlBytes, EditorPlatform.GLUON_PACKAGE);
+        // Scene graph is in sync with FXOM at this point
+        changeTracker.reset();
     }
     
     
@@ -128,6 +172,7 @@ public class FXOMDocument {
                 fxomRoot.documentLocationWillChange(location);
             }
             this.location = location;
+            changeTracker.structureDidChange();
             endUpdate();
         }
     }
@@ -139,9 +184,19 @@ public class FXOMDocument {
     public void setClassLoader(ClassLoader classLoader) {
         beginUpdate();
         this.classLoader = classLoader;
+        changeTracker.structureDidChange();
         endUpdate();
     }    
     
+    /**
+     * Discards the class and resource lookups memoized by previous loads.
+     * Invoke it when a class loader passed to documents has been replaced
+     * (eg library jars did change).
+     */
+    public static void clearClassResolutionCache() {
+        TransientClassLoader.clearSharedClassLoaders();
+    }
+    
     public List<Class<?>> getInitialDeclaredClasses() {
         return initialDeclaredClasses;
     }
@@ -153,6 +208,7 @@ public class FXOMDocument {
     public void setResources(ResourceBundle resources) {
         beginUpdate();
         this.resources = resources;
+        changeTracker.structureDidChange();
         endUpdate();
     }
 
@@ -192,6 +248,7 @@ public class FXOMDocument {
     public void setFxomRoot(FXOMObject fxomRoot) {
         beginUpdate();
         updateRoots(fxomRoot, null);
+        changeTracker.structureDidChange();
         endUpdate();
     }
     
@@ -207,6 +264,9 @@ public class FXOMDocument {
         this.sceneGraphRoot = sceneGraphRoot;
         this.displayNode = null;
         this.displayStylesheets.clear();
+        sceneGraphIndex.invalidate();
+        fxIdIndex.rebuild();
+        importIndex.rebuild();
     }
 
     public Object getSceneGraphRoot() {
@@ -249,6 +309,8 @@ public class FXOMDocument {
 
     /**
      * Returns the FXML string representation of the FXOMDocument.
+     * Sample data lives in the scene graph only: it is never serialized and
+     * does not need to be disabled before invoking this method.
      * @param wildcardImports If the FXML should have wildcards in its imports.
      * @return The FXML string representation. This can be empty if current root is null.
      */
@@ -267,14 +329,76 @@ public class FXOMDocument {
         }
         return result;
     }
+    
+    /**
+     * Writes the FXML text of this document to the specified writer.
+     * Same text as {@link #getFxmlText(boolean)} but the text is not built 
+     * in memory. writer is neither flushed nor closed.
+     * 
+     * @param writer a writer (never null)
+     * @param wildcardImports If the FXML should have wildcards in its imports.
+     * @throws IOException if writer fails
+     */
+    public void writeFxmlText(Writer writer, boolean wildcardImports) throws IOException {
+        assert writer != null;
+        if (fxomRoot != null) {
+            glue.updateIndent();
+            final FXOMSaver saver = new FXOMSaver(wildcardImports);
+            saver.save(this, writer);
+        }
+    }
+    
+    /**
+     * Writes the UTF-8 encoded FXML text of this document to the specified 
+     * channel. Same text as {@link #getFxmlText(boolean)} but the text is 
+     * not built in memory. channel is not closed.
+     * 
+     * @param channel a channel (never null)
+     * @param wildcardImports If the FXML should have wildcards in its imports.
+     * @throws IOException if channel fails
+     */
+    public void writeFxmlText(WritableByteChannel channel, boolean wildcardImports) throws IOException {
+        assert channel != null;
+        if (fxomRoot != null) {
+            glue.updateIndent();
+            final FXOMSaver saver = new FXOMSaver(wildcardImports);
+            saver.save(this, channel);
+        }
+    }
+    
+    /**
+     * Returns a new document loaded from the FXML text of this document.
+     * The text is streamed to UTF-8 bytes and its glue is copied from this
+     * document : it is parsed by FXMLLoader only.
+     * 
+     * @return a new document loaded from the FXML text of this document.
+     * @throws IOException if the FXML text cannot be loaded
+     */
+    public FXOMDocument loadCopy() throws IOException {
+        final byte[] fxmlBytes = getFxmlBytes();
+        return new FXOMDocument(fxmlBytes, glue.makeCopy(), 
+                location, classLoader, resources, true /* normalize */, Collections.emptyMap());
+    }
 
+    /**
+     * Returns the FXOM object associated to the specified scene graph object.
+     * Unlike {@link FXOMObject#searchWithSceneGraphObject(java.lang.Object)},
+     * this method does not walk the FXOM tree: it runs in constant time.
+     * 
+     * @param sceneGraphObject a scene graph object
+     * @return null or the FXOM object associated to sceneGraphObject.
+     */
     public FXOMObject searchWithSceneGraphObject(Object sceneGraphObject) {
         final FXOMObject result;
         
-        if (fxomRoot == null) {
+        if ((fxomRoot == null) || (sceneGraphObject == null)) {
             result = null;
         } else {
-            result = fxomRoot.searchWithSceneGraphObject(sceneGraphObject);
+            if (isUpdateOnGoing() == false) {
+                // sceneGraphObject may come from the refreshed scene graph
+                refreshScheduler.flush();
+            }
+            result = sceneGraphIndex.lookup(sceneGraphObject);
         }
         
         return result;
@@ -286,12 +410,30 @@ public class FXOMDocument {
         if (fxomRoot == null) {
             result = null;
         } else {
-            result = fxomRoot.searchWithFxId(fxId);
+            result = fxIdIndex.search(fxId);
         }
         
         return result;
     }
     
+    /**
+     * Returns the live fx:id index of this document.
+     * Lookups run in constant time and the index notifies its listeners
+     * each time an fx:id is declared or removed.
+     * 
+     * @return the fx:id index of this document (never null).
+     */
+    public FXOMFxIdIndex getFxIdIndex() {
+        return fxIdIndex;
+    }
+    
+    /**
+     * Returns the fx:ids declared in this document in depth-first order.
+     * This method walks the whole FXOM tree: use {@link #getFxIdIndex()} 
+     * when order does not matter.
+     * 
+     * @return the fx:ids declared in this document.
+     */
     public Map<String, FXOMObject> collectFxIds() {
         final Map<String, FXOMObject> result;
         
@@ -313,7 +455,11 @@ public class FXOMDocument {
         assert updateDepth >= 1;
         updateDepth--;
         if (updateDepth == 0) {
-            refreshSceneGraph();
+            if (refreshCoalescingEnabled && (changeTracker.hasAttachedObjects() == false)) {
+                refreshScheduler.schedule();
+            } else {
+                updateSceneGraph();
+            }
         }
     }
     
@@ -321,25 +467,189 @@ public class FXOMDocument {
         return updateDepth >= 1;
     }
     
+    /**
+     * Rebuilds the whole scene graph of this document from its FXML text.
+     * Use this when something outside of FXOM changed (theme, files on disk...).
+     */
     public void refreshSceneGraph() {
+        changeTracker.structureDidChange();
+        updateSceneGraph();
+    }
+    
+    /**
+     * Returns true if scene graph refreshes triggered by endUpdate() may apply
+     * FXOM changes directly to the live scene graph instead of reloading
+     * the whole document.
+     * 
+     * @return true if delta refresh is enabled (default).
+     */
+    public boolean isDeltaRefreshEnabled() {
+        return deltaRefreshEnabled;
+    }
+
+    public void setDeltaRefreshEnabled(boolean deltaRefreshEnabled) {
+        this.deltaRefreshEnabled = deltaRefreshEnabled;
+    }
+    
+    /**
+     * Returns true if the content of non-selected Tabs and collapsed 
+     * TitledPanes is left out of the scene graph of this document. FXOM 
+     * objects of such content have no scene graph object until
+     * {@link #materializeContent(FXOMObject)} is invoked on one of them.
+     * 
+     * @return true if lazy content is enabled (default is false).
+     */
+    public boolean isLazyContentEnabled() {
+        return lazyContent.isEnabled();
+    }
+
+    public void setLazyContentEnabled(boolean lazyContentEnabled) {
+        assert isUpdateOnGoing() == false;
+        
+        if ((lazyContent.isEnabled() != lazyContentEnabled)
+                && lazyContent.setEnabled(lazyContentEnabled)) {
+            // Deferred contents are detached or instantiated
+            updateSceneGraph();
+        }
+    }
+    
+    /**
+     * Instantiates the deferred Tab or TitledPane contents which enclose the
+     * specified object (or which belong to it) when lazy content is enabled.
+     * No-op if there is none: the scene graph is then left untouched.
+     * If an update is on going, contents are instantiated when it ends.
+     * 
+     * @param fxomObject an object of this document (never null)
+     */
+    public void materializeContent(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        assert fxomObject.getFxomDocument() == this;
+        
+        if (lazyContent.materialize(fxomObject) && (isUpdateOnGoing() == false)) {
+            // Caller needs the scene graph objects right away
+            updateSceneGraph();
+        }
+    }
+    
+    /**
+     * Returns the way the last scene graph refresh has been performed.
+     * 
+     * @return null if the scene graph has not been refreshed yet.
+     */
+    public RefreshMode getLastRefreshMode() {
+        return lastRefreshMode;
+    }
+    
+    /**
+     * Returns true if scene graph refreshes triggered by endUpdate() are 
+     * deferred to the next JavaFX pulse. Successive updates are then merged
+     * into a single refresh. Updates which add objects or require a full
+     * reload are always applied immediately: new FXOM objects get their
+     * scene graph object as soon as endUpdate() returns.
+     * 
+     * @return true if refresh coalescing is enabled (default is false).
+     */
+    public boolean isRefreshCoalescingEnabled() {
+        return refreshCoalescingEnabled;
+    }
+
+    public void setRefreshCoalescingEnabled(boolean refreshCoalescingEnabled) {
+        this.refreshCoalescingEnabled = refreshCoalescingEnabled;
+        if (refreshCoalescingEnabled == false) {
+            refreshScheduler.flush();
+        }
+    }
+    
+    /**
+     * Returns the minimum delay between an update and the coalesced refresh
+     * which applies it. With Duration.ZERO (default), the refresh occurs at the
+     * next JavaFX pulse.
+     * 
+     * @return the refresh window (never null).
+     */
+    public Duration getRefreshWindow() {
+        return refreshScheduler.getWindow();
+    }
+
+    public void setRefreshWindow(Duration refreshWindow) {
+        assert refreshWindow != null;
+        refreshScheduler.setWindow(refreshWindow);
+    }
+    
+    /**
+     * Returns true if some updates have not been applied to the scene graph
+     * yet (see {@link #isRefreshCoalescingEnabled()}).
+     * 
+     * @return true if a scene graph refresh is pending.
+     */
+    public boolean isSceneGraphRefreshPending() {
+        return refreshScheduler.isPending();
+    }
+    
+    /**
+     * Performs the pending scene graph refresh immediately.
+     * Code which reads the scene graph right after an update should call
+     * this method when refresh coalescing is enabled. No-op if no refresh is
+     * pending.
+     */
+    public void flushSceneGraphRefresh() {
+        assert isUpdateOnGoing() == false;
+        refreshScheduler.flush();
+    }
+    
+    private void updateSceneGraph() {
+        // Any pending refresh is merged into this one
+        refreshScheduler.cancel();
+        final FXOMRefreshProbe refreshProbe = FXOMRefreshProbe.begin(this, RefreshPhase.REFRESH);
         if (sceneGraphHolder != null) {
             sceneGraphHolder.fxomDocumentWillRefreshSceneGraph(this);
         }
         final FXOMRefresher fxomRefresher = new FXOMRefresher();
         fxomRefresher.refresh(this);
+        lastRefreshMode = fxomRefresher.getRefreshMode();
+        sceneGraphIndex.update();
         if ((sampleDataGenerator != null) && (fxomRoot != null)) {
-            sampleDataGenerator.assignSampleData(fxomRoot);
+            final FXOMRefreshProbe sampleDataProbe = FXOMRefreshProbe.begin(this, RefreshPhase.SAMPLE_DATA);
+            if (lastRefreshMode == RefreshMode.FULL) {
+                sampleDataGenerator.assignSampleData(fxomRoot);
+            } else {
+                // Untouched objects keep their scene graph objects and sample data
+                sampleDataGenerator.assignSampleData(fxomRoot, 
+                        fxomRefresher.getUpdatedInstances(), 
+                        fxomRefresher.getInstantiatedObjects());
+            }
+            sampleDataProbe.end();
         }
         if (sceneGraphHolder != null) {
             sceneGraphHolder.fxomDocumentDidRefreshSceneGraph(this);
         }
+        final FXOMRefreshProbe fanoutProbe = FXOMRefreshProbe.begin(this, RefreshPhase.REVISION_FANOUT);
         sceneGraphRevision.set(sceneGraphRevision.get()+1);
+        fanoutProbe.end();
+        refreshProbe.end();
+    }
+    
+    /*
+     * Searches an ASCII string in UTF-8 encoded bytes: spares the decoding
+     * of the whole document.
+     */
+    private static boolean containsAscii(byte[] bytes, String ascii) {
+        final int last = bytes.length - ascii.length();
+        boolean result = false;
+        for (int i = 0; (i <= last) && (result == false); i++) {
+            int j = 0;
+            while ((j < ascii.length()) && (bytes[i+j] == ascii.charAt(j))) {
+                j++;
+            }
+            result = (j == ascii.length());
+        }
+        return result;
     }
     
     /**
      * Returns the property holding the revision number of the scene graph.
-     * refreshSceneGraph() method increments the revision by one each time it
-     * refreshes the scene graph.
+     * The revision is incremented by one each time the scene graph is actually
+     * refreshed: coalesced updates produce a single increment.
      * 
      * @return the property holding the revision number of scene graph.
      */
@@ -379,6 +689,23 @@ public class FXOMDocument {
         return cssRevision;
     }
     
+    /**
+     * Returns an estimate of the memory retained by this document: FXOM and
+     * glue trees, scene graph, sample data and images. Sizes are heuristics.
+     * Undo stack is not owned by the document: see 
+     * EditorController.makeMemoryReport().
+     * 
+     * @return a new memory report.
+     */
+    public MemoryReport makeMemoryReport() {
+        final String name = (location == null) ? "untitled" : location.toString(); //NOI18N
+        final MemoryReport result = new MemoryReport(name);
+        final int sampleDataCount 
+                = (sampleDataGenerator == null) ? 0 : sampleDataGenerator.getSampleDataCount();
+        new FXOMMemoryEstimator(result).estimate(this, sampleDataCount);
+        return result;
+    }
+    
     /**
      * Utility method that fetches the text content from a URL.
      * 
@@ -439,6 +766,72 @@ public class FXOMDocument {
         return sceneGraphHolder;
     }
     
+    /*
+     * Package
+     */
+    
+    FXOMChangeTracker getChangeTracker() {
+        return changeTracker;
+    }
+    
+    /* UTF-8 encoded FXML text without wildcard imports */
+    byte[] getFxmlBytes() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+            writeFxmlText(writer, false /* wildcardImports */);
+        }
+        return os.toByteArray();
+    }
+    
+    /*
+     * Glue of the FXML text of this document without the specified elements:
+     * the text itself is obtained by serializing the returned glue.
+     */
+    GlueDocument makeGlueCopy(Set<GlueElement> excludedElements) {
+        if (fxomRoot != null) {
+            glue.updateIndent();
+            new FXOMSaver().prepareGlue(this);
+        }
+        return glue.makeCopy(excludedElements);
+    }
+    
+    FXOMSceneGraphIndex getSceneGraphIndex() {
+        return sceneGraphIndex;
+    }
+    
+    FXOMImportIndex getImportIndex() {
+        return importIndex;
+    }
+    
+    FXOMTransientStateRegistry getTransientStateRegistry() {
+        return transientStateRegistry;
+    }
+    
+    FXOMLazyContent getLazyContent() {
+        return lazyContent;
+    }
+    
+    int getSceneGraphGeneration() {
+        return sceneGraphGeneration;
+    }
+    
+    /* Reserved to FXOMRefresher: invoked before a full scene graph reload */
+    void nextSceneGraphGeneration() {
+        sceneGraphGeneration++;
+    }
+    
+    public enum RefreshMode {
+        /** Scene graph has been rebuilt from the FXML text of the document */
+        FULL,
+        /** FXOM changes have been applied to the live scene graph */
+        DELTA,
+        /** 
+         * FXOM changes have been applied to the live scene graph and 
+         * some subtrees have been re-instantiated from their FXML text 
+         */
+        SUBTREE
+    }
+    
     public static interface SceneGraphHolder {
         public void fxomDocumentWillRefreshSceneGraph(FXOMDocument fxomDocument);
         public void fxomDocumentDidRefreshSceneGraph(FXOMDocument fxomDocument);
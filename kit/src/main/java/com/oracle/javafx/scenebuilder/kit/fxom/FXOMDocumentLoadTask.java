@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
+import com.oracle.javafx.scenebuilder.kit.i18n.I18N;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+/**
+ * Loads an fxom document from a URL outside of the JavaFX application thread.
+ * 
+ * File read, glue parsing, FXML loading and normalization run in the thread
+ * executing this task. Scene graph objects created by FXMLLoader are not 
+ * attached to any scene yet: they can be safely built there. Some components
+ * (windows, web views...) still require the JavaFX application thread: 
+ * JavaFX reports this with an IllegalStateException thrown by one of its 
+ * thread checks. If FXML loading fails because of such an exception 
+ * (possibly wrapped, for example in a javafx.fxml.LoadException), this task
+ * loads the document again on the JavaFX thread. Other failures, including
+ * IllegalStateExceptions thrown by custom components, are not retried.
+ * 
+ * The loaded document is the value of this task: it should be handed to the
+ * editor in the {@link Task#succeeded()} callback (which runs on the JavaFX
+ * thread). Progress goes through {@link #STEP_COUNT} steps; the task can be 
+ * cancelled between steps.
+ */
+public class FXOMDocumentLoadTask extends Task<FXOMDocument> {
+    
+    public static final int STEP_COUNT = 3;
+    
+    private final URL location;
+    private final ClassLoader classLoader;
+    private final ResourceBundle resources;
+    
+    public FXOMDocumentLoadTask(URL location, ClassLoader classLoader, ResourceBundle resources) {
+        assert location != null;
+        this.location = location;
+        this.classLoader = classLoader;
+        this.resources = resources;
+    }
+
+    public URL getLocation() {
+        return location;
+    }
+    
+    
+    /*
+     * Task
+     */
+    
+    @Override
+    protected FXOMDocument call() throws IOException {
+        FXOMDocument result = null;
+        
+        updateMessage(I18N.getString("load.progress.reading", location.getFile()));
+        updateProgress(0, STEP_COUNT);
+        final byte[] fxmlBytes;
+        try (InputStream is = location.openStream()) {
+            fxmlBytes = is.readAllBytes();
+        }
+        
+        if (isCancelled() == false) {
+            updateMessage(I18N.getString("load.progress.parsing", location.getFile()));
+            updateProgress(1, STEP_COUNT);
+            final GlueDocument glue = new GlueDocument(fxmlBytes);
+            
+            if (isCancelled() == false) {
+                updateMessage(I18N.getString("load.progress.building", location.getFile()));
+                updateProgress(2, STEP_COUNT);
+                result = loadDocument(fxmlBytes, glue);
+                updateProgress(STEP_COUNT, STEP_COUNT);
+            }
+        }
+        
+        return isCancelled() ? null : result;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private FXOMDocument loadDocument(byte[] fxmlBytes, GlueDocument glue) throws IOException {
+        FXOMDocument result;
+        
+        try {
+            result = new FXOMDocument(fxmlBytes, glue, location, classLoader, 
+                    resources, true /* normalize */, Collections.emptyMap());
+        } catch(RuntimeException | IOException x) {
+            if (Platform.isFxApplicationThread() || (isThreadAffinityFailure(x) == false)) {
+                throw x;
+            }
+            // glue may have been modified by FXOMLoader : it is parsed again
+            final FutureTask<FXOMDocument> fxLoad = new FutureTask<>(() ->
+                    new FXOMDocument(fxmlBytes, null, location, classLoader, 
+                            resources, true /* normalize */, Collections.emptyMap()));
+            Platform.runLater(fxLoad);
+            try {
+                result = fxLoad.get();
+            } catch(InterruptedException xx) {
+                Thread.currentThread().interrupt();
+                result = null;
+            } catch(ExecutionException xx) {
+                if (xx.getCause() instanceof IOException) {
+                    throw (IOException) xx.getCause();
+                } else {
+                    throw new IOException(xx.getCause());
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    /*
+     * Returns true if x or one of its causes is an IllegalStateException
+     * thrown by a JavaFX thread check (Toolkit.checkFxUserThread(), 
+     * Application.checkEventThread()...). The exception is recognized from 
+     * the method which threw it: its message is JavaFX private.
+     */
+    private static boolean isThreadAffinityFailure(Throwable x) {
+        boolean result = false;
+        for (Throwable t = x; (t != null) && (result == false); t = t.getCause()) {
+            if (t instanceof IllegalStateException) {
+                final StackTraceElement[] stackTrace = t.getStackTrace();
+                result = (stackTrace.length >= 1) && isThreadCheck(stackTrace[0]);
+            }
+        }
+        return result;
+    }
+    
+    private static boolean isThreadCheck(StackTraceElement frame) {
+        final String className = frame.getClassName();
+        final String methodName = frame.getMethodName();
+        return (className.startsWith("com.sun.") || className.startsWith("javafx.")) //NOI18N
+                && (methodName.equals("checkFxUserThread") //NOI18N
+                    || methodName.equals("checkEventThread") //NOI18N
+                    || methodName.equals("checkThread")); //NOI18N
+    }
+}
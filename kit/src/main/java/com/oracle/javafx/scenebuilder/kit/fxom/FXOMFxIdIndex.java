@@ -29,26 +29,54 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
 import javafx.scene.control.ToggleGroup;
 
 /**
- *
+ * Live index of the fx:ids declared in an fxom document.
+ * 
+ * The index is owned by its document (see {@link FXOMDocument#getFxIdIndex()})
+ * and is updated as fx:ids are changed and as objects are added to or removed 
+ * from the document. Listeners attached to {@link #getObservableFxIds()} 
+ * are notified of each fx:id declaration change.
  */
 public class FXOMFxIdIndex {
     
     private final FXOMDocument fxomDocument;
-    private final Map<String, FXOMObject> fxIds;
+    private final Map<String, List<FXOMObject>> declarations = new HashMap<>();
+    private final ObservableMap<String, FXOMObject> fxIds = FXCollections.observableHashMap();
+    private final ObservableMap<String, FXOMObject> unmodifiableFxIds 
+            = FXCollections.unmodifiableObservableMap(fxIds);
     
+    /**
+     * Creates a snapshot of the fx:ids currently declared in the document.
+     * 
+     * @param fxomDocument an fxom document (never null)
+     * @deprecated the snapshot is not updated when the document changes: 
+     * use {@link FXOMDocument#getFxIdIndex()} instead.
+     */
+    @Deprecated
     public FXOMFxIdIndex(FXOMDocument fxomDocument) {
+        this(fxomDocument, true /* snapshot */);
+    }
+    
+    /*
+     * With snapshot false, creates the live index owned by fxomDocument: 
+     * FXOMDocument populates it with rebuild() and keeps it up to date.
+     */
+    FXOMFxIdIndex(FXOMDocument fxomDocument, boolean snapshot) {
         assert fxomDocument != null;
         this.fxomDocument = fxomDocument;
-        this.fxIds = fxomDocument.collectFxIds();
+        if (snapshot) {
+            rebuild();
+        }
     }
 
     public FXOMDocument getFxomDocument() {
@@ -60,8 +88,26 @@ public class FXOMFxIdIndex {
         return fxIds.get(fxId);
     }
     
+    /**
+     * Returns the fx:ids declared in the document. When an fx:id is declared
+     * several times, the last declaration in depth-first order wins (as with
+     * {@link FXOMDocument#collectFxIds()}). The returned map is unmodifiable 
+     * and is kept up to date.
+     * 
+     * @return the fx:ids declared in the document (never null)
+     */
     public Map<String, FXOMObject> getFxIds() {
-        return fxIds;
+        return unmodifiableFxIds;
+    }
+    
+    /**
+     * Same as {@link #getFxIds()} but listeners can be added to the returned
+     * map instead of rescanning the document.
+     * 
+     * @return the fx:ids declared in the document (never null)
+     */
+    public ObservableMap<String, FXOMObject> getObservableFxIds() {
+        return unmodifiableFxIds;
     }
     
     public List<FXOMInstance> collectToggleGroups() {
@@ -104,14 +150,170 @@ public class FXOMFxIdIndex {
     
     
     /**
-     * Facility : creates an FXOMFxIdIndex and check if the specified object is
- self-contained. Use this only if you have one object to check.
+     * Facility : checks if the specified object is self-contained using the
+     * fx:id index of its document.
      * 
      * @param fxomObject an fxom object (cannot be null)
      * @return true if fxom object is self contained
      */
     public static boolean isSelfContainedObject(FXOMObject fxomObject) {
-        final FXOMFxIdIndex fxomIndex = new FXOMFxIdIndex(fxomObject.getFxomDocument());
+        final FXOMFxIdIndex fxomIndex = fxomObject.getFxomDocument().getFxIdIndex();
         return fxomIndex.isSelfContained(fxomObject);
     }
+    
+    
+    /*
+     * Package
+     */
+    
+    /*
+     * Returns the object found by FXOMObject.searchWithFxId() invoked on
+     * the document root.
+     */
+    FXOMObject search(String fxId) {
+        assert fxId != null;
+        
+        final List<FXOMObject> candidates = declarations.get(fxId);
+        final FXOMObject result;
+        if (candidates == null) {
+            result = null;
+        } else if (candidates.size() == 1) {
+            final FXOMObject candidate = candidates.get(0);
+            result = isSearchable(candidate) ? candidate : null;
+        } else {
+            // Duplicate fx:id : first declaration in depth-first order wins
+            result = fxomDocument.getFxomRoot().searchWithFxId(fxId);
+        }
+        
+        return result;
+    }
+    
+    void rebuild() {
+        declarations.clear();
+        final Map<String, FXOMObject> newFxIds;
+        if (fxomDocument.getFxomRoot() == null) {
+            newFxIds = new HashMap<>();
+        } else {
+            newFxIds = fxomDocument.getFxomRoot().collectFxIds();
+            for (FXOMObject fxomObject : FXOMNodes.serializeObjects(fxomDocument.getFxomRoot())) {
+                addDeclaration(fxomObject.getFxId(), fxomObject);
+            }
+        }
+        fxIds.keySet().retainAll(newFxIds.keySet());
+        for (Map.Entry<String, FXOMObject> e : newFxIds.entrySet()) {
+            if (fxIds.get(e.getKey()) != e.getValue()) {
+                fxIds.put(e.getKey(), e.getValue());
+            }
+        }
+    }
+    
+    void fxIdDidChange(FXOMObject fxomObject, String oldFxId) {
+        if (isAttached(fxomObject)) {
+            if (removeDeclaration(oldFxId, fxomObject)) {
+                update(oldFxId);
+            }
+            final String newFxId = fxomObject.getFxId();
+            if (addDeclaration(newFxId, fxomObject)) {
+                update(newFxId);
+            }
+        }
+    }
+    
+    void objectDidAttach(FXOMObject fxomObject) {
+        if (isAttached(fxomObject)) {
+            for (FXOMObject o : FXOMNodes.serializeObjects(fxomObject)) {
+                if (addDeclaration(o.getFxId(), o)) {
+                    update(o.getFxId());
+                }
+            }
+        }
+    }
+    
+    void objectDidDetach(FXOMObject fxomObject) {
+        for (FXOMObject o : FXOMNodes.serializeObjects(fxomObject)) {
+            if (removeDeclaration(o.getFxId(), o)) {
+                update(o.getFxId());
+            }
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private boolean addDeclaration(String fxId, FXOMObject fxomObject) {
+        final boolean result;
+        if (fxId == null) {
+            result = false;
+        } else {
+            final List<FXOMObject> candidates 
+                    = declarations.computeIfAbsent(fxId, k -> new ArrayList<>(1));
+            if (containsObject(candidates, fxomObject)) {
+                result = false;
+            } else {
+                candidates.add(fxomObject);
+                result = true;
+            }
+        }
+        return result;
+    }
+    
+    private boolean removeDeclaration(String fxId, FXOMObject fxomObject) {
+        final List<FXOMObject> candidates = (fxId == null) ? null : declarations.get(fxId);
+        final boolean result;
+        if (candidates == null) {
+            result = false;
+        } else {
+            result = candidates.removeIf(o -> o == fxomObject);
+            if (candidates.isEmpty()) {
+                declarations.remove(fxId);
+            }
+        }
+        return result;
+    }
+    
+    private void update(String fxId) {
+        final List<FXOMObject> candidates = declarations.get(fxId);
+        if (candidates == null) {
+            fxIds.remove(fxId);
+        } else {
+            final FXOMObject winner;
+            if (candidates.size() == 1) {
+                winner = candidates.get(0);
+            } else {
+                // Duplicate fx:id : last declaration in depth-first order wins
+                winner = fxomDocument.getFxomRoot().collectFxIds().get(fxId);
+            }
+            if (fxIds.get(fxId) != winner) {
+                fxIds.put(fxId, winner);
+            }
+        }
+    }
+    
+    private boolean isAttached(FXOMObject fxomObject) {
+        FXOMObject topObject = fxomObject;
+        while (topObject.getParentObject() != null) {
+            topObject = topObject.getParentObject();
+        }
+        return (fxomObject.getFxomDocument() == fxomDocument)
+                && (topObject == fxomDocument.getFxomRoot());
+    }
+    
+    private static boolean containsObject(List<FXOMObject> objects, FXOMObject fxomObject) {
+        boolean result = false;
+        for (FXOMObject o : objects) {
+            if (o == fxomObject) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+    
+    private static boolean isSearchable(FXOMObject fxomObject) {
+        // See FXOMIntrinsic.searchWithFxId()
+        return ((fxomObject instanceof FXOMIntrinsic) == false)
+                || (((FXOMIntrinsic) fxomObject).getType() == FXOMIntrinsic.Type.FX_INCLUDE);
+    }
 }
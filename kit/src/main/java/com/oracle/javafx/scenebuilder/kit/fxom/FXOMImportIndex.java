@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reference counts of the classes to be imported by the FXML text of a
+ * document: declared classes and residence classes of static properties.
+ * 
+ * Each object attached to the document contributes its declared class and 
+ * the classes of its text properties. Contributions are recorded per object
+ * so that the counts can be updated as objects are added, removed or 
+ * changed: FXOMSaver then builds the import instructions without walking 
+ * the document.
+ */
+class FXOMImportIndex {
+    
+    private static boolean consistencyCheckEnabled;
+    
+    private final FXOMDocument document;
+    private final Map<FXOMObject, Contribution> contributions = new IdentityHashMap<>();
+    private final Map<Class<?>, Integer> declaredClasses = new HashMap<>();
+    private final Map<Class<?>, Integer> residenceClasses = new HashMap<>();
+    
+    public FXOMImportIndex(FXOMDocument document) {
+        assert document != null;
+        this.document = document;
+    }
+    
+    /*
+     * Returns the same names as FXOMSaver.collectImports() invoked on the 
+     * document root.
+     */
+    public Set<String> collectImports(boolean wildcardImports) {
+        final Set<String> result = new TreeSet<>(); // Sorted
+        
+        for (Class<?> dc : declaredClasses.keySet()) {
+            result.add(wildcardImports ? dc.getPackageName() + ".*" : dc.getCanonicalName()); //NOI18N
+        }
+        for (Class<?> rc : residenceClasses.keySet()) {
+            result.add(wildcardImports ? rc.getPackageName() + ".*" : rc.getName()); //NOI18N
+        }
+        
+        if (consistencyCheckEnabled) {
+            checkConsistency(result, wildcardImports);
+        }
+        
+        return result;
+    }
+    
+    public void rebuild() {
+        contributions.clear();
+        declaredClasses.clear();
+        residenceClasses.clear();
+        if (document.getFxomRoot() != null) {
+            attach(document.getFxomRoot());
+        }
+    }
+    
+    public void objectDidAttach(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        if (isAttached(fxomObject)) {
+            attach(fxomObject);
+        }
+    }
+    
+    public void objectDidDetach(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        if (contributions.containsKey(fxomObject)) {
+            uncount(contributions.remove(fxomObject));
+        }
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            objectDidDetach(child);
+        }
+    }
+    
+    /*
+     * Declared class or text properties of fxomObject have changed.
+     */
+    public void objectDidChange(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        if (contributions.containsKey(fxomObject)) {
+            uncount(contributions.remove(fxomObject));
+            final Contribution contribution = collectContribution(fxomObject);
+            contributions.put(fxomObject, contribution);
+            count(contribution);
+        }
+    }
+    
+    /*
+     * Consistency check compares each result with a plain walk of the 
+     * FXOM tree. Reserved to tests: it defeats the purpose of the index.
+     */
+    static void setConsistencyCheckEnabled(boolean enabled) {
+        consistencyCheckEnabled = enabled;
+    }
+    
+    static boolean isConsistencyCheckEnabled() {
+        return consistencyCheckEnabled;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void attach(FXOMObject fxomObject) {
+        if (contributions.containsKey(fxomObject) == false) {
+            final Contribution contribution = collectContribution(fxomObject);
+            contributions.put(fxomObject, contribution);
+            count(contribution);
+        }
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            attach(child);
+        }
+    }
+    
+    /*
+     * Mirrors FXOMObject.collectDeclaredClasses() and collectPropertiesT()
+     * restricted to fxomObject itself.
+     */
+    private static Contribution collectContribution(FXOMObject fxomObject) {
+        final Contribution result = new Contribution();
+        
+        if (fxomObject instanceof FXOMInstance) {
+            final FXOMInstance fxomInstance = (FXOMInstance) fxomObject;
+            if (fxomInstance.getDeclaredClass() != null) {
+                result.declaredClasses.add(fxomInstance.getDeclaredClass());
+            }
+            for (FXOMProperty p : fxomInstance.getProperties().values()) {
+                if (p instanceof FXOMPropertyT) {
+                    final FXOMPropertyT tp = (FXOMPropertyT) p;
+                    fxomInstance.collectGlueElementPropertiesT(tp.getValueElement(), result.declaredClasses);
+                    if (tp.getName().getResidenceClass() != null) {
+                        result.residenceClasses.add(tp.getName().getResidenceClass());
+                    }
+                }
+            }
+        } else if (fxomObject instanceof FXOMCollection) {
+            final FXOMCollection fxomCollection = (FXOMCollection) fxomObject;
+            if (fxomCollection.getDeclaredClass() != null) {
+                result.declaredClasses.add(fxomCollection.getDeclaredClass());
+            }
+        } else {
+            // Intrinsics contribute nothing : see FXOMIntrinsic.collectDeclaredClasses()
+            assert fxomObject instanceof FXOMIntrinsic;
+        }
+        
+        return result;
+    }
+    
+    private void count(Contribution contribution) {
+        for (Class<?> c : contribution.declaredClasses) {
+            declaredClasses.merge(c, 1, Integer::sum);
+        }
+        for (Class<?> c : contribution.residenceClasses) {
+            residenceClasses.merge(c, 1, Integer::sum);
+        }
+    }
+    
+    private void uncount(Contribution contribution) {
+        for (Class<?> c : contribution.declaredClasses) {
+            decrement(declaredClasses, c);
+        }
+        for (Class<?> c : contribution.residenceClasses) {
+            decrement(residenceClasses, c);
+        }
+    }
+    
+    private static void decrement(Map<Class<?>, Integer> counts, Class<?> c) {
+        final Integer count = counts.get(c);
+        assert count != null;
+        if (count == 1) {
+            counts.remove(c);
+        } else {
+            counts.put(c, count - 1);
+        }
+    }
+    
+    private boolean isAttached(FXOMObject fxomObject) {
+        FXOMObject topObject = fxomObject;
+        while (topObject.getParentObject() != null) {
+            topObject = topObject.getParentObject();
+        }
+        return (fxomObject.getFxomDocument() == document)
+                && (topObject == document.getFxomRoot());
+    }
+    
+    private void checkConsistency(Set<String> result, boolean wildcardImports) {
+        final Set<String> expected;
+        if (document.getFxomRoot() == null) {
+            expected = Collections.emptySet();
+        } else {
+            expected = new FXOMSaver(wildcardImports).collectImports(document.getFxomRoot());
+        }
+        if (expected.equals(result) == false) {
+            throw new IllegalStateException("Import index is out of date:" //NOI18N
+                    + " expected=" + expected //NOI18N
+                    + " found=" + result); //NOI18N
+        }
+    }
+    
+    private static class Contribution {
+        final Set<Class<?>> declaredClasses = new LinkedHashSet<>();
+        final Set<Class<?>> residenceClasses = new LinkedHashSet<>();
+    }
+}
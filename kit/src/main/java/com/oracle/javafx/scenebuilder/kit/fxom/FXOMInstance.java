@@ -77,6 +77,7 @@ public class FXOMInstance extends FXOMObject {
             this.properties.put(p.getName(), p);
             p.setParentInstance(this);
         }
+        getFxomDocument().getImportIndex().objectDidChange(this);
     }
     
     FXOMInstance(
@@ -114,6 +115,7 @@ public class FXOMInstance extends FXOMObject {
 
     public void setDeclaredClass(Class<?> declaredClass) {
         this.declaredClass = declaredClass;
+        getFxomDocument().getImportIndex().objectDidChange(this);
     }
 
     public Map<PropertyName, FXOMProperty> getProperties() {
@@ -135,6 +137,7 @@ public class FXOMInstance extends FXOMObject {
             getGlueElement().getAttributes().put(FXMLLoader.ROOT_TYPE_ATTRIBUTE, getGlueElement().getTagName());
             getGlueElement().setTagName("fx:root");
         }
+        getFxomDocument().getChangeTracker().structureDidChange();
     }
     
     public String getType() {
@@ -242,8 +245,10 @@ public class FXOMInstance extends FXOMObject {
         
     }
 
-    private void collectGlueElementPropertiesT(GlueElement element, Set<Class<?>> result) {
-        if (element == null) {
+    /* Also used by FXOMImportIndex */
+    void collectGlueElementPropertiesT(GlueElement element, Set<Class<?>> result) {
+        if ((element == null) || (fxomDocument == null)
+                || (fxomDocument.getInitialDeclaredClasses() == null)) {
             return;
         }
         if (! element.getChildren().isEmpty()) {
@@ -447,6 +452,16 @@ public class FXOMInstance extends FXOMObject {
         assert property.getParentInstance() == this;
         assert properties.get(property.getName()) == null;
         properties.put(property.getName(), property);
+        getFxomDocument().getChangeTracker().propertyDidChange(this, property.getName());
+        getFxomDocument().getSceneGraphIndex().invalidate();
+        if (property instanceof FXOMPropertyC) {
+            for (FXOMObject value : ((FXOMPropertyC) property).getValues()) {
+                getFxomDocument().getFxIdIndex().objectDidAttach(value);
+                getFxomDocument().getImportIndex().objectDidAttach(value);
+            }
+        } else {
+            getFxomDocument().getImportIndex().objectDidChange(this);
+        }
     }
     
     /* For FXOMProperty.removeFromParentInstance() private use only */
@@ -454,7 +469,15 @@ public class FXOMInstance extends FXOMObject {
         assert property.getParentInstance() == null;
         assert properties.get(property.getName()) == property;
         properties.remove(property.getName());
-        
+        getFxomDocument().getChangeTracker().propertyDidChange(this, property.getName());
+        if (property instanceof FXOMPropertyC) {
+            for (FXOMObject value : ((FXOMPropertyC) property).getValues()) {
+                getFxomDocument().getFxIdIndex().objectDidDetach(value);
+                getFxomDocument().getImportIndex().objectDidDetach(value);
+            }
+        } else {
+            getFxomDocument().getImportIndex().objectDidChange(this);
+        }
     }
 
     public void fillProperties(Map<PropertyName, FXOMProperty> properties ) {
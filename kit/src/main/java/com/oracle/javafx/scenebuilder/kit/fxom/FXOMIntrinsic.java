@@ -71,6 +71,7 @@ public class FXOMIntrinsic extends FXOMObject {
     }
 
     public void addIntrinsicProperty(FXOMDocument fxomDocument) {
+        getFxomDocument().getChangeTracker().structureDidChange();
         final Map<String, String> attributes = this.getGlueElement().getAttributes();
         if(attributes.containsKey(CHARSET_PROPERTY)) {
             createAndInsertProperty(attributes, fxomDocument, CHARSET_PROPERTY);
@@ -93,6 +94,7 @@ public class FXOMIntrinsic extends FXOMObject {
             attributes.remove(CHARSET_PROPERTY);
             PropertyName charsetPropertyName = new PropertyName(CHARSET_PROPERTY);
             this.getProperties().remove(charsetPropertyName);
+            getFxomDocument().getChangeTracker().structureDidChange();
         }
     }
 
@@ -127,6 +129,7 @@ public class FXOMIntrinsic extends FXOMObject {
         } else {
             getGlueElement().getAttributes().put(SOURCE_PROPERTY, source);
         }
+        getFxomDocument().getChangeTracker().structureDidChange();
     }
     
     public Object getSourceSceneGraphObject() {
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PrefixedValue;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TitledPane;
+
+/**
+ * Tracks the Tab and TitledPane instances of a document whose content is 
+ * not instantiated in its scene graph (see 
+ * {@link FXOMDocument#setLazyContentEnabled(boolean)}).
+ * 
+ * Content of a non-selected Tab or of a collapsed TitledPane is deferred: 
+ * its FXOM objects have no scene graph object until it is materialized.
+ * Once materialized, content is never deferred again.
+ * Content declaring an fx:id referenced in the document is always 
+ * instantiated: FXMLLoader could not resolve the reference otherwise.
+ */
+class FXOMLazyContent {
+    
+    static final PropertyName contentName = new PropertyName("content"); //NOI18N
+    private static final PropertyName expandedName = new PropertyName("expanded"); //NOI18N
+    private static final Pattern identifierPattern 
+            = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*"); //NOI18N
+    
+    private final FXOMDocument document;
+    private final Set<FXOMInstance> deferredOwners = new LinkedHashSet<>();
+    private final Set<FXOMInstance> materializedOwners 
+            = Collections.newSetFromMap(new WeakHashMap<>());
+    private boolean enabled;
+    
+    public FXOMLazyContent(FXOMDocument document) {
+        assert document != null;
+        this.document = document;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /*
+     * Records the content properties to be detached or instantiated in the
+     * change tracker. Returns false if there is none.
+     */
+    public boolean setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            update();
+        }
+        for (FXOMInstance owner : deferredOwners) {
+            document.getChangeTracker().propertyDidChange(owner, contentName);
+        }
+        final boolean result = deferredOwners.isEmpty() == false;
+        if (enabled == false) {
+            deferredOwners.clear();
+            materializedOwners.clear();
+        }
+        return result;
+    }
+    
+    /*
+     * Recomputes the deferred contents from the FXOM tree and the current
+     * scene graph: invoked before a full reload.
+     */
+    public void update() {
+        deferredOwners.clear();
+        final FXOMObject fxomRoot = document.getFxomRoot();
+        if (enabled && (fxomRoot != null)) {
+            final Set<String> referencedNames = new HashSet<>();
+            collectReferencedNames(fxomRoot, referencedNames);
+            collectDeferredOwners(fxomRoot, referencedNames);
+        }
+    }
+    
+    /*
+     * Glue elements of the deferred content properties: they are excluded 
+     * from the FXML text loaded by a full reload.
+     */
+    public Set<GlueElement> getDeferredElements() {
+        final Set<GlueElement> result = new HashSet<>();
+        for (FXOMInstance owner : deferredOwners) {
+            final FXOMProperty content = owner.getProperties().get(contentName);
+            if (content instanceof FXOMPropertyC) {
+                result.add(((FXOMPropertyC) content).getGlueElement());
+            }
+        }
+        return result;
+    }
+    
+    public boolean isDeferred(FXOMInstance instance, PropertyName name) {
+        return contentName.equals(name) && deferredOwners.contains(instance);
+    }
+    
+    /*
+     * Returns true if fxomObject belongs to a deferred content.
+     */
+    public boolean isDeferred(FXOMObject fxomObject) {
+        boolean result = false;
+        
+        if (deferredOwners.isEmpty() == false) {
+            FXOMObject child = fxomObject;
+            FXOMObject parent = child.getParentObject();
+            while ((parent != null) && (result == false)) {
+                result = (child.getParentProperty() != null)
+                        && isDeferred(child.getParentProperty().getParentInstance(), 
+                                child.getParentProperty().getName());
+                child = parent;
+                parent = child.getParentObject();
+            }
+        }
+        
+        return result;
+    }
+    
+    /*
+     * Records the deferred contents enclosing fxomObject (or owned by it) as 
+     * changed in the change tracker. Returns false if there is none.
+     */
+    public boolean materialize(FXOMObject fxomObject) {
+        boolean result = false;
+        
+        FXOMObject o = fxomObject;
+        while (o != null) {
+            if (deferredOwners.remove(o)) {
+                final FXOMInstance owner = (FXOMInstance) o;
+                materializedOwners.add(owner);
+                document.getChangeTracker().propertyDidChange(owner, contentName);
+                result = true;
+            }
+            o = o.getParentObject();
+        }
+        
+        return result;
+    }
+    
+    static void clearSceneGraphObjects(FXOMObject fxomObject) {
+        fxomObject.setSceneGraphObject(null);
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            clearSceneGraphObjects(child);
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void collectDeferredOwners(FXOMObject fxomObject, Set<String> referencedNames) {
+        if ((fxomObject instanceof FXOMInstance) 
+                && isDeferrable((FXOMInstance) fxomObject, referencedNames)) {
+            deferredOwners.add((FXOMInstance) fxomObject);
+        } else {
+            for (FXOMObject child : fxomObject.getChildObjects()) {
+                collectDeferredOwners(child, referencedNames);
+            }
+        }
+    }
+    
+    private boolean isDeferrable(FXOMInstance instance, Set<String> referencedNames) {
+        final Class<?> declaredClass = instance.getDeclaredClass();
+        final FXOMProperty content = instance.getProperties().get(contentName);
+        if ((declaredClass == null) 
+                || ((content instanceof FXOMPropertyC) == false)
+                || materializedOwners.contains(instance)) {
+            return false;
+        }
+        
+        // Current scene graph state wins over FXML defaults
+        final Object sceneGraphObject = instance.getSceneGraphObject();
+        final boolean hidden;
+        if (Tab.class.isAssignableFrom(declaredClass)) {
+            if (isInSelectingTabPane(sceneGraphObject)) {
+                hidden = ((Tab) sceneGraphObject).isSelected() == false;
+            } else {
+                // TabPane selects its first tab by default
+                hidden = (instance.getParentProperty() != null)
+                        && (instance.getIndexInParentProperty() >= 1);
+            }
+        } else if (TitledPane.class.isAssignableFrom(declaredClass)) {
+            if (sceneGraphObject instanceof TitledPane) {
+                hidden = ((TitledPane) sceneGraphObject).isExpanded() == false;
+            } else {
+                final FXOMProperty expanded = instance.getProperties().get(expandedName);
+                hidden = (expanded instanceof FXOMPropertyT)
+                        && "false".equals(((FXOMPropertyT) expanded).getValue()); //NOI18N
+            }
+        } else {
+            hidden = false;
+        }
+        
+        boolean result = hidden;
+        if (result) {
+            for (FXOMObject value : ((FXOMPropertyC) content).getValues()) {
+                if (Collections.disjoint(value.collectFxIds().keySet(), referencedNames) == false) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    private static boolean isInSelectingTabPane(Object sceneGraphObject) {
+        return (sceneGraphObject instanceof Tab)
+                && (((Tab) sceneGraphObject).getTabPane() != null)
+                && (((Tab) sceneGraphObject).getTabPane().getSelectionModel().getSelectedItem() != null);
+    }
+    
+    /*
+     * Collects the names used by fx:reference, fx:copy and expressions.
+     * Identifiers of an expression are all collected: this may over-estimate 
+     * the referenced names but never misses one.
+     */
+    private static void collectReferencedNames(FXOMObject fxomObject, Set<String> result) {
+        if (fxomObject instanceof FXOMIntrinsic) {
+            final String source = ((FXOMIntrinsic) fxomObject).getSource();
+            if (source != null) {
+                result.add(source);
+            }
+        } else if (fxomObject instanceof FXOMInstance) {
+            for (FXOMProperty p : ((FXOMInstance) fxomObject).getProperties().values()) {
+                if (p instanceof FXOMPropertyT) {
+                    final PrefixedValue pv = new PrefixedValue(((FXOMPropertyT) p).getValue());
+                    if (pv.isExpression() || pv.isBindingExpression()) {
+                        final Matcher m = identifierPattern.matcher(pv.getSuffix());
+                        while (m.find()) {
+                            result.add(m.group());
+                        }
+                    }
+                }
+            }
+        }
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            collectReferencedNames(child, result);
+        }
+    }
+}
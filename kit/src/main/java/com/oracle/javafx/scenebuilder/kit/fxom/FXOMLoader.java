@@ -36,6 +36,7 @@ import com.oracle.javafx.scenebuilder.kit.i18n.I18N;
 import com.oracle.javafx.scenebuilder.kit.editor.panel.util.dialog.ErrorDialog;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
 import com.oracle.javafx.scenebuilder.kit.util.Deprecation;
+import javafx.application.Platform;
 import javafx.fxml.LoadListener;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -46,8 +47,9 @@ import javax.xml.stream.XMLStreamException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Map;
 
 
 /**
@@ -71,7 +73,26 @@ class FXOMLoader implements LoadListener {
     }
 
     public void load(String fxmlText) throws java.io.IOException {
+        load(fxmlText, Collections.emptyMap());
+    }
+
+    /*
+     * Loads fxmlText with an FXMLLoader whose namespace is pre-populated
+     * with the specified entries: fx:reference and expressions targeting
+     * those names resolve against the supplied objects.
+     */
+    void load(String fxmlText, Map<String, Object> namespace) throws java.io.IOException {
         assert fxmlText != null;
+        load(fxmlText.getBytes(StandardCharsets.UTF_8), namespace);
+    }
+
+    /*
+     * Loads the UTF-8 encoded fxml text. Bytes are not copied: they can
+     * be shared with the glue loader.
+     */
+    void load(byte[] fxmlBytes, Map<String, Object> namespace) throws java.io.IOException {
+        assert fxmlBytes != null;
+        assert namespace != null;
 
         final ClassLoader classLoader;
         if (document.getClassLoader() != null) {
@@ -83,12 +104,12 @@ class FXOMLoader implements LoadListener {
         FXMLLoader fxmlLoader = new FXMLLoader();
         fxmlLoader.setLocation(document.getLocation());
         fxmlLoader.setResources(new ResourceKeyCollector(document.getResources()));
-        fxmlLoader.setClassLoader(new TransientClassLoader(classLoader));
+        fxmlLoader.setClassLoader(TransientClassLoader.getClassLoader(classLoader));
         fxmlLoader.setLoadListener(this);
+        fxmlLoader.getNamespace().putAll(namespace);
         Deprecation.setStaticLoad(fxmlLoader, true);
 
-        final Charset utf8 = Charset.forName("UTF-8");
-        try (final InputStream is = new ByteArrayInputStream(fxmlText.getBytes(utf8))) {
+        try (final InputStream is = new ByteArrayInputStream(fxmlBytes)) {
             glueCursor = new GlueCursor(document.getGlue());
             currentTransientNode = null;
             assert is.markSupported();
@@ -103,6 +124,15 @@ class FXOMLoader implements LoadListener {
     }
 
     private void handleUnsupportedCharset(Exception x) {
+        if (Platform.isFxApplicationThread()) {
+            showUnsupportedCharsetDialog(x);
+        } else {
+            // Document is loaded by a background task (see FXOMDocumentLoadTask)
+            Platform.runLater(() -> showUnsupportedCharsetDialog(x));
+        }
+    }
+
+    private void showUnsupportedCharsetDialog(Exception x) {
         final ErrorDialog errorDialog = new ErrorDialog(null);
         errorDialog.setMessage(I18N.getString("alert.open.failure.charset.not.found"));
         errorDialog.setDetails(I18N.getString("alert.open.failure.charset.not.found.details"));
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueAuxiliary;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueCharacters;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueInstruction;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport.Category;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Control;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.Region;
+
+/**
+ * Estimates the memory retained by an FXOM document.
+ * 
+ * FXOM and glue sizes are computed from the shallow layout of their classes
+ * on a 64-bit JVM with compressed references. Scene graph objects are too
+ * complex for that: they are charged a fixed heuristic size per kind.
+ * Images are charged their decoded size (4 bytes per pixel).
+ */
+public class FXOMMemoryEstimator {
+    
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    
+    // Heuristic sizes of scene graph objects (properties, css, skin...)
+    private static final int NODE_BYTES = 512;
+    private static final int PARENT_BYTES = 128;
+    private static final int CONTROL_BYTES = 512;
+    private static final int OTHER_BYTES = 256; // Tab, MenuItem, TableColumn...
+    // About twenty strings or items per sample data
+    private static final int SAMPLE_DATA_BYTES = 2048;
+    
+    private final MemoryReport report;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int fxomObjectCount;
+    private int propertyCount;
+    private int sceneGraphNodeCount;
+    private int imageCount;
+    
+    FXOMMemoryEstimator(MemoryReport report) {
+        assert report != null;
+        this.report = report;
+    }
+    
+    /**
+     * Returns the estimated size of the FXOM and glue trees of the specified 
+     * object. Use this for objects retained outside of their document 
+     * (undo stack, clipboard...).
+     * 
+     * @param fxomObject an fxom object (never null)
+     * @return an estimate in bytes.
+     */
+    public static long estimateBytes(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        
+        final MemoryReport report = new MemoryReport(""); //NOI18N
+        final FXOMMemoryEstimator estimator = new FXOMMemoryEstimator(report);
+        estimator.estimateFxomObject(fxomObject, false /* sceneGraph */);
+        estimator.estimateGlueElement(fxomObject.getGlueElement());
+        return report.getBytes(Category.FXOM_TREE) + report.getBytes(Category.GLUE_TREE);
+    }
+    
+    void estimate(FXOMDocument document, int sampleDataCount) {
+        assert document != null;
+        
+        if (document.getFxomRoot() != null) {
+            estimateFxomObject(document.getFxomRoot(), true /* sceneGraph */);
+        }
+        for (GlueAuxiliary auxiliary : document.getGlue().getHeader()) {
+            estimateGlueAuxiliary(auxiliary);
+        }
+        if (document.getGlue().getRootElement() != null) {
+            estimateGlueElement(document.getGlue().getRootElement());
+        }
+        estimateSceneGraphObject(document.getSceneGraphRoot());
+        estimateSceneGraphObject(document.getDisplayNode());
+        report.addBytes(Category.SAMPLE_DATA, (long) sampleDataCount * SAMPLE_DATA_BYTES);
+        
+        report.setFxomObjectCount(fxomObjectCount);
+        report.setPropertyCount(propertyCount);
+        report.setSceneGraphNodeCount(sceneGraphNodeCount);
+        report.setImageCount(imageCount);
+    }
+    
+    
+    /*
+     * Private (FXOM)
+     */
+    
+    private void estimateFxomObject(FXOMObject fxomObject, boolean sceneGraph) {
+        fxomObjectCount++;
+        // document, glueElement, parents, sceneGraphObject, generation
+        long bytes = shallow(5, 4);
+        if (fxomObject instanceof FXOMInstance) {
+            final Map<PropertyName, FXOMProperty> properties 
+                    = ((FXOMInstance) fxomObject).getProperties();
+            bytes += shallow(2, 0) + map(properties.size());
+            for (FXOMProperty p : properties.values()) {
+                bytes += estimateFxomProperty(p, sceneGraph);
+            }
+        } else if (fxomObject instanceof FXOMCollection) {
+            final List<FXOMObject> items = ((FXOMCollection) fxomObject).getItems();
+            bytes += shallow(2, 0) + list(items.size());
+            for (FXOMObject i : items) {
+                estimateFxomObject(i, sceneGraph);
+            }
+        } else if (fxomObject instanceof FXOMIntrinsic) {
+            final FXOMIntrinsic intrinsic = (FXOMIntrinsic) fxomObject;
+            bytes += shallow(2, 0) + map(intrinsic.getProperties().size());
+            for (FXOMProperty p : intrinsic.getProperties().values()) {
+                bytes += estimateFxomProperty(p, sceneGraph);
+            }
+        }
+        report.addBytes(Category.FXOM_TREE, bytes);
+        
+        if (sceneGraph) {
+            estimateSceneGraphObject(fxomObject.getSceneGraphObject());
+        }
+    }
+    
+    private long estimateFxomProperty(FXOMProperty property, boolean sceneGraph) {
+        propertyCount++;
+        // document, name, parentInstance + PropertyName
+        long result = shallow(3, 0) + shallow(3, 0) + string(property.getName().getName());
+        if (property instanceof FXOMPropertyT) {
+            result += shallow(2, 0) + string(((FXOMPropertyT) property).getValue());
+        } else if (property instanceof FXOMPropertyC) {
+            final List<FXOMObject> values = ((FXOMPropertyC) property).getValues();
+            result += shallow(2, 0) + list(values.size());
+            for (FXOMObject v : values) {
+                estimateFxomObject(v, sceneGraph);
+            }
+        }
+        return result;
+    }
+    
+    
+    /*
+     * Private (glue)
+     */
+    
+    private void estimateGlueElement(GlueElement element) {
+        final Map<String, String> attributes = element.getAttributes();
+        // document, tagName, children, attributes, front, tail, content, parent
+        // + indentDepth, synthetic. Tag and attribute names are interned.
+        long bytes = shallow(8, 5) + attributes(attributes.size());
+        for (String value : attributes.values()) {
+            bytes += string(value);
+        }
+        // Lists are allocated on first insertion
+        bytes += arrayList(element.getChildren().size(), 2)
+                + arrayList(element.getFront().size(), 1)
+                + arrayList(element.getContent().size(), 1)
+                + arrayList(element.getTail().size(), 1);
+        report.addBytes(Category.GLUE_TREE, bytes);
+        
+        estimateGlueAuxiliaries(element.getFront());
+        estimateGlueAuxiliaries(element.getContent());
+        estimateGlueAuxiliaries(element.getTail());
+        for (GlueElement child : element.getChildren()) {
+            estimateGlueElement(child);
+        }
+    }
+    
+    private void estimateGlueAuxiliaries(List<GlueAuxiliary> auxiliaries) {
+        for (GlueAuxiliary auxiliary : auxiliaries) {
+            estimateGlueAuxiliary(auxiliary);
+        }
+    }
+    
+    private void estimateGlueAuxiliary(GlueAuxiliary auxiliary) {
+        final long bytes;
+        if (auxiliary instanceof GlueCharacters) {
+            bytes = shallow(3, 0) + string(((GlueCharacters) auxiliary).getData());
+        } else if (auxiliary instanceof GlueInstruction) {
+            final GlueInstruction instruction = (GlueInstruction) auxiliary;
+            bytes = shallow(3, 0) + string(instruction.getTarget()) + string(instruction.getData());
+        } else {
+            bytes = shallow(1, 0);
+        }
+        report.addBytes(Category.GLUE_TREE, bytes);
+    }
+    
+    
+    /*
+     * Private (scene graph)
+     */
+    
+    private void estimateSceneGraphObject(Object sceneGraphObject) {
+        if ((sceneGraphObject == null) || (visited.add(sceneGraphObject) == false)) {
+            return;
+        }
+        
+        sceneGraphNodeCount++;
+        if (sceneGraphObject instanceof Node) {
+            long bytes = NODE_BYTES;
+            if (sceneGraphObject instanceof Control) {
+                bytes += CONTROL_BYTES;
+            }
+            if (sceneGraphObject instanceof ImageView) {
+                estimateImage(((ImageView) sceneGraphObject).getImage());
+            }
+            if ((sceneGraphObject instanceof Region) 
+                    && (((Region) sceneGraphObject).getBackground() != null)) {
+                for (BackgroundImage bi : ((Region) sceneGraphObject).getBackground().getImages()) {
+                    estimateImage(bi.getImage());
+                }
+            }
+            if (sceneGraphObject instanceof Parent) {
+                // Children include skin nodes
+                final List<Node> children = ((Parent) sceneGraphObject).getChildrenUnmodifiable();
+                bytes += PARENT_BYTES + list(children.size());
+                report.addBytes(Category.SCENE_GRAPH, bytes);
+                for (Node child : children) {
+                    estimateSceneGraphObject(child);
+                }
+            } else {
+                report.addBytes(Category.SCENE_GRAPH, bytes);
+            }
+        } else {
+            report.addBytes(Category.SCENE_GRAPH, OTHER_BYTES);
+        }
+    }
+    
+    private void estimateImage(Image image) {
+        if ((image != null) && visited.add(image)) {
+            imageCount++;
+            report.addBytes(Category.IMAGES, (long) (image.getWidth() * image.getHeight() * 4));
+        }
+    }
+    
+    
+    /*
+     * Private (sizes)
+     */
+    
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+    
+    private static long shallow(int references, int primitiveBytes) {
+        return align(HEADER + references * REFERENCE + primitiveBytes);
+    }
+    
+    private static long string(String s) {
+        // String + byte array (compact strings)
+        return (s == null) ? 0 : shallow(1, 8) + align(16 + s.length());
+    }
+    
+    private static long list(int size) {
+        // ArrayList + its array (default capacity)
+        return shallow(1, 8) + align(16 + REFERENCE * Math.max(size, 10));
+    }
+    
+    private static long arrayList(int size, int initialCapacity) {
+        // ArrayList + its array, grown by one element at a time
+        final long result;
+        if (size == 0) {
+            result = 0;
+        } else {
+            int capacity = initialCapacity;
+            while (capacity < size) {
+                capacity = Math.max(capacity + (capacity >> 1), capacity + 1);
+            }
+            result = shallow(1, 8) + align(16 + REFERENCE * capacity);
+        }
+        return result;
+    }
+    
+    private static long attributes(int size) {
+        // GlueAttributes: slots, entrySet, size, modCount + [key, value] array
+        // (empty array is shared)
+        int capacity = 0;
+        if (size > 0) {
+            capacity = 4;
+            while (capacity < size * 2) {
+                capacity *= 2;
+            }
+        }
+        return shallow(2, 8) + ((capacity == 0) ? 0 : align(16 + REFERENCE * capacity));
+    }
+    
+    private static long map(int size) {
+        // LinkedHashMap + table + entries
+        int capacity = 16;
+        while (capacity * 3 / 4 < size) {
+            capacity *= 2;
+        }
+        return shallow(5, 16) + align(16 + REFERENCE * capacity) + size * shallow(6, 4);
+    }
+}
@@ -58,6 +58,9 @@ public abstract class FXOMNode {
         assert destination != null;
         assert destination != fxomDocument;
         fxomDocument = destination;
+        // Scene graph objects coming from another document cannot be reused
+        fxomDocument.getChangeTracker().structureDidChange();
+        fxomDocument.getSceneGraphIndex().invalidate();
     }
     
     
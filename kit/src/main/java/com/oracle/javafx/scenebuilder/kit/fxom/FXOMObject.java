@@ -43,6 +43,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import javafx.scene.Node;
 import javafx.scene.Scene;
@@ -57,6 +58,7 @@ public abstract class FXOMObject extends FXOMNode {
     private FXOMPropertyC parentProperty;
     private FXOMCollection parentCollection;
     private Object sceneGraphObject;
+    private int sceneGraphGeneration;
 
     FXOMObject(FXOMDocument fxomDocument, GlueElement glueElement, Object sceneGraphObject) {
         super(fxomDocument);
@@ -66,6 +68,7 @@ public abstract class FXOMObject extends FXOMNode {
         
         this.glueElement = glueElement;
         this.sceneGraphObject = sceneGraphObject;
+        this.sceneGraphGeneration = fxomDocument.getSceneGraphGeneration();
     }
 
     FXOMObject(FXOMDocument fxomDocument, String tagName) {
@@ -194,7 +197,11 @@ public abstract class FXOMObject extends FXOMNode {
     }
 
     public void setSceneGraphObject(Object sceneGraphObject) {
+        final Object oldSceneGraphObject = this.sceneGraphObject;
         this.sceneGraphObject = sceneGraphObject;
+        this.sceneGraphGeneration = getFxomDocument().getSceneGraphGeneration();
+        getFxomDocument().getSceneGraphIndex().sceneGraphObjectDidChange(this, oldSceneGraphObject);
+        getFxomDocument().getTransientStateRegistry().sceneGraphObjectDidChange(this);
     }
     
     public FXOMObject getNextSlibing() {
@@ -519,10 +526,15 @@ public abstract class FXOMObject extends FXOMNode {
     
     public void setFxId(String fxId) {
         assert (fxId == null) || JavaLanguage.isIdentifier(fxId);
-        if (fxId == null) {
-            glueElement.getAttributes().remove("fx:id");
-        } else {
-            glueElement.getAttributes().put("fx:id", fxId);
+        final String oldFxId = getFxId();
+        if (Objects.equals(oldFxId, fxId) == false) {
+            if (fxId == null) {
+                glueElement.getAttributes().remove("fx:id");
+            } else {
+                glueElement.getAttributes().put("fx:id", fxId);
+            }
+            getFxomDocument().getChangeTracker().fxIdDidChange(this);
+            getFxomDocument().getFxIdIndex().fxIdDidChange(this, oldFxId);
         }
     }
         
@@ -532,10 +544,13 @@ public abstract class FXOMObject extends FXOMNode {
     }
     
     public void setFxValue(String fxValue) {
-        if (fxValue == null) {
-            glueElement.getAttributes().remove("fx:value");
-        } else {
-            glueElement.getAttributes().put("fx:value", fxValue);
+        if (Objects.equals(getFxValue(), fxValue) == false) {
+            if (fxValue == null) {
+                glueElement.getAttributes().remove("fx:value");
+            } else {
+                glueElement.getAttributes().put("fx:value", fxValue);
+            }
+            getFxomDocument().getChangeTracker().structureDidChange();
         }
     }
     
@@ -545,10 +560,13 @@ public abstract class FXOMObject extends FXOMNode {
     }
     
     public void setFxConstant(String fxConstant) {
-        if (fxConstant == null) {
-            glueElement.getAttributes().remove("fx:constant");
-        } else {
-            glueElement.getAttributes().put("fx:constant", fxConstant);
+        if (Objects.equals(getFxConstant(), fxConstant) == false) {
+            if (fxConstant == null) {
+                glueElement.getAttributes().remove("fx:constant");
+            } else {
+                glueElement.getAttributes().put("fx:constant", fxConstant);
+            }
+            getFxomDocument().getChangeTracker().structureDidChange();
         }
     }
     
@@ -569,10 +587,13 @@ public abstract class FXOMObject extends FXOMNode {
     }
     
     public void setFxFactory(String fxFactory) {
-        if (fxFactory == null) {
-            glueElement.getAttributes().remove("fx:factory");
-        } else {
-            glueElement.getAttributes().put("fx:factory", fxFactory);
+        if (Objects.equals(getFxFactory(), fxFactory) == false) {
+            if (fxFactory == null) {
+                glueElement.getAttributes().remove("fx:factory");
+            } else {
+                glueElement.getAttributes().put("fx:factory", fxFactory);
+            }
+            getFxomDocument().getChangeTracker().structureDidChange();
         }
     }
     
@@ -735,6 +756,21 @@ public abstract class FXOMObject extends FXOMNode {
         parentCollection = newParentCollection;
     }
     
+    /*
+     * Returns the document scene graph generation at the time the scene 
+     * graph object was assigned. A scene graph object from a previous
+     * generation has not been refreshed by the last full reload and cannot
+     * be reinserted as is in the current scene graph.
+     */
+    int getSceneGraphGeneration() {
+        return sceneGraphGeneration;
+    }
+    
+    /* Reserved to FXOMDeltaRefresher: scene graph object missed some changes */
+    void invalidateSceneGraphGeneration() {
+        sceneGraphGeneration = -1;
+    }
+    
     public boolean isGluon() {
         return sceneGraphObject != null && sceneGraphObject.getClass().getName().startsWith(EditorPlatform.GLUON_PACKAGE);
     }
@@ -215,6 +215,13 @@ public class FXOMPropertyC extends FXOMProperty {
         } else {
             values.add(index, value);
         }
+        if (getParentInstance() != null) {
+            getFxomDocument().getChangeTracker().propertyDidChange(getParentInstance(), getName());
+        }
+        getFxomDocument().getChangeTracker().objectDidAttach();
+        getFxomDocument().getSceneGraphIndex().invalidate();
+        getFxomDocument().getFxIdIndex().objectDidAttach(value);
+        getFxomDocument().getImportIndex().objectDidAttach(value);
     }
     
     /* Reserved to FXOMObject.removeFromParentProperty() private use */
@@ -223,5 +230,10 @@ public class FXOMPropertyC extends FXOMProperty {
         assert value.getParentProperty() == null;
         assert values.contains(value);
         values.remove(value);
+        if (getParentInstance() != null) {
+            getFxomDocument().getChangeTracker().propertyDidChange(getParentInstance(), getName());
+        }
+        getFxomDocument().getFxIdIndex().objectDidDetach(value);
+        getFxomDocument().getImportIndex().objectDidDetach(value);
     }
 }
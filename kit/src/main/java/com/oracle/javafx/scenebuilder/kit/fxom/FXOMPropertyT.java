@@ -126,6 +126,10 @@ public class FXOMPropertyT extends FXOMProperty {
         }
         
         value = newValue;
+        
+        if (getParentInstance() != null) {
+            getFxomDocument().getChangeTracker().propertyDidChange(getParentInstance(), getName());
+        }
     }
 
     public GlueElement getPropertyElement() {
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshMetrics;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshPhase;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshPhaseEvent;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * Measures one phase of a scene graph refresh: the duration goes to 
+ * RefreshMetrics and to a RefreshPhaseEvent (Flight Recorder).
+ */
+class FXOMRefreshProbe {
+    
+    private final FXOMDocument document;
+    private final RefreshPhase phase;
+    private final RefreshPhaseEvent event = new RefreshPhaseEvent();
+    private final long startTime;
+    private long fxmlSize;
+    
+    private FXOMRefreshProbe(FXOMDocument document, RefreshPhase phase) {
+        this.document = document;
+        this.phase = phase;
+        this.event.begin();
+        this.startTime = System.nanoTime();
+    }
+    
+    public static FXOMRefreshProbe begin(FXOMDocument document, RefreshPhase phase) {
+        assert document != null;
+        assert phase != null;
+        return new FXOMRefreshProbe(document, phase);
+    }
+    
+    public void setFxmlSize(long fxmlSize) {
+        this.fxmlSize = fxmlSize;
+    }
+    
+    public void end() {
+        final long duration = System.nanoTime() - startTime;
+        RefreshMetrics.getMetrics().recordPhase(phase, duration);
+        event.end();
+        if (event.shouldCommit()) {
+            // Counts walk the whole document: only when recording
+            event.phase = phase.toString();
+            event.fxmlSize = fxmlSize;
+            if (document.getFxomRoot() != null) {
+                event.objectCount = countObjects(document.getFxomRoot());
+            }
+            if (document.getSceneGraphRoot() instanceof Node) {
+                event.nodeCount = countNodes((Node) document.getSceneGraphRoot());
+            }
+            event.commit();
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private static int countObjects(FXOMObject fxomObject) {
+        int result = 1;
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            result += countObjects(child);
+        }
+        return result;
+    }
+    
+    private static int countNodes(Node node) {
+        int result = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                result += countNodes(child);
+            }
+        }
+        return result;
+    }
+}
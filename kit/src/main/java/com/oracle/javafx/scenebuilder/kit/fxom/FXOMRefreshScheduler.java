@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import javafx.animation.AnimationTimer;
+import javafx.util.Duration;
+
+/**
+ * Defers the scene graph refreshes of a document to the next JavaFX pulse.
+ * 
+ * Refresh requests received until then are merged: a burst of edits
+ * (slider drags, keyboard nudges...) costs a single refresh per pulse.
+ * When a window is set, the refresh waits for the first pulse following
+ * the end of this window.
+ */
+class FXOMRefreshScheduler {
+    
+    private final Runnable refresh;
+    private AnimationTimer timer;
+    private Duration window = Duration.ZERO;
+    private long requestTime;
+    private boolean pending;
+    
+    public FXOMRefreshScheduler(Runnable refresh) {
+        assert refresh != null;
+        this.refresh = refresh;
+    }
+    
+    public void schedule() {
+        if (pending == false) {
+            pending = true;
+            requestTime = System.nanoTime();
+            getTimer().start();
+        }
+    }
+    
+    public void flush() {
+        if (pending) {
+            cancel();
+            refresh.run();
+        }
+    }
+    
+    public void cancel() {
+        if (pending) {
+            pending = false;
+            timer.stop();
+        }
+    }
+    
+    public boolean isPending() {
+        return pending;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        assert window != null;
+        this.window = window;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private AnimationTimer getTimer() {
+        // Created lazily: documents may be built outside of the FX thread
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    pulse();
+                }
+            };
+        }
+        return timer;
+    }
+    
+    private void pulse() {
+        final long elapsed = System.nanoTime() - requestTime;
+        if (elapsed >= (long) (window.toMillis() * 1_000_000)) {
+            flush();
+        }
+    }
+}
@@ -32,11 +32,14 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
 import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.property.ValuePropertyMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoubleArrayPropertyMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.property.value.list.ListValuePropertyMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import com.oracle.javafx.scenebuilder.kit.metrics.RefreshPhase;
 
 import javafx.scene.Node;
 import javafx.scene.Parent;
@@ -44,9 +47,14 @@ import javafx.scene.Scene;
 import javafx.scene.control.SplitPane;
 import javafx.stage.Window;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -55,38 +63,172 @@ import java.util.Set;
  *
  */
 class FXOMRefresher {
+    
+    private FXOMDocument.RefreshMode refreshMode;
+    private Set<FXOMInstance> updatedInstances = Collections.emptySet();
+    private Set<FXOMObject> instantiatedObjects = Collections.emptySet();
 
     public void refresh(FXOMDocument document) {
-        String fxmlText = null;
+        final FXOMChangeTracker changeTracker = document.getChangeTracker();
+        if (document.isDeltaRefreshEnabled() && refreshDelta(document, changeTracker)) {
+            assert (refreshMode == FXOMDocument.RefreshMode.DELTA)
+                    || (refreshMode == FXOMDocument.RefreshMode.SUBTREE);
+        } else {
+            // Until it succeeds, next refresh must be a full one too
+            changeTracker.structureDidChange();
+            refreshFully(document);
+            refreshMode = FXOMDocument.RefreshMode.FULL;
+        }
+        changeTracker.reset();
+    }
+    
+    public FXOMDocument.RefreshMode getRefreshMode() {
+        return refreshMode;
+    }
+    
+    /*
+     * Instances whose properties have been updated by a delta refresh.
+     * Empty after a full refresh.
+     */
+    public Set<FXOMInstance> getUpdatedInstances() {
+        return updatedInstances;
+    }
+    
+    /*
+     * Objects whose subtree has been re-instantiated by a delta refresh.
+     * Empty after a full refresh.
+     */
+    public Set<FXOMObject> getInstantiatedObjects() {
+        return instantiatedObjects;
+    }
+    
+    /*
+     * Private (delta)
+     */
+    
+    private boolean refreshDelta(FXOMDocument document, FXOMChangeTracker changeTracker) {
+        final FXOMDeltaRefresher deltaRefresher = new FXOMDeltaRefresher(document, this);
+        boolean result;
+        
+        try {
+            result = deltaRefresher.prepare(changeTracker);
+        } catch(RuntimeException x) {
+            // Metadata or value conversion failed : let full reload report it
+            result = false;
+        }
+        
+        if (result) {
+            final TransientStateBackup backup = new TransientStateBackup(document);
+            try {
+                final FXOMRefreshProbe applyProbe = FXOMRefreshProbe.begin(document, RefreshPhase.DELTA_APPLY);
+                deltaRefresher.apply();
+                applyProbe.end();
+                final FXOMRefreshProbe restoreProbe = FXOMRefreshProbe.begin(document, RefreshPhase.STATE_RESTORE);
+                backup.restore(deltaRefresher.getUpdatedInstances());
+                restoreProbe.end();
+                final FXOMRefreshProbe dividerProbe = FXOMRefreshProbe.begin(document, RefreshPhase.DIVIDER_SYNC);
+                for (FXOMInstance fxomInstance : deltaRefresher.getUpdatedInstances()) {
+                    if (fxomInstance.getSceneGraphObject() instanceof SplitPane) {
+                        synchronizeDividerPositions(fxomInstance);
+                    }
+                }
+                for (FXOMObject fxomObject : deltaRefresher.getInstantiatedObjects()) {
+                    synchronizeDividerPositions(fxomObject);
+                }
+                dividerProbe.end();
+                if (deltaRefresher.getInstantiatedObjects().isEmpty()) {
+                    refreshMode = FXOMDocument.RefreshMode.DELTA;
+                } else {
+                    refreshMode = FXOMDocument.RefreshMode.SUBTREE;
+                }
+                updatedInstances = deltaRefresher.getUpdatedInstances();
+                instantiatedObjects = deltaRefresher.getInstantiatedObjects();
+            } catch(RuntimeException x) {
+                // Scene graph is partially updated : full reload will 
+                // replace it entirely
+                backup.cancel();
+                result = false;
+            }
+        }
+        
+        return result;
+    }
+    
+    /*
+     * Private (full)
+     */
+
+    private void refreshFully(FXOMDocument document) {
+        byte[] fxmlBytes = null;
         try {
-            fxmlText = document.getFxmlText(false);
+            final FXOMLazyContent lazyContent = document.getLazyContent();
+            lazyContent.update();
+            final Set<GlueElement> deferredElements = lazyContent.getDeferredElements();
+            final GlueDocument glueCopy;
+            if (deferredElements.isEmpty()) {
+                // Text is streamed to bytes and never materialized as a String
+                final FXOMRefreshProbe serializationProbe = FXOMRefreshProbe.begin(document, RefreshPhase.SERIALIZATION);
+                fxmlBytes = document.getFxmlBytes();
+                serializationProbe.setFxmlSize(fxmlBytes.length);
+                serializationProbe.end();
+                // Glue of fxmlBytes is copied from document instead of being parsed
+                final FXOMRefreshProbe glueProbe = FXOMRefreshProbe.begin(document, RefreshPhase.GLUE_COPY);
+                glueCopy = document.getGlue().makeCopy();
+                glueProbe.setFxmlSize(fxmlBytes.length);
+                glueProbe.end();
+            } else {
+                // Deferred contents are left out of the copy: text is 
+                // produced from the copy itself
+                final FXOMRefreshProbe glueProbe = FXOMRefreshProbe.begin(document, RefreshPhase.GLUE_COPY);
+                glueCopy = document.makeGlueCopy(deferredElements);
+                glueProbe.end();
+                final FXOMRefreshProbe serializationProbe = FXOMRefreshProbe.begin(document, RefreshPhase.SERIALIZATION);
+                final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                try (final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+                    glueCopy.writeTo(writer);
+                }
+                fxmlBytes = os.toByteArray();
+                serializationProbe.setFxmlSize(fxmlBytes.length);
+                serializationProbe.end();
+            }
+            final FXOMRefreshProbe loadProbe = FXOMRefreshProbe.begin(document, RefreshPhase.FXML_LOAD);
             final FXOMDocument newDocument
-                    = new FXOMDocument(fxmlText,
+                    = new FXOMDocument(fxmlBytes,
+                    glueCopy,
                     document.getLocation(),
                     document.getClassLoader(),
                     document.getResources(),
-                    false /* normalized */);
+                    false /* normalized */,
+                    Collections.emptyMap());
+            loadProbe.setFxmlSize(fxmlBytes.length);
+            loadProbe.end();
             final TransientStateBackup backup = new TransientStateBackup(document);
             // if the refresh should not take place (e.g. due to an error), remove a property from intrinsic
+            final FXOMRefreshProbe swapProbe = FXOMRefreshProbe.begin(document, RefreshPhase.TREE_SWAP);
             if (newDocument.getSceneGraphRoot() == null && newDocument.getFxomRoot() == null) {
                 removeIntrinsicProperty(document);
             } else {
+                document.nextSceneGraphGeneration();
                 refreshDocument(document, newDocument);
             }
+            swapProbe.setFxmlSize(fxmlBytes.length);
+            swapProbe.end();
+            final FXOMRefreshProbe restoreProbe = FXOMRefreshProbe.begin(document, RefreshPhase.STATE_RESTORE);
             backup.restore();
+            restoreProbe.end();
+            final FXOMRefreshProbe dividerProbe = FXOMRefreshProbe.begin(document, RefreshPhase.DIVIDER_SYNC);
             synchronizeDividerPositions(document);
+            dividerProbe.end();
         } catch (RuntimeException | IOException x) {
             final StringBuilder sb = new StringBuilder();
             sb.append("Bug in ");
             sb.append(getClass().getSimpleName());
-            if (fxmlText != null) {
+            if (fxmlBytes != null) {
                 try {
                     final File fxmlFile = File.createTempFile("DTL-5996-", ".fxml");
-                    try (PrintWriter pw = new PrintWriter(fxmlFile, "UTF-8")) {
-                        pw.write(fxmlText);
-                        sb.append(": FXML dumped in ");
-                        sb.append(fxmlFile.getPath());
-                    }
+                    Files.write(fxmlFile.toPath(), fxmlBytes);
+                    sb.append(": FXML dumped in ");
+                    sb.append(fxmlFile.getPath());
                 } catch (IOException xx) {
                     sb.append(": no FXML dumped");
                 }
@@ -138,7 +280,12 @@ class FXOMRefresher {
     }
 
 
-    private void refreshFxomObject(FXOMObject currentObject, FXOMObject newObject) {
+    /*
+     * Copies scene graph objects of newObject subtree into currentObject 
+     * subtree. Both subtrees must have been loaded from the same FXML text.
+     * Package visibility for FXOMDeltaRefresher.
+     */
+    void refreshFxomObject(FXOMObject currentObject, FXOMObject newObject) {
         assert currentObject != null;
         assert newObject != null;
         assert currentObject.getClass() == newObject.getClass();
@@ -165,11 +312,19 @@ class FXOMRefresher {
         currentInstance.setDeclaredClass(newInstance.getDeclaredClass());
         final Set<PropertyName> currentNames = currentInstance.getProperties().keySet();
         final Set<PropertyName> newNames = newInstance.getProperties().keySet();
-        assert currentNames.equals(newNames);
+        assert currentNames.containsAll(newNames);
         for (PropertyName name : currentNames) {
             final FXOMProperty currentProperty = currentInstance.getProperties().get(name);
             final FXOMProperty newProperty = newInstance.getProperties().get(name);
-            refreshFxomProperty(currentProperty, newProperty);
+            if (newProperty == null) {
+                // Deferred content (see FXOMLazyContent)
+                assert currentInstance.getFxomDocument().getLazyContent().isDeferred(currentInstance, name);
+                for (FXOMObject value : ((FXOMPropertyC) currentProperty).getValues()) {
+                    FXOMLazyContent.clearSceneGraphObjects(value);
+                }
+            } else {
+                refreshFxomProperty(currentProperty, newProperty);
+            }
         }
     }
 
@@ -258,34 +413,40 @@ class FXOMRefresher {
      * dividerPositions in FXOM.
      */
 
+    private static final PropertyName dividerPositionsName
+            = new PropertyName("dividerPositions");
+
     private void synchronizeDividerPositions(FXOMDocument document) {
         final FXOMObject fxomRoot = document.getFxomRoot();
         if (fxomRoot != null) {
-            final Metadata metadata
-                    = Metadata.getMetadata();
-            final PropertyName dividerPositionsName
-                    = new PropertyName("dividerPositions");
-            final List<FXOMObject> candidates
-                    = fxomRoot.collectObjectWithSceneGraphObjectClass(SplitPane.class);
+            synchronizeDividerPositions(fxomRoot);
+        }
+    }
+    
+    private void synchronizeDividerPositions(FXOMObject fxomObject) {
+        final List<FXOMObject> candidates
+                = fxomObject.collectObjectWithSceneGraphObjectClass(SplitPane.class);
 
-            for (FXOMObject fxomObject : candidates) {
-                if (fxomObject instanceof FXOMInstance) {
-                    final FXOMInstance fxomInstance = (FXOMInstance) fxomObject;
-                    assert fxomInstance.getSceneGraphObject() instanceof SplitPane;
-                    final SplitPane splitPane
-                            = (SplitPane) fxomInstance.getSceneGraphObject();
-                    splitPane.layout();
-                    final ValuePropertyMetadata vpm
-                            = metadata.queryValueProperty(fxomInstance, dividerPositionsName);
-                    assert vpm instanceof ListValuePropertyMetadata
-                            : "vpm.getClass()=" + vpm.getClass().getSimpleName();
-                    final DoubleArrayPropertyMetadata davpm
-                            = (DoubleArrayPropertyMetadata) vpm;
-                    davpm.synchronizeWithSceneGraphObject(fxomInstance);
-                }
+        for (FXOMObject candidate : candidates) {
+            if (candidate instanceof FXOMInstance) {
+                synchronizeDividerPositions((FXOMInstance) candidate);
             }
         }
     }
+    
+    private void synchronizeDividerPositions(FXOMInstance fxomInstance) {
+        assert fxomInstance.getSceneGraphObject() instanceof SplitPane;
+        final SplitPane splitPane
+                = (SplitPane) fxomInstance.getSceneGraphObject();
+        splitPane.layout();
+        final ValuePropertyMetadata vpm
+                = Metadata.getMetadata().queryValueProperty(fxomInstance, dividerPositionsName);
+        assert vpm instanceof ListValuePropertyMetadata
+                : "vpm.getClass()=" + vpm.getClass().getSimpleName();
+        final DoubleArrayPropertyMetadata davpm
+                = (DoubleArrayPropertyMetadata) vpm;
+        davpm.synchronizeWithSceneGraphObject(fxomInstance);
+    }
 
 
 //    
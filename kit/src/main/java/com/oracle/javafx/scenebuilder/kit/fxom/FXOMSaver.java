@@ -32,9 +32,15 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueAuxiliary;
 import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
 import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueInstruction;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -72,19 +78,56 @@ class FXOMSaver {
         assert fxomDocument != null;
         assert fxomDocument.getGlue() != null;
         
-        if (fxomDocument.getFxomRoot() != null) {
-            updateNameSpace(fxomDocument);
-            updateImportInstructions(fxomDocument);
-        }
+        prepareGlue(fxomDocument);
 
         return fxomDocument.getGlue().toString();
     }
     
+    /*
+     * Writes the FXML text to writer without building it in memory.
+     * writer is neither flushed nor closed.
+     */
+    public void save(FXOMDocument fxomDocument, Writer writer) throws IOException {
+        
+        assert fxomDocument != null;
+        assert fxomDocument.getGlue() != null;
+        assert writer != null;
+        
+        prepareGlue(fxomDocument);
+        
+        fxomDocument.getGlue().writeTo(writer);
+    }
+    
+    /*
+     * Writes the UTF-8 encoded FXML text to channel.
+     * channel is not closed.
+     */
+    public void save(FXOMDocument fxomDocument, WritableByteChannel channel) throws IOException {
+        
+        assert channel != null;
+        
+        final Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+        save(fxomDocument, writer);
+        // Pushes pending bytes to channel but keeps it open
+        writer.flush();
+    }
+    
     
     /*
      * Private
      */
     
+    /*
+     * Updates name spaces and imports of the glue.
+     * Package visibility for FXOMDocument.
+     */
+    void prepareGlue(FXOMDocument fxomDocument) {
+        if (fxomDocument.getFxomRoot() != null) {
+            updateNameSpace(fxomDocument);
+            updateImportInstructions(fxomDocument);
+        }
+    }
+    
     private static final String NAME_SPACE_FX = "http://javafx.com/javafx/" + FXMLLoader.JAVAFX_VERSION;
     private static final String NAME_SPACE_FXML = "http://javafx.com/fxml/1";
     
@@ -111,30 +154,41 @@ class FXOMSaver {
     private void updateImportInstructions(FXOMDocument fxomDocument) {
         assert fxomDocument.getFxomRoot() != null;
 
-        // gets list of the imports to be added to the FXML document.
-        List<GlueInstruction> importList = getHeaderIncludes(fxomDocument);
+        // TODO: When wildcardImport is true, add package name only when no of classes
+        //  which belong to the same package exceed 3
+
+        // import index of the document is kept up to date as objects are
+        // added, removed or changed : no need to walk the FXOM tree here.
+        final Set<String> imports = fxomDocument.getImportIndex().collectImports(wildcardImports);
+
+        // header is left untouched when it already declares these imports
+        if (isHeaderSynchronized(fxomDocument.getGlue(), imports) == false) {
+            // gets list of the imports to be added to the FXML document.
+            List<GlueInstruction> importList = createGlueInstructionsForImports(fxomDocument, imports);
 
-        // synchronizes the glue with the list of glue instructions
-        synchronizeHeader(fxomDocument.getGlue(), importList);
+            // synchronizes the glue with the list of glue instructions
+            synchronizeHeader(fxomDocument.getGlue(), importList);
+        }
     }
 
-    private List<GlueInstruction> getHeaderIncludes(FXOMDocument fxomDocument) {
-        // TODO: When wildcardImport is true, add package name only when no of classes
-        //  which belong to the same package exceed 3
+    /*
+     * Returns the names to be imported by an FXML text containing fxomObject.
+     * Also used to build the header of subtree fragments during refresh.
+     */
+    Set<String> collectImports(FXOMObject fxomObject) {
+        assert fxomObject != null;
 
         // constructs the set of classes to be imported. No duplicates allowed.
         final Set<String> imports = new TreeSet<>(); // Sorted
 
         //gets list of declared classes, declared classes are the ones directly used as a Node.
         //Example: <Button/> ; classname = javafx.scene.control.Button
-        fxomDocument.getFxomRoot().collectDeclaredClasses().forEach(dc -> imports.add(wildcardImports ? dc.getPackageName() + ".*" : dc.getCanonicalName()));
+        fxomObject.collectDeclaredClasses().forEach(dc -> imports.add(wildcardImports ? dc.getPackageName() + ".*" : dc.getCanonicalName()));
 
-        FXOMObject root = fxomDocument.getFxomRoot();
+        imports.addAll(findPropertyClasses(fxomObject.getChildObjects().toArray(FXOMObject[]::new)));
+        imports.addAll(findPropertyClasses(fxomObject));
 
-        imports.addAll(findPropertyClasses(root.getChildObjects().toArray(FXOMObject[]::new)));
-        imports.addAll(findPropertyClasses(root));
-
-        return createGlueInstructionsForImports(fxomDocument, imports);
+        return imports;
     }
 
     private Set<String> findPropertyClasses(FXOMObject... fxomObjects) {
@@ -157,6 +211,29 @@ class FXOMSaver {
         return importsList;
     }
 
+    /*
+     * Returns true if synchronizeHeader() would leave the header unchanged:
+     * import instructions are contiguous and match imports in order.
+     */
+    private boolean isHeaderSynchronized(GlueDocument glue, Set<String> imports) {
+        final List<GlueInstruction> existingImports = glue.collectInstructions("import");
+        boolean result = existingImports.size() == imports.size();
+        if (result && (existingImports.isEmpty() == false)) {
+            final List<GlueAuxiliary> header = glue.getHeader();
+            final int firstImportIndex = header.indexOf(existingImports.get(0));
+            int i = 0;
+            for (String name : imports) {
+                if ((header.get(firstImportIndex + i) != existingImports.get(i))
+                        || (name.equals(existingImports.get(i).getData()) == false)) {
+                    result = false;
+                    break;
+                }
+                i++;
+            }
+        }
+        return result;
+    }
+
     private void synchronizeHeader(GlueDocument glue, List<GlueInstruction> importList) {
         synchronized (this) {
             // find out where the first import instruction is located
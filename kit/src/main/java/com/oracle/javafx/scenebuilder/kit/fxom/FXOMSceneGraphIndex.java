@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Maps the scene graph objects of a document to their FXOM objects.
+ * 
+ * Lookups return the same object as 
+ * {@link FXOMObject#searchWithSceneGraphObject(java.lang.Object)} invoked 
+ * on the document root: when several FXOM objects share a scene graph 
+ * object, the first one in depth-first order wins.
+ * 
+ * The index is updated as scene graph objects are assigned. Objects
+ * inserted in the FXOM tree simply invalidate it: it is then rebuilt at the
+ * next lookup or at the end of the next scene graph refresh. Removed objects
+ * are detected at lookup time.
+ */
+class FXOMSceneGraphIndex {
+    
+    private static boolean consistencyCheckEnabled;
+    
+    private final FXOMDocument document;
+    private final Map<Object, FXOMObject> index = new IdentityHashMap<>();
+    private boolean valid;
+    private boolean duplicates;
+    
+    public FXOMSceneGraphIndex(FXOMDocument document) {
+        assert document != null;
+        this.document = document;
+    }
+    
+    public FXOMObject lookup(Object sceneGraphObject) {
+        if (valid == false) {
+            rebuild();
+        }
+        
+        FXOMObject result = index.get(sceneGraphObject);
+        if ((result != null) && (isIndexable(result, sceneGraphObject) == false)) {
+            // result has been removed from the document or its scene graph
+            // object has been shadowed : index is out of date
+            rebuild();
+            result = index.get(sceneGraphObject);
+        }
+        
+        if (consistencyCheckEnabled) {
+            checkConsistency(sceneGraphObject, result);
+        }
+        
+        return result;
+    }
+    
+    public void sceneGraphObjectDidChange(FXOMObject fxomObject, Object oldSceneGraphObject) {
+        assert fxomObject != null;
+        assert fxomObject.getFxomDocument() == document;
+        
+        if (valid && (oldSceneGraphObject != null) 
+                && (index.get(oldSceneGraphObject) == fxomObject)) {
+            if (duplicates) {
+                // Another object may be shadowed by fxomObject
+                valid = false;
+            } else {
+                index.remove(oldSceneGraphObject);
+            }
+        }
+        
+        final Object newSceneGraphObject = fxomObject.getSceneGraphObject();
+        if (valid && (newSceneGraphObject != null) 
+                && isIndexable(fxomObject, newSceneGraphObject)) {
+            final FXOMObject current = index.get(newSceneGraphObject);
+            if (current == null) {
+                index.put(newSceneGraphObject, fxomObject);
+            } else if (current != fxomObject) {
+                // Depth-first order decides which one wins
+                valid = false;
+            }
+        }
+    }
+    
+    public void invalidate() {
+        valid = false;
+    }
+    
+    public void update() {
+        if (valid == false) {
+            rebuild();
+        }
+    }
+    
+    /*
+     * Consistency check compares each lookup with a plain search of the 
+     * FXOM tree. Reserved to tests: it defeats the purpose of the index.
+     */
+    static void setConsistencyCheckEnabled(boolean enabled) {
+        consistencyCheckEnabled = enabled;
+    }
+    
+    static boolean isConsistencyCheckEnabled() {
+        return consistencyCheckEnabled;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void rebuild() {
+        index.clear();
+        duplicates = false;
+        if (document.getFxomRoot() != null) {
+            addToIndex(document.getFxomRoot());
+        }
+        valid = true;
+    }
+    
+    private void addToIndex(FXOMObject fxomObject) {
+        final Object sceneGraphObject = fxomObject.getSceneGraphObject();
+        if ((sceneGraphObject != null) && isSearchable(fxomObject)) {
+            if (index.putIfAbsent(sceneGraphObject, fxomObject) != null) {
+                duplicates = true;
+            }
+        }
+        for (FXOMObject child : fxomObject.getChildObjects()) {
+            addToIndex(child);
+        }
+    }
+    
+    private boolean isIndexable(FXOMObject fxomObject, Object sceneGraphObject) {
+        final boolean result;
+        
+        if ((fxomObject.getSceneGraphObject() != sceneGraphObject)
+                || (fxomObject.getFxomDocument() != document)
+                || (isSearchable(fxomObject) == false)) {
+            result = false;
+        } else {
+            FXOMObject topObject = fxomObject;
+            while (topObject.getParentObject() != null) {
+                topObject = topObject.getParentObject();
+            }
+            result = (topObject == document.getFxomRoot());
+        }
+        
+        return result;
+    }
+    
+    private void checkConsistency(Object sceneGraphObject, FXOMObject result) {
+        final FXOMObject expected;
+        if (document.getFxomRoot() == null) {
+            expected = null;
+        } else {
+            expected = document.getFxomRoot().searchWithSceneGraphObject(sceneGraphObject);
+        }
+        if (expected != result) {
+            throw new IllegalStateException("Scene graph index is out of date: " //NOI18N
+                    + "sceneGraphObject=" + sceneGraphObject //NOI18N
+                    + " expected=" + expected //NOI18N
+                    + " found=" + result); //NOI18N
+        }
+    }
+    
+    private static boolean isSearchable(FXOMObject fxomObject) {
+        // See FXOMIntrinsic.searchWithSceneGraphObject()
+        return ((fxomObject instanceof FXOMIntrinsic) == false)
+                || (((FXOMIntrinsic) fxomObject).getType() == FXOMIntrinsic.Type.FX_INCLUDE);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javafx.scene.control.Accordion;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TitledPane;
+
+/**
+ * Tracks the FXOM objects whose scene graph object holds transient UI state
+ * (selected tab, expanded pane...) that a scene graph refresh must preserve.
+ * 
+ * Objects are registered as scene graph objects are assigned to them. The
+ * registry is populated by a single walk the first time it is used: 
+ * documents which are never refreshed (eg those loaded by the refresher)
+ * never pay for it. Removed objects are detected when state is captured.
+ * 
+ * Kinds of transient state are described by {@link Handler} instances.
+ * Each registry has its own handlers: see {@link #addHandler(Handler)}.
+ * Like its document, a registry is confined to the thread using the document.
+ */
+class FXOMTransientStateRegistry {
+    
+    private final FXOMDocument document;
+    private final List<Handler> handlers = new ArrayList<>(Arrays.asList(
+            new TabPaneHandler(), new AccordionHandler()));
+    private final Map<FXOMObject, Handler> trackedObjects = new IdentityHashMap<>();
+    private boolean populated;
+    private Set<FXOMObject> changedObjects;
+    
+    public FXOMTransientStateRegistry(FXOMDocument document) {
+        assert document != null;
+        this.document = document;
+    }
+    
+    /*
+     * Registers an additional kind of transient state. Objects already
+     * tracked are walked again at next capture.
+     */
+    public void addHandler(Handler handler) {
+        assert handler != null;
+        assert handlers.contains(handler) == false;
+        handlers.add(handler);
+        if (populated) {
+            trackedObjects.clear();
+            populated = false;
+        }
+    }
+    
+    public void sceneGraphObjectDidChange(FXOMObject fxomObject) {
+        assert fxomObject != null;
+        assert fxomObject.getFxomDocument() == document;
+        
+        if (populated) {
+            final Handler handler = findHandler(fxomObject.getSceneGraphObject());
+            if (handler == null) {
+                trackedObjects.remove(fxomObject);
+            } else {
+                trackedObjects.put(fxomObject, handler);
+            }
+        }
+        if (changedObjects != null) {
+            changedObjects.add(fxomObject);
+            // State of a container usually refers to its children
+            final FXOMObject parentObject = fxomObject.getParentObject();
+            if (parentObject != null) {
+                changedObjects.add(parentObject);
+            }
+        }
+    }
+    
+    /*
+     * Captures the state of all the tracked objects and starts recording
+     * the objects whose scene graph object changes.
+     */
+    public Map<FXOMObject, Object> capture() {
+        if (populated == false) {
+            populate();
+        }
+        
+        final Map<FXOMObject, Object> result = new IdentityHashMap<>();
+        final Iterator<Map.Entry<FXOMObject, Handler>> it = trackedObjects.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<FXOMObject, Handler> e = it.next();
+            final FXOMObject fxomObject = e.getKey();
+            if (isAttached(fxomObject)) {
+                final Object state = e.getValue().capture(fxomObject);
+                if (state != null) {
+                    result.put(fxomObject, state);
+                }
+            } else {
+                it.remove();
+            }
+        }
+        
+        changedObjects = new HashSet<>();
+        return result;
+    }
+    
+    /*
+     * Stops recording and restores the state of the objects whose scene 
+     * graph object did change since capture() and of the specified 
+     * additional objects.
+     */
+    public void restore(Map<FXOMObject, Object> states, Collection<? extends FXOMObject> updatedObjects) {
+        assert states != null;
+        assert updatedObjects != null;
+        assert changedObjects != null;
+        
+        final Set<FXOMObject> candidates = changedObjects;
+        changedObjects = null;
+        candidates.addAll(updatedObjects);
+        
+        for (FXOMObject fxomObject : candidates) {
+            final Object state = states.get(fxomObject);
+            final Handler handler = trackedObjects.get(fxomObject);
+            if ((state != null) && (handler != null)) {
+                handler.restore(fxomObject, state);
+            }
+        }
+    }
+    
+    /*
+     * Stops recording without restoring anything.
+     */
+    public void cancel() {
+        changedObjects = null;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void populate() {
+        assert trackedObjects.isEmpty();
+        
+        final List<FXOMObject> candidates = new ArrayList<>();
+        if (document.getFxomRoot() != null) {
+            candidates.add(document.getFxomRoot());
+        }
+        while (candidates.isEmpty() == false) {
+            final FXOMObject candidate = candidates.remove(candidates.size()-1);
+            final Handler handler = findHandler(candidate.getSceneGraphObject());
+            if (handler != null) {
+                trackedObjects.put(candidate, handler);
+            }
+            candidates.addAll(candidate.getChildObjects());
+        }
+        populated = true;
+    }
+    
+    private boolean isAttached(FXOMObject fxomObject) {
+        FXOMObject topObject = fxomObject;
+        while (topObject.getParentObject() != null) {
+            topObject = topObject.getParentObject();
+        }
+        return (fxomObject.getFxomDocument() == document) 
+                && (topObject == document.getFxomRoot());
+    }
+    
+    private Handler findHandler(Object sceneGraphObject) {
+        Handler result = null;
+        if (sceneGraphObject != null) {
+            for (Handler h : handlers) {
+                if (h.accepts(sceneGraphObject)) {
+                    result = h;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static FXOMObject findChildObject(FXOMObject parentObject, Object sceneGraphObject) {
+        FXOMObject result = null;
+        for (FXOMObject child : parentObject.getChildObjects()) {
+            if (child.getSceneGraphObject() == sceneGraphObject) {
+                result = child;
+                break;
+            }
+        }
+        return result;
+    }
+    
+    
+    /*
+     * Handler
+     */
+    
+    static abstract class Handler {
+        
+        public abstract boolean accepts(Object sceneGraphObject);
+        
+        /* Returns null if fxomObject has no state to be preserved */
+        public abstract Object capture(FXOMObject fxomObject);
+        
+        public abstract void restore(FXOMObject fxomObject, Object state);
+    }
+    
+    private static class TabPaneHandler extends Handler {
+        
+        @Override
+        public boolean accepts(Object sceneGraphObject) {
+            return sceneGraphObject instanceof TabPane;
+        }
+        
+        @Override
+        public Object capture(FXOMObject fxomObject) {
+            final TabPane tabPane = (TabPane) fxomObject.getSceneGraphObject();
+            final Tab currentTab = tabPane.getSelectionModel().getSelectedItem();
+            return (currentTab == null) ? null : findChildObject(fxomObject, currentTab);
+        }
+        
+        @Override
+        public void restore(FXOMObject fxomObject, Object state) {
+            final TabPane tabPane = (TabPane) fxomObject.getSceneGraphObject();
+            final FXOMObject tabObject = (FXOMObject) state;
+            if (tabObject.getParentObject() == fxomObject) {
+                assert tabObject.getSceneGraphObject() instanceof Tab;
+                final Tab tab = (Tab) tabObject.getSceneGraphObject();
+                assert tabPane.getTabs().contains(tab);
+                tabPane.getSelectionModel().select(tab);
+            }
+        }
+    }
+    
+    private static class AccordionHandler extends Handler {
+        
+        @Override
+        public boolean accepts(Object sceneGraphObject) {
+            return sceneGraphObject instanceof Accordion;
+        }
+        
+        @Override
+        public Object capture(FXOMObject fxomObject) {
+            final Accordion accordion = (Accordion) fxomObject.getSceneGraphObject();
+            final TitledPane currentTitledPane = accordion.getExpandedPane();
+            return (currentTitledPane == null) ? null : findChildObject(fxomObject, currentTitledPane);
+        }
+        
+        @Override
+        public void restore(FXOMObject fxomObject, Object state) {
+            final Accordion accordion = (Accordion) fxomObject.getSceneGraphObject();
+            final FXOMObject titledPaneObject = (FXOMObject) state;
+            if (titledPaneObject.getParentObject() == fxomObject) {
+                assert titledPaneObject.getSceneGraphObject() instanceof TitledPane;
+                final TitledPane titledPane = (TitledPane) titledPaneObject.getSceneGraphObject();
+                assert accordion.getPanes().contains(titledPane);
+                accordion.setExpandedPane(titledPane);
+            }
+        }
+    }
+}
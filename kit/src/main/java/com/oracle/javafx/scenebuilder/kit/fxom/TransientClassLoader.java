@@ -34,6 +34,9 @@ package com.oracle.javafx.scenebuilder.kit.fxom;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class loader delegates all its tasks to its parent class loader but
@@ -46,19 +49,92 @@ import java.net.URL;
  * This class loader is instantiated by FXOMLoader and passed to FXMLLoader.
  * It avoids FXMLLoader to break and interrupt loading when a classpath relative
  * URL is unresolved.
+ * 
+ * Class and resource lookups are memoized (including failing ones: FXMLLoader
+ * probes every wildcard import for each tag). Instances are shared by all the
+ * loads performed with the same parent class loader: see getClassLoader().
  */
 class TransientClassLoader extends ClassLoader {
     
+    /* Parent class loaders are few: library and default ones */
+    private static final int MAX_SHARED_COUNT = 4;
+    private static final Map<ClassLoader, TransientClassLoader> sharedLoaders
+            = new LinkedHashMap<ClassLoader, TransientClassLoader>(MAX_SHARED_COUNT, 0.75f, true /* access order */) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ClassLoader, TransientClassLoader> eldest) {
+                    return size() > MAX_SHARED_COUNT;
+                }
+            };
+    
+    /* Marks names which parent class loader failed to resolve */
+    private static final Object CLASS_NOT_FOUND = new Object();
+    
+    static {
+        // Documents may be loaded concurrently (see FXOMDocumentLoadTask)
+        registerAsParallelCapable();
+    }
+    
+    private final Map<String, Object> classes = new ConcurrentHashMap<>();
+    private final Map<String, URL> resources = new ConcurrentHashMap<>();
+    
     public TransientClassLoader(ClassLoader parentClassLoader) {
         super(parentClassLoader);
     }
     
+    /*
+     * Returns the transient class loader shared by the loads delegating 
+     * to parentClassLoader.
+     */
+    public static synchronized TransientClassLoader getClassLoader(ClassLoader parentClassLoader) {
+        assert parentClassLoader != null;
+        return sharedLoaders.computeIfAbsent(parentClassLoader, TransientClassLoader::new);
+    }
+    
+    /*
+     * Discards all the memoized lookups. Invoked when a library class loader
+     * has been replaced: stale loaders must not be kept reachable.
+     */
+    public static synchronized void clearSharedClassLoaders() {
+        sharedLoaders.clear();
+    }
+    
     /*
      * ClassLoader
      */
     
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        final Class<?> result;
+        final Object cached = classes.get(name);
+        
+        if (cached == CLASS_NOT_FOUND) {
+            throw new ClassNotFoundException(name);
+        } else if (cached != null) {
+            result = (Class<?>) cached;
+        } else {
+            try {
+                result = super.loadClass(name, resolve);
+            } catch(ClassNotFoundException x) {
+                classes.put(name, CLASS_NOT_FOUND);
+                throw x;
+            }
+            classes.put(name, result);
+        }
+        
+        return result;
+    }
+    
     @Override
     public URL getResource(String name) {
+        return resources.computeIfAbsent(name, this::resolveResource);
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private URL resolveResource(String name) {
         URL  result = super.getResource(name);
         if (result == null) {
             try {
@@ -32,97 +32,39 @@
 
 package com.oracle.javafx.scenebuilder.kit.fxom;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import javafx.scene.control.Accordion;
-import javafx.scene.control.Tab;
-import javafx.scene.control.TabPane;
-import javafx.scene.control.TitledPane;
 
 /**
- *
+ * Preserves the transient state of a document (selected tab, expanded 
+ * pane...) across a scene graph refresh.
+ * 
+ * Only the objects tracked by {@link FXOMTransientStateRegistry} are 
+ * captured. Only the ones whose scene graph object changed during the 
+ * refresh (or whose properties were updated) are restored.
  */
 class TransientStateBackup {
     
-    private final FXOMDocument fxomDocument;
-    private final Map<FXOMObject, FXOMObject> tabPaneMap = new HashMap<>();
-    private final Map<FXOMObject, FXOMObject> accordionMap = new HashMap<>();
+    private final FXOMTransientStateRegistry registry;
+    private final Map<FXOMObject, Object> states;
 
     public TransientStateBackup(FXOMDocument fxomDocument) {
         assert fxomDocument != null;
         
-        this.fxomDocument = fxomDocument;
-        
-        final List<FXOMObject> candidates = new ArrayList<>();
-        if (this.fxomDocument.getFxomRoot() != null) {
-            candidates.add(this.fxomDocument.getFxomRoot());
-        }
-        
-        while (candidates.isEmpty() == false) {
-            final FXOMObject candidate = candidates.get(0);
-            candidates.remove(0);
-            
-            final Object sceneGraphObject = candidate.getSceneGraphObject();
-            if (sceneGraphObject instanceof TabPane) {
-                final TabPane tabPane = (TabPane) sceneGraphObject;
-                final Tab currentTab = tabPane.getSelectionModel().getSelectedItem();
-                if (currentTab != null) {
-                    final FXOMObject tabObject 
-                            = candidate.searchWithSceneGraphObject(currentTab);
-                    if (tabObject != null) {
-                        tabPaneMap.put(candidate, tabObject);
-                    }
-                }
-            } else if (sceneGraphObject instanceof Accordion) {
-                final Accordion accordion  = (Accordion) sceneGraphObject;
-                final TitledPane currentTitledPane = accordion.getExpandedPane();
-                if (currentTitledPane != null) {
-                    final FXOMObject titledPaneObject
-                            = candidate.searchWithSceneGraphObject(currentTitledPane);
-                    if (titledPaneObject != null) {
-                        accordionMap.put(candidate, titledPaneObject);
-                    }
-                }
-            }
-            
-            candidates.addAll(candidate.getChildObjects());
-        }
+        this.registry = fxomDocument.getTransientStateRegistry();
+        this.states = registry.capture();
     }
     
     public void restore() {
-        final List<FXOMObject> candidates = new ArrayList<>();
-        if (this.fxomDocument.getFxomRoot() != null) {
-            candidates.add(this.fxomDocument.getFxomRoot());
-        }
-        
-        while (candidates.isEmpty() == false) {
-            final FXOMObject candidate = candidates.get(0);
-            candidates.remove(0);
-            
-            final Object sceneGraphObject = candidate.getSceneGraphObject();
-            if (sceneGraphObject instanceof TabPane) {
-                final TabPane tabPane = (TabPane) sceneGraphObject;
-                final FXOMObject tabObject = tabPaneMap.get(candidate);
-                if ((tabObject != null) && (tabObject.getParentObject() == candidate)) {
-                    assert tabObject.getSceneGraphObject() instanceof Tab;
-                    final Tab tab = (Tab) tabObject.getSceneGraphObject();
-                    assert tabPane.getTabs().contains(tab);
-                    tabPane.getSelectionModel().select(tab);
-                }
-            } else if (sceneGraphObject instanceof Accordion) {
-                final Accordion accordion  = (Accordion) sceneGraphObject;
-                final FXOMObject titlePaneObject = accordionMap.get(candidate);
-                if ((titlePaneObject != null) && (titlePaneObject.getParentObject() == candidate)) {
-                    assert titlePaneObject.getSceneGraphObject() instanceof TitledPane;
-                    final TitledPane titledPane = (TitledPane) titlePaneObject.getSceneGraphObject();
-                    assert accordion.getPanes().contains(titledPane);
-                    accordion.setExpandedPane(titledPane);
-                }
-            }
-            
-            candidates.addAll(candidate.getChildObjects());
-        }
+        restore(Collections.emptySet());
+    }
+    
+    public void restore(Collection<? extends FXOMObject> updatedObjects) {
+        registry.restore(states, updatedObjects);
+    }
+    
+    public void cancel() {
+        registry.cancel();
     }
 }
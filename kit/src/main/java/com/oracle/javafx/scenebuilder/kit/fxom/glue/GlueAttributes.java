@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom.glue;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Attribute map of a glue element.
+ * 
+ * Elements have a handful of attributes: keys and values are stored in a 
+ * single array and lookups are linear. Nothing is allocated until the first
+ * attribute is added. Attribute names are interned: they are shared by all 
+ * the elements of all the documents.
+ */
+class GlueAttributes extends AbstractMap<String, String> {
+    
+    private static final String[] EMPTY = new String[0];
+    
+    // key0, value0, key1, value1...
+    private String[] slots = EMPTY;
+    private int size;
+    private int modCount;
+    private Set<Map.Entry<String, String>> entrySet;
+    
+    /*
+     * Map
+     */
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) != -1;
+    }
+    
+    @Override
+    public String get(Object key) {
+        final int i = indexOf(key);
+        return (i == -1) ? null : slots[i+1];
+    }
+    
+    @Override
+    public String put(String key, String value) {
+        assert key != null;
+        
+        final int i = indexOf(key);
+        final String result;
+        if (i == -1) {
+            if (slots.length == size * 2) {
+                slots = Arrays.copyOf(slots, Math.max(4, slots.length * 2));
+            }
+            slots[size * 2] = key.intern();
+            slots[size * 2 + 1] = value;
+            size++;
+            modCount++;
+            result = null;
+        } else {
+            result = slots[i+1];
+            slots[i+1] = value;
+        }
+        
+        return result;
+    }
+    
+    @Override
+    public String remove(Object key) {
+        final int i = indexOf(key);
+        final String result;
+        if (i == -1) {
+            result = null;
+        } else {
+            result = slots[i+1];
+            removeAt(i);
+        }
+        return result;
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(slots, 0, size * 2, null);
+        size = 0;
+        modCount++;
+    }
+    
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private int indexOf(Object key) {
+        int result = -1;
+        if (key != null) {
+            for (int i = 0, end = size * 2; i < end; i += 2) {
+                // Keys are interned : identity matches first
+                if ((slots[i] == key) || slots[i].equals(key)) {
+                    result = i;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private void removeAt(int i) {
+        final int end = size * 2;
+        System.arraycopy(slots, i+2, slots, i, end - i - 2);
+        slots[end - 2] = null;
+        slots[end - 1] = null;
+        size--;
+        modCount++;
+    }
+    
+    private class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+        
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public void clear() {
+            GlueAttributes.this.clear();
+        }
+    }
+    
+    private class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        
+        private int next; // slot index of next entry
+        private int last = -1;
+        private int expectedModCount = modCount;
+        
+        @Override
+        public boolean hasNext() {
+            return next < size * 2;
+        }
+        
+        @Override
+        public Map.Entry<String, String> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (hasNext() == false) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next += 2;
+            return new AttributeEntry(last);
+        }
+        
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+    
+    private class AttributeEntry implements Map.Entry<String, String> {
+        
+        private final String key;
+        
+        AttributeEntry(int i) {
+            this.key = slots[i];
+        }
+        
+        @Override
+        public String getKey() {
+            return key;
+        }
+        
+        @Override
+        public String getValue() {
+            return get(key);
+        }
+        
+        @Override
+        public String setValue(String value) {
+            final int i = indexOf(key);
+            if (i == -1) {
+                throw new IllegalStateException();
+            }
+            final String result = slots[i+1];
+            slots[i+1] = value;
+            return result;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            final boolean result;
+            if (o instanceof Map.Entry) {
+                final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                result = key.equals(e.getKey()) 
+                        && Objects.equals(getValue(), e.getValue());
+            } else {
+                result = false;
+            }
+            return result;
+        }
+        
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+        
+        @Override
+        public String toString() {
+            return key + "=" + getValue(); //NOI18N
+        }
+    }
+}
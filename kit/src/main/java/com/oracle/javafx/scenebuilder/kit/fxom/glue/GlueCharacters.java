@@ -42,6 +42,8 @@ public class GlueCharacters extends GlueAuxiliary {
         COMMENT
     }
     
+    private static final int MAX_SHARED_LENGTH = 64;
+    
     private final Type type;
     private String data;
     
@@ -63,6 +65,20 @@ public class GlueCharacters extends GlueAuxiliary {
         this.data = data;
     }
     
+    /*
+     * Returns a shared instance of data when data is a short white space 
+     * string: indentation strings are repeated all over a document.
+     */
+    static String shareBlank(String data) {
+        final String result;
+        if ((data.length() <= MAX_SHARED_LENGTH) && data.isBlank()) {
+            result = data.intern();
+        } else {
+            result = data;
+        }
+        return result;
+    }
+    
     public void adjustIndentBy(int delta) {
         /*
          * data
@@ -104,7 +120,7 @@ public class GlueCharacters extends GlueAuxiliary {
             }
         }
         
-        data = newValue.toString();
+        data = shareBlank(newValue.toString());
     }
     
     public int guessIndent() {
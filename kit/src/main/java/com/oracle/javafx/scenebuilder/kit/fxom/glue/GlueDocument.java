@@ -31,9 +31,15 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom.glue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  *
@@ -48,10 +54,24 @@ public class GlueDocument extends GlueNode {
     }
     
     public GlueDocument(String xmlText) throws IOException {
-        assert xmlText != null;
-        if (isEmptyXmlText(xmlText) == false) {
+        this(xmlText.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Creates a glue document from a UTF-8 encoded xml text.
+     * Callers which also pass the text to another parser can encode it once
+     * and share the bytes.
+     * 
+     * @param xmlBytes UTF-8 encoded xml text (never null)
+     * @throws IOException if xml text cannot be parsed
+     */
+    public GlueDocument(byte[] xmlBytes) throws IOException {
+        assert xmlBytes != null;
+        if (isEmptyXmlBytes(xmlBytes) == false) {
             final GlueLoader loader = new GlueLoader(this);
-            loader.load(xmlText);
+            try (final InputStream is = new ByteArrayInputStream(xmlBytes)) {
+                loader.load(is);
+            }
             adjustRootElementIndentation();
         }
     }
@@ -99,11 +119,123 @@ public class GlueDocument extends GlueNode {
         return result;
     }
     
+    /**
+     * Returns a standalone FXML text whose root is the specified element of
+     * this document. Header of the returned text contains one import 
+     * instruction per entry in imports.
+     * 
+     * @param element an element of this document (never null)
+     * @param imports names to be imported in the fragment (never null)
+     * @return an FXML text.
+     */
+    public String makeFragmentText(GlueElement element, Collection<String> imports) {
+        assert element != null;
+        assert element.getDocument() == this;
+        assert imports != null;
+        
+        final GlueSerializer serializer = new GlueSerializer(element, makeImports(this, imports));
+        return serializer.toString();
+    }
+    
+    /**
+     * Returns a new glue document with the same structure as the one 
+     * obtained by parsing toString(). Use this to load the text of this 
+     * document without parsing it with SAX.
+     * Auxiliaries outside of elements are not preserved.
+     * 
+     * @return a new glue document.
+     */
+    public GlueDocument makeCopy() {
+        return makeCopy(Collections.emptySet());
+    }
+    
+    /**
+     * Same as makeCopy() but the specified elements (and their descendants)
+     * are left out of the copy. The returned document then matches the text
+     * obtained by serializing it, not toString().
+     * 
+     * @param excludedElements elements of this document (never null)
+     * @return a new glue document.
+     */
+    public GlueDocument makeCopy(Set<GlueElement> excludedElements) {
+        assert excludedElements != null;
+        
+        final GlueDocument result = new GlueDocument();
+        
+        for (GlueAuxiliary auxiliary : header) {
+            if (isText(auxiliary) == false) {
+                // SAX does not report white spaces outside of root element
+                result.header.add(copyAuxiliary(auxiliary, result));
+            }
+        }
+        if (rootElement != null) {
+            copyElement(rootElement, result, null, 0, excludedElements);
+            result.adjustRootElementIndentation();
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns a new glue document with the same structure as the one obtained
+     * by parsing makeFragmentText(element, imports).
+     * 
+     * @param element an element of this document (never null)
+     * @param imports names to be imported in the fragment (never null)
+     * @return a new glue document.
+     */
+    public GlueDocument makeFragmentCopy(GlueElement element, Collection<String> imports) {
+        assert element != null;
+        assert element.getDocument() == this;
+        assert imports != null;
+        assert element.isSynthetic() == false;
+        
+        final GlueDocument result = new GlueDocument();
+        result.header.addAll(makeImports(result, imports));
+        copyElement(element, result, null, 0, Collections.emptySet());
+        result.rootElement.getAttributes().putIfAbsent(
+                GlueSerializer.NAME_SPACE_FXML_ATTR, GlueSerializer.NAME_SPACE_FXML);
+        result.adjustRootElementIndentation();
+        
+        return result;
+    }
+    
     public static boolean isEmptyXmlText(String xmlText) {
         assert xmlText != null;
         return xmlText.trim().isEmpty();
     }
     
+    /*
+     * Equivalent to isEmptyXmlText() for UTF-8 encoded text: characters 
+     * removed by String.trim() are encoded as single bytes.
+     */
+    public static boolean isEmptyXmlBytes(byte[] xmlBytes) {
+        assert xmlBytes != null;
+        boolean result = true;
+        for (byte b : xmlBytes) {
+            if ((b & 0xFF) > ' ') {
+                result = false;
+                break;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the xml text of this document to the specified output.
+     * Writes nothing if this document is empty: same as toString().
+     * 
+     * @param output an output (never null)
+     * @throws IOException if output fails
+     */
+    public void writeTo(Appendable output) throws IOException {
+        assert output != null;
+        if (rootElement != null) {
+            final GlueSerializer serializer = new GlueSerializer(this);
+            serializer.serialize(output);
+        }
+    }
+    
     /*
      * Object
      */
@@ -149,4 +281,74 @@ public class GlueDocument extends GlueNode {
             }
         }
     }
+    
+    private static List<GlueAuxiliary> makeImports(GlueDocument document, Collection<String> imports) {
+        final List<GlueAuxiliary> result = new ArrayList<>();
+        for (String i : imports) {
+            result.add(new GlueInstruction(document, "import", i)); //NOI18N
+        }
+        return result;
+    }
+    
+    /*
+     * Mirrors GlueSerializer + GlueLoader: synthetic elements are replaced
+     * by their children and content of an element with children is dropped.
+     */
+    private static void copyElement(GlueElement source, GlueDocument target, 
+            GlueElement targetParent, int depth, Set<GlueElement> excludedElements) {
+        final List<GlueElement> children;
+        if (excludedElements.isEmpty()) {
+            children = source.getChildren();
+        } else {
+            children = new ArrayList<>(source.getChildren());
+            children.removeAll(excludedElements);
+        }
+        if (source.isSynthetic()) {
+            for (GlueElement child : children) {
+                copyElement(child, target, targetParent, depth, excludedElements);
+            }
+        } else {
+            final GlueElement copy = new GlueElement(target, source.getTagName(), depth, false /* preset */);
+            copy.getAttributes().putAll(source.getAttributes());
+            if (targetParent == null) {
+                // Characters in front of root element are outside of it
+                target.setRootElement(copy);
+            } else {
+                copyAuxiliaries(source.getFront(), copy.getFront(), target);
+                copy.addToParent(targetParent);
+            }
+            if (source.getChildren().isEmpty()) {
+                copyAuxiliaries(source.getContent(), copy.getContent(), target);
+            } else if (children.isEmpty() == false) {
+                for (GlueElement child : children) {
+                    copyElement(child, target, copy, depth+1, excludedElements);
+                }
+                copyAuxiliaries(source.getTail(), copy.getTail(), target);
+            }
+        }
+    }
+    
+    private static void copyAuxiliaries(List<GlueAuxiliary> source, List<GlueAuxiliary> target, GlueDocument targetDocument) {
+        for (GlueAuxiliary auxiliary : source) {
+            target.add(copyAuxiliary(auxiliary, targetDocument));
+        }
+    }
+    
+    private static GlueAuxiliary copyAuxiliary(GlueAuxiliary auxiliary, GlueDocument targetDocument) {
+        final GlueAuxiliary result;
+        if (auxiliary instanceof GlueCharacters) {
+            final GlueCharacters characters = (GlueCharacters) auxiliary;
+            result = new GlueCharacters(targetDocument, characters.getType(), characters.getData());
+        } else {
+            assert auxiliary instanceof GlueInstruction;
+            final GlueInstruction instruction = (GlueInstruction) auxiliary;
+            result = new GlueInstruction(targetDocument, instruction.getTarget(), instruction.getData());
+        }
+        return result;
+    }
+    
+    private static boolean isText(GlueAuxiliary auxiliary) {
+        return (auxiliary instanceof GlueCharacters)
+                && (((GlueCharacters) auxiliary).getType() == GlueCharacters.Type.TEXT);
+    }
 }
@@ -32,9 +32,9 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom.glue;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -48,15 +48,17 @@ public class GlueElement extends GlueNode {
     private final static int INDENT_STEP = 3;
     
     private GlueDocument document;
-    // The XML tag name. Example: "Image"
+    // The XML tag name (interned). Example: "Image"
     private String tagName;
-    // The child elements of this XML tag
-    private final List<GlueElement> children = new ArrayList<>();
+    // The child elements of this XML tag (null until first child is added)
+    private List<GlueElement> children;
     // Attributes of this tag. Example: key: "url" value: "file:/C:/Users/pedro/Documents/test.jpg"
-    private final Map<String, String> attributes = new HashMap<>();
-    private final List<GlueAuxiliary> front = new ArrayList<>();
-    private final List<GlueAuxiliary> tail = new ArrayList<>();
-    private final List<GlueAuxiliary> content = new ArrayList<>();
+    private final Map<String, String> attributes = new GlueAttributes();
+    // Auxiliaries of this tag (null until first auxiliary is added):
+    // most elements have an indentation front and tail but no content
+    private List<GlueAuxiliary> front;
+    private List<GlueAuxiliary> tail;
+    private List<GlueAuxiliary> content;
     private int indentDepth;
     private boolean synthetic;
     
@@ -71,11 +73,11 @@ public class GlueElement extends GlueNode {
         assert tagName != null;
         
         this.document = document;
-        this.tagName = tagName;
+        this.tagName = tagName.intern();
         this.indentDepth = indentDepth;
         if (preset) {
-            front.add(new GlueCharacters(document, GlueCharacters.Type.TEXT, "\n")); //NOI18N
-            tail.add(new GlueCharacters(document, GlueCharacters.Type.TEXT, "\n")); //NOI18N
+            getFront().add(new GlueCharacters(document, GlueCharacters.Type.TEXT, "\n")); //NOI18N
+            getTail().add(new GlueCharacters(document, GlueCharacters.Type.TEXT, "\n")); //NOI18N
         }
     }
 
@@ -84,8 +86,8 @@ public class GlueElement extends GlueNode {
         
         final int templateIndent = template.guessIndent();
         if (templateIndent != -1) {
-            front.add(makeIndentCharacters(templateIndent));
-            tail.add(makeIndentCharacters(templateIndent));
+            getFront().add(makeIndentCharacters(templateIndent));
+            getTail().add(makeIndentCharacters(templateIndent));
         }
     }
 
@@ -104,11 +106,17 @@ public class GlueElement extends GlueNode {
     public void setTagName(String tagName) {
         assert tagName != null;
         assert tagName.isEmpty() == false;
-        this.tagName = tagName;
+        this.tagName = tagName.intern();
     }
 
     public List<GlueElement> getChildren() {
-        return Collections.unmodifiableList(children);
+        final List<GlueElement> result;
+        if (children == null) {
+            result = Collections.emptyList();
+        } else {
+            result = Collections.unmodifiableList(children);
+        }
+        return result;
     }
     
     public void addToParent(GlueElement newParent) {
@@ -120,7 +128,7 @@ public class GlueElement extends GlueNode {
         assert newParent != parent;
         assert newParent.getDocument() == document;
         assert -1 <= index;
-        assert index <= newParent.children.size();
+        assert index <= newParent.getChildren().size();
         
         if (parent != null) {
             this.removeFromParent();
@@ -128,6 +136,9 @@ public class GlueElement extends GlueNode {
             document.setRootElement(null);
         }
         
+        if (newParent.children == null) {
+            newParent.children = new ArrayList<>(2);
+        }
         if (index == -1) {
             index = newParent.children.size();
         }
@@ -150,7 +161,7 @@ public class GlueElement extends GlueNode {
     
     public void removeFromParent() {
         assert parent != null;
-        assert parent.children.contains(this);
+        assert parent.getChildren().contains(this);
         
         parent.children.remove(this);
         parent = null;
@@ -161,15 +172,15 @@ public class GlueElement extends GlueNode {
     }
 
     public List<GlueAuxiliary> getFront() {
-        return front;
+        return (front != null) ? front : new AuxiliaryList(AuxiliaryList.FRONT);
     }
 
     public List<GlueAuxiliary> getTail() {
-        return tail;
+        return (tail != null) ? tail : new AuxiliaryList(AuxiliaryList.TAIL);
     }
 
     public List<GlueAuxiliary> getContent() {
-        return content;
+        return (content != null) ? content : new AuxiliaryList(AuxiliaryList.CONTENT);
     }
 
     public int getDepth() {
@@ -187,8 +198,8 @@ public class GlueElement extends GlueNode {
     public void updateIndent(int depth) {
         if (indentDepth != depth) {
             final int indentDelta = (depth - indentDepth) * INDENT_STEP;
-            if (front.isEmpty()) {
-                front.add(makeIndentCharacters(depth * INDENT_STEP));
+            if (getFront().isEmpty()) {
+                getFront().add(makeIndentCharacters(depth * INDENT_STEP));
             } else {
                 for (GlueAuxiliary auxiliary : front) {
                     if (auxiliary instanceof GlueCharacters) {
@@ -198,8 +209,8 @@ public class GlueElement extends GlueNode {
                 }
             }
             
-            if (tail.isEmpty()) {
-                tail.add(makeIndentCharacters(depth * INDENT_STEP));
+            if (getTail().isEmpty()) {
+                getTail().add(makeIndentCharacters(depth * INDENT_STEP));
             } else {
                 for (GlueAuxiliary auxiliary : tail) {
                     if (auxiliary instanceof GlueCharacters) {
@@ -212,7 +223,7 @@ public class GlueElement extends GlueNode {
         }
         
         final int nextDepth = synthetic ? depth : depth+1;
-        for (GlueElement child : children) {
+        for (GlueElement child : getChildren()) {
             child.updateIndent(nextDepth);
         }
     }
@@ -244,7 +255,7 @@ public class GlueElement extends GlueNode {
             } else {
                 if (contentHolder == null) {
                     contentHolder = new GlueCharacters(document, GlueCharacters.Type.TEXT, text);
-                    content.add(contentHolder);
+                    getContent().add(contentHolder);
                 } else {
                     contentHolder.setData(text);
                 }
@@ -272,7 +283,7 @@ public class GlueElement extends GlueNode {
         
         document = targetDocument;
         
-        for (GlueElement child : children) {
+        for (GlueElement child : getChildren()) {
             child.moveToDocument(targetDocument);
         }
         
@@ -299,7 +310,7 @@ public class GlueElement extends GlueNode {
         if (parent == null) {
             result = null;
         } else {
-            int index = parent.children.indexOf(this);
+            int index = parent.getChildren().indexOf(this);
             assert index != -1;
             if (index+1 < parent.children.size()) {
                 result = parent.children.get(index+1);
@@ -352,9 +363,10 @@ public class GlueElement extends GlueNode {
          *      "World !"                       -> GlueCharacters (HOLDER) //NOI18N
          */
         
+        final List<GlueAuxiliary> auxiliaries = getContent();
         GlueCharacters result = null;
-        for (int i = content.size()-1; (i >= 0) && (result == null); i--) {
-            final GlueAuxiliary auxiliary = content.get(i);
+        for (int i = auxiliaries.size()-1; (i >= 0) && (result == null); i--) {
+            final GlueAuxiliary auxiliary = auxiliaries.get(i);
             if (auxiliary instanceof GlueCharacters) {
                 final GlueCharacters c = (GlueCharacters) auxiliary;
                 if (c.getType() == GlueCharacters.Type.TEXT) {
@@ -370,7 +382,7 @@ public class GlueElement extends GlueNode {
     private int guessIndent() {
         final int result;
         
-        if (front.isEmpty()) {
+        if ((front == null) || front.isEmpty()) {
             result = -1;
         } else if (front.get(0) instanceof GlueCharacters) {
             final GlueCharacters characters = (GlueCharacters) front.get(0);
@@ -389,6 +401,102 @@ public class GlueElement extends GlueNode {
             sb.append(' ');
         }
         
-        return new GlueCharacters(getDocument(), GlueCharacters.Type.TEXT, sb.toString());
+        final String data = GlueCharacters.shareBlank(sb.toString());
+        return new GlueCharacters(getDocument(), GlueCharacters.Type.TEXT, data);
+    }
+    
+    /*
+     * Live view on front, tail or content: the backing list is allocated
+     * when the first auxiliary is added. Later calls to getFront(), getTail()
+     * or getContent() return the backing list itself.
+     */
+    private class AuxiliaryList extends AbstractList<GlueAuxiliary> {
+        
+        static final int FRONT = 0;
+        static final int TAIL = 1;
+        static final int CONTENT = 2;
+        
+        private final int which;
+        
+        AuxiliaryList(int which) {
+            this.which = which;
+        }
+        
+        @Override
+        public GlueAuxiliary get(int index) {
+            final List<GlueAuxiliary> list = getList();
+            if (list == null) {
+                throw new IndexOutOfBoundsException("index=" + index); //NOI18N
+            }
+            return list.get(index);
+        }
+        
+        @Override
+        public int size() {
+            final List<GlueAuxiliary> list = getList();
+            return (list == null) ? 0 : list.size();
+        }
+        
+        @Override
+        public GlueAuxiliary set(int index, GlueAuxiliary element) {
+            final List<GlueAuxiliary> list = getList();
+            if (list == null) {
+                throw new IndexOutOfBoundsException("index=" + index); //NOI18N
+            }
+            return list.set(index, element);
+        }
+        
+        @Override
+        public void add(int index, GlueAuxiliary element) {
+            makeList().add(index, element);
+            modCount++;
+        }
+        
+        @Override
+        public GlueAuxiliary remove(int index) {
+            final List<GlueAuxiliary> list = getList();
+            if (list == null) {
+                throw new IndexOutOfBoundsException("index=" + index); //NOI18N
+            }
+            modCount++;
+            return list.remove(index);
+        }
+        
+        private List<GlueAuxiliary> getList() {
+            final List<GlueAuxiliary> result;
+            switch (which) {
+                case FRONT:
+                    result = front;
+                    break;
+                case TAIL:
+                    result = tail;
+                    break;
+                default:
+                    assert which == CONTENT;
+                    result = content;
+                    break;
+            }
+            return result;
+        }
+        
+        private List<GlueAuxiliary> makeList() {
+            List<GlueAuxiliary> result = getList();
+            if (result == null) {
+                result = new ArrayList<>(1);
+                switch (which) {
+                    case FRONT:
+                        front = result;
+                        break;
+                    case TAIL:
+                        tail = result;
+                        break;
+                    default:
+                        assert which == CONTENT;
+                        content = result;
+                        break;
+                }
+            }
+            return result;
+        }
     }
 }
@@ -187,7 +187,7 @@ class GlueLoader implements ContentHandler, ErrorHandler, LexicalHandler {
 
     @Override
     public void characters(char[] ch, int start, int length) throws SAXException {
-        final String data = new String(ch, start, length);
+        final String data = GlueCharacters.shareBlank(new String(ch, start, length));
         final GlueAuxiliary auxiliary = new GlueCharacters(document, GlueCharacters.Type.TEXT, data);
         
         if (currentElement == null) {
@@ -32,6 +32,8 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom.glue;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,14 +52,44 @@ class GlueSerializer {
     private static final XMLAttrComparator colorAttrComparator =
             new XMLColorAttrComparator();
     
-    private final GlueDocument document;
+    static final String NAME_SPACE_FXML_ATTR = "xmlns:fx"; //NOI18N
+    static final String NAME_SPACE_FXML = "http://javafx.com/fxml/1"; //NOI18N
+    
+    private final GlueElement rootElement;
+    private final List<GlueAuxiliary> header;
+    private final boolean fragment;
     
     public GlueSerializer(GlueDocument document) {
         assert document.getRootElement() != null;
-        this.document = document;
+        this.rootElement = document.getRootElement();
+        this.header = document.getHeader();
+        this.fragment = false;
+    }
+    
+    /*
+     * Serializes rootElement as if it was the root of a document with the
+     * specified header. Used to produce standalone FXML fragments.
+     */
+    public GlueSerializer(GlueElement rootElement, List<GlueAuxiliary> header) {
+        assert rootElement != null;
+        assert header != null;
+        this.rootElement = rootElement;
+        this.header = header;
+        this.fragment = true;
     }
     
     
+    /*
+     * Writes the XML text directly to output.
+     */
+    public void serialize(Appendable output) throws IOException {
+        try {
+            serialize(new XMLBuffer(output));
+        } catch(UncheckedIOException x) {
+            throw x.getCause();
+        }
+    }
+    
     /*
      * Object
      */
@@ -65,12 +97,21 @@ class GlueSerializer {
     @Override
     public String toString() {
         final XMLBuffer result = new XMLBuffer();
-        
+        serialize(result);
+        return result.toString();
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void serialize(XMLBuffer result) {
         result.addLineSeparator();
         result.addLineSeparator();
         
         Class<? extends GlueAuxiliary> lastAuxiliaryClass = null;
-        for (GlueAuxiliary auxiliary : document.getHeader()) {
+        for (GlueAuxiliary auxiliary : header) {
             if ((lastAuxiliaryClass != null) && (lastAuxiliaryClass != auxiliary.getClass())) {
                 // We insert an extra empty line to separate
                 // sequences of processing instructions, comments ...
@@ -85,10 +126,8 @@ class GlueSerializer {
             result.addLineSeparator();
         }
         
-        serializeElement(document.getRootElement(), result);
+        serializeElement(rootElement, result);
         result.addLineSeparator();
-        
-        return result.toString();
     }
     
     private void serializeElement(GlueElement element, XMLBuffer xmlBuffer) {
@@ -147,6 +186,11 @@ class GlueSerializer {
         for (Map.Entry<String, String> entry : attributes.entrySet()) {
             attrNames.add(new SimpleEntry<>(entry.getKey(), entry.getValue()));
         }
+        if (fragment && (element == rootElement) 
+                && (attributes.containsKey(NAME_SPACE_FXML_ATTR) == false)) {
+            // Fragment root needs fx namespace declaration
+            attrNames.add(new SimpleEntry<>(NAME_SPACE_FXML_ATTR, NAME_SPACE_FXML));
+        }
         if (element.getTagName().equals("Color")) {
             Collections.sort(attrNames, colorAttrComparator);
         } else {
@@ -31,6 +31,8 @@
  */
 package com.oracle.javafx.scenebuilder.kit.fxom.glue;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,7 +42,7 @@ import java.util.List;
  */
 class XMLBuffer {
     
-    private final StringBuffer buffer = new StringBuffer();
+    private final Appendable buffer;
     private final List<String> elementStack = new ArrayList<>();
     private boolean tagOpened;
     
@@ -49,14 +51,17 @@ class XMLBuffer {
      */
     
     public XMLBuffer() {
-        clear();
+        this(new StringBuilder());
     }
     
-    public final void clear() {
-        elementStack.clear();
-        tagOpened = false;
-        buffer.delete(0, buffer.length());
-        buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //NOI18N
+    /*
+     * Appends XML text directly to the specified output. IOExceptions thrown
+     * by the output are rethrown as UncheckedIOExceptions.
+     */
+    public XMLBuffer(Appendable output) {
+        assert output != null;
+        this.buffer = output;
+        append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //NOI18N
     }
     
     public void addProcessingInstruction(String target, String content) {
@@ -65,21 +70,21 @@ class XMLBuffer {
         assert elementStack.isEmpty();
         assert tagOpened == false;
         
-        buffer.append("<?"); //NOI18N
-        buffer.append(target);
-        buffer.append(' ');
-        buffer.append(content);
-        buffer.append("?>"); //NOI18N
+        append("<?"); //NOI18N
+        append(target);
+        append(' ');
+        append(content);
+        append("?>"); //NOI18N
     }
     
     public void beginElement(String elementName) {
         assert elementName != null;
         
         if (tagOpened) {
-            buffer.append(">"); //NOI18N
+            append(">"); //NOI18N
         }
-        buffer.append('<');
-        buffer.append(elementName);
+        append('<');
+        append(elementName);
         elementStack.add(elementName);
         tagOpened = true;
     }
@@ -89,11 +94,11 @@ class XMLBuffer {
         assert attributeValue != null;
         assert tagOpened;
         
-        buffer.append(' ');
-        buffer.append(attributeName);
-        buffer.append("=\""); //NOI18N
-        buffer.append(encodeToAttributeValue(attributeValue));
-        buffer.append('"');
+        append(' ');
+        append(attributeName);
+        append("=\""); //NOI18N
+        appendAttributeValue(attributeValue);
+        append('"');
     }
     
     public void endElement() {
@@ -102,38 +107,38 @@ class XMLBuffer {
         final String elementName = elementStack.get(elementStack.size()-1);
         elementStack.remove(elementStack.size()-1);
         if (tagOpened) {
-            buffer.append(" />"); //NOI18N
+            append(" />"); //NOI18N
             tagOpened = false;
         } else {
-            buffer.append("</"); //NOI18N
-            buffer.append(elementName);
-            buffer.append(">"); //NOI18N
+            append("</"); //NOI18N
+            append(elementName);
+            append(">"); //NOI18N
         }
     }
     
     
     public void addText(String text) {
         if (tagOpened) {
-            buffer.append(">"); //NOI18N
+            append(">"); //NOI18N
             tagOpened = false;
         }
-        buffer.append(text);
+        append(text);
     }
     
     
     public void addComment(String comment) {
         assert tagOpened == false;
-        buffer.append("<!--"); //NOI18N
-        buffer.append(comment);
-        buffer.append("-->"); //NOI18N
+        append("<!--"); //NOI18N
+        append(comment);
+        append("-->"); //NOI18N
     }
     
     public void addLineSeparator() {
         if (tagOpened) {
-            buffer.append(">"); //NOI18N
+            append(">"); //NOI18N
             tagOpened = false;
         }
-        buffer.append('\n');
+        append('\n');
     }
     
     /*
@@ -150,38 +155,49 @@ class XMLBuffer {
      * Private
      */    
     
+    private void append(CharSequence s) {
+        try {
+            buffer.append(s);
+        } catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
     
-    private String encodeToAttributeValue(String s) {
-        final StringBuffer result = new StringBuffer();
-        
+    private void append(char c) {
+        try {
+            buffer.append(c);
+        } catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+    
+    private void appendAttributeValue(String s) {
         for (int i = 0; i < s.length(); i++) {
             final char c = s.charAt(i);
             switch (c) {
                 case '&': 
-                    result.append("&amp;");  //NOI18N
+                    append("&amp;");  //NOI18N
                     break;
                 case '<':
-                    result.append("&lt;"); //NOI18N
+                    append("&lt;"); //NOI18N
                     break;
                 case '>':
-                    result.append("&gt;"); //NOI18N
+                    append("&gt;"); //NOI18N
                     break;
                 case '"': 
-                    result.append("&quot;"); //NOI18N
+                    append("&quot;"); //NOI18N
                     break;
                 default :
                     if (Character.isISOControl(c)) {
-                        result.append("&#"); //NOI18N
-                        result.append((int) c);
-                        result.append(';');
+                        append("&#"); //NOI18N
+                        append(Integer.toString(c));
+                        append(';');
                     } else {
-                        result.append(c);
+                        append(c);
                     }
                     break;
             }
         }
-        
-        return result.toString();
     }
 
 }
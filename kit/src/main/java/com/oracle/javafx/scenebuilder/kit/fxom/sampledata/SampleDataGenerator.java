@@ -37,8 +37,13 @@ import com.oracle.javafx.scenebuilder.kit.fxom.FXOMInstance;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMProperty;
 import com.oracle.javafx.scenebuilder.kit.fxom.FXOMPropertyC;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.ChoiceBox;
@@ -55,14 +60,122 @@ import javafx.scene.control.TreeView;
 public class SampleDataGenerator {
     
     private final Map<FXOMObject, AbstractSampleData> sampleDataMap = new HashMap<>();
+    // Scene graph object each sample data has been applied to
+    private final Map<FXOMObject, Object> sampleDataTargets = new HashMap<>();
     
     public void assignSampleData(FXOMObject startObject) {
         assert startObject != null;
         
+        updateSampleData(startObject);
+        
+        if (startObject instanceof FXOMInstance) {
+            final FXOMInstance fxomInstance = (FXOMInstance) startObject;
+            for (FXOMProperty p : fxomInstance.getProperties().values()) {
+                if (p instanceof FXOMPropertyC) {
+                    final FXOMPropertyC pc = (FXOMPropertyC) p;
+                    for (FXOMObject v : pc.getValues()) {
+                        assignSampleData(v);
+                    }
+                }
+            }
+        } else if (startObject instanceof FXOMCollection) {
+            final FXOMCollection fxomCollection = (FXOMCollection) startObject;
+            for (FXOMObject i : fxomCollection.getItems()) {
+                assignSampleData(i);
+            }
+        } 
+    }
+    
+    /**
+     * Assigns sample data after a partial scene graph refresh. Only updated
+     * objects and re-instantiated subtrees are visited: other objects have
+     * kept their scene graph object and their sample data is left as is.
+     * Ancestors of those objects are visited too: sample data of a table 
+     * depends on its columns. Visited objects which kept their scene graph
+     * object get their sample data removed and applied again.
+     * 
+     * @param rootObject root of the document (never null)
+     * @param updatedObjects objects whose properties have been updated
+     * @param instantiatedObjects objects whose subtree has been re-instantiated
+     */
+    public void assignSampleData(FXOMObject rootObject, 
+            Collection<? extends FXOMObject> updatedObjects, 
+            Collection<? extends FXOMObject> instantiatedObjects) {
+        assert rootObject != null;
+        assert updatedObjects != null;
+        assert instantiatedObjects != null;
+        
+        // Forgets objects which have been removed from the document
+        sampleDataMap.keySet().removeIf(o -> isAttached(o, rootObject) == false);
+        sampleDataTargets.keySet().retainAll(sampleDataMap.keySet());
+        
+        final Set<FXOMObject> visitedObjects = new HashSet<>();
+        final List<FXOMObject> startObjects = new ArrayList<>(updatedObjects);
+        for (FXOMObject o : instantiatedObjects) {
+            if (isAttached(o, rootObject)) {
+                assignSampleData(o);
+                visitedObjects.add(o);
+                startObjects.add(o.getParentObject());
+            }
+        }
+        for (FXOMObject o : startObjects) {
+            if ((o != null) && isAttached(o, rootObject)) {
+                FXOMObject current = o;
+                while ((current != null) && visitedObjects.add(current)) {
+                    updateSampleData(current);
+                    current = current.getParentObject();
+                }
+            }
+        }
+    }
+    
+    public void removeSampleData(FXOMObject startObject) {
+        final AbstractSampleData currentData = sampleDataMap.get(startObject);
+        if (currentData != null) {
+            currentData.removeFrom(startObject.getSceneGraphObject());
+            sampleDataTargets.remove(startObject);
+        }
+        
+        if (startObject instanceof FXOMInstance) {
+            final FXOMInstance fxomInstance = (FXOMInstance) startObject;
+            for (FXOMProperty p : fxomInstance.getProperties().values()) {
+                if (p instanceof FXOMPropertyC) {
+                    final FXOMPropertyC pc = (FXOMPropertyC) p;
+                    for (FXOMObject v : pc.getValues()) {
+                        removeSampleData(v);
+                    }
+                }
+            }
+        } else if (startObject instanceof FXOMCollection) {
+            final FXOMCollection fxomCollection = (FXOMCollection) startObject;
+            for (FXOMObject i : fxomCollection.getItems()) {
+                removeSampleData(i);
+            }
+        } 
+    }
+    
+    public int getSampleDataCount() {
+        return sampleDataMap.size();
+    }
+    
+    /*
+     * Private
+     */
+    
+    private void updateSampleData(FXOMObject startObject) {
         final Object sceneGraphObject = startObject.getSceneGraphObject();
         final AbstractSampleData currentData = sampleDataMap.get(startObject);
         final AbstractSampleData newData;
         
+        if ((currentData != null) && (sceneGraphObject != null)
+                && (sampleDataTargets.get(startObject) == sceneGraphObject)) {
+            // Scene graph object has been kept by a partial refresh: it still
+            // holds the sample data which must be removed before checking 
+            // whether it is empty. Sample data is then applied again 
+            // (eg table columns may have changed).
+            currentData.removeFrom(sceneGraphObject);
+        }
+        
         if (sceneGraphObject == null) {
             // startObject is unresolved
             newData = null;
@@ -175,58 +288,23 @@ public class SampleDataGenerator {
         if (newData == null) {
             if (currentData != null) {
                 sampleDataMap.remove(startObject);
+                sampleDataTargets.remove(startObject);
             }
         } else {
             newData.applyTo(sceneGraphObject);
             sampleDataMap.put(startObject, newData);
+            sampleDataTargets.put(startObject, sceneGraphObject);
         }
-        
-        if (startObject instanceof FXOMInstance) {
-            final FXOMInstance fxomInstance = (FXOMInstance) startObject;
-            for (FXOMProperty p : fxomInstance.getProperties().values()) {
-                if (p instanceof FXOMPropertyC) {
-                    final FXOMPropertyC pc = (FXOMPropertyC) p;
-                    for (FXOMObject v : pc.getValues()) {
-                        assignSampleData(v);
-                    }
-                }
-            }
-        } else if (startObject instanceof FXOMCollection) {
-            final FXOMCollection fxomCollection = (FXOMCollection) startObject;
-            for (FXOMObject i : fxomCollection.getItems()) {
-                assignSampleData(i);
-            }
-        } 
     }
     
-    
-    public void removeSampleData(FXOMObject startObject) {
-        final AbstractSampleData currentData = sampleDataMap.get(startObject);
-        if (currentData != null) {
-            currentData.removeFrom(startObject.getSceneGraphObject());
+    private static boolean isAttached(FXOMObject fxomObject, FXOMObject rootObject) {
+        FXOMObject current = fxomObject;
+        while ((current != rootObject) && (current != null)) {
+            current = current.getParentObject();
         }
-        
-        if (startObject instanceof FXOMInstance) {
-            final FXOMInstance fxomInstance = (FXOMInstance) startObject;
-            for (FXOMProperty p : fxomInstance.getProperties().values()) {
-                if (p instanceof FXOMPropertyC) {
-                    final FXOMPropertyC pc = (FXOMPropertyC) p;
-                    for (FXOMObject v : pc.getValues()) {
-                        removeSampleData(v);
-                    }
-                }
-            }
-        } else if (startObject instanceof FXOMCollection) {
-            final FXOMCollection fxomCollection = (FXOMCollection) startObject;
-            for (FXOMObject i : fxomCollection.getItems()) {
-                removeSampleData(i);
-            }
-        } 
+        return current == rootObject;
     }
     
-    /*
-     * Private
-     */
 //    
 //    private AbstractSampleData<?> makeSampleData(FXOMObject fxomObject) {
 //        final Object obj = fxomObject.getSceneGraphObject();
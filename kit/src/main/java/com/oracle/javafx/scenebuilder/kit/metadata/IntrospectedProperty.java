@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata;
+
+import com.oracle.javafx.scenebuilder.kit.editor.panel.inspector.editors.util.SBDuration;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.BooleanPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoublePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoublePropertyMetadata.DoubleKind;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DurationPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EnumerationPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EventHandlerPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.FontPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.ImagePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.IntegerPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.StringPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.list.StringListPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.paint.ColorPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.value.paint.PaintPropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.InspectorPath;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.Collections;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/**
+ * Outcome of the introspection of a custom component property: everything
+ * needed to make its property metadata without instantiating the component.
+ * Default values can be encoded as strings so that MetadataIntrospectionCache
+ * can save them.
+ */
+class IntrospectedProperty {
+    
+    enum Kind {
+        ENUMERATION,
+        BOOLEAN,
+        INTEGER,
+        DOUBLE,
+        STRING,
+        COLOR,
+        PAINT,
+        FONT,
+        IMAGE,
+        DURATION,
+        EVENT_HANDLER,
+        STRING_LIST
+    }
+    
+    private final PropertyName name;
+    private final Kind kind;
+    private final Class<?> enumClass;
+    private final boolean readWrite;
+    private final Object defaultValue;
+    private final InspectorPath inspectorPath;
+    
+    public IntrospectedProperty(PropertyName name, Kind kind, Class<?> enumClass,
+            boolean readWrite, Object defaultValue, InspectorPath inspectorPath) {
+        assert name != null;
+        assert kind != null;
+        assert (kind == Kind.ENUMERATION) == (enumClass != null);
+        assert inspectorPath != null;
+        
+        this.name = name;
+        this.kind = kind;
+        this.enumClass = enumClass;
+        this.readWrite = readWrite;
+        this.defaultValue = defaultValue;
+        this.inspectorPath = inspectorPath;
+    }
+
+    public PropertyName getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Class<?> getEnumClass() {
+        return enumClass;
+    }
+
+    public boolean isReadWrite() {
+        return readWrite;
+    }
+
+    public InspectorPath getInspectorPath() {
+        return inspectorPath;
+    }
+    
+    public PropertyMetadata makePropertyMetadata() {
+        final PropertyMetadata result;
+        
+        switch(kind) {
+            case ENUMERATION:
+                result = new EnumerationPropertyMetadata(name, enumClass, 
+                        readWrite, (Enum<?>) defaultValue, inspectorPath);
+                break;
+            case BOOLEAN:
+                result = new BooleanPropertyMetadata(name, readWrite, 
+                        (Boolean) defaultValue, inspectorPath);
+                break;
+            case INTEGER:
+                result = new IntegerPropertyMetadata(name, readWrite, 
+                        (Integer) defaultValue, inspectorPath);
+                break;
+            case DOUBLE:
+                result = new DoublePropertyMetadata(name, DoubleKind.COORDINATE, 
+                        readWrite, (Double) defaultValue, inspectorPath);
+                break;
+            case STRING:
+                result = new StringPropertyMetadata(name, readWrite, 
+                        (String) defaultValue, inspectorPath);
+                break;
+            case COLOR:
+                result = new ColorPropertyMetadata(name, readWrite, 
+                        (Color) defaultValue, inspectorPath);
+                break;
+            case PAINT:
+                result = new PaintPropertyMetadata(name, readWrite, 
+                        (Paint) defaultValue, inspectorPath);
+                break;
+            case FONT:
+                result = new FontPropertyMetadata(name, readWrite, 
+                        (Font) defaultValue, inspectorPath);
+                break;
+            case IMAGE:
+                result = new ImagePropertyMetadata(name, readWrite, null, inspectorPath);
+                break;
+            case DURATION:
+                result = new DurationPropertyMetadata(name, readWrite, 
+                        (SBDuration) defaultValue, inspectorPath);
+                break;
+            case EVENT_HANDLER:
+                result = new EventHandlerPropertyMetadata(name, readWrite, null, inspectorPath);
+                break;
+            case STRING_LIST:
+                result = new StringListPropertyMetadata(name, readWrite, 
+                        Collections.emptyList(), inspectorPath);
+                break;
+            default:
+                assert false : "Unexpected kind " + kind; //NOI18N
+                result = null;
+                break;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns the default value encoded as a string.
+     * 
+     * @return the encoded default value (null if it's null or if it cannot
+     * be encoded).
+     */
+    public String encodeDefaultValue() {
+        final String result;
+        
+        if (defaultValue == null) {
+            result = null;
+        } else {
+            switch(kind) {
+                case ENUMERATION:
+                    result = ((Enum<?>) defaultValue).name();
+                    break;
+                case BOOLEAN:
+                case INTEGER:
+                case DOUBLE:
+                case STRING:
+                    result = defaultValue.toString();
+                    break;
+                case COLOR:
+                case PAINT:
+                    // Only plain colors are encoded
+                    result = (defaultValue instanceof Color) ? defaultValue.toString() : null;
+                    break;
+                case FONT:
+                    final Font font = (Font) defaultValue;
+                    result = font.getSize() + " " + font.getName(); //NOI18N
+                    break;
+                case DURATION:
+                    result = String.valueOf(((SBDuration) defaultValue).toMillis());
+                    break;
+                default:
+                    result = null;
+                    break;
+            }
+        }
+        
+        return result;
+    }
+    
+    public boolean isDefaultValueEncodable() {
+        return (defaultValue == null) 
+                || (kind == Kind.IMAGE) 
+                || (kind == Kind.EVENT_HANDLER)
+                || (kind == Kind.STRING_LIST)
+                || (encodeDefaultValue() != null);
+    }
+    
+    /**
+     * Inverse of encodeDefaultValue().
+     * 
+     * @param kind a property kind (never null)
+     * @param enumClass the enum class if kind is ENUMERATION
+     * @param encodedValue an encoded default value (may be null)
+     * @return the decoded default value.
+     * @throws IllegalArgumentException if encodedValue cannot be decoded
+     */
+    public static Object decodeDefaultValue(Kind kind, Class<?> enumClass, String encodedValue) {
+        final Object result;
+        
+        if (encodedValue == null) {
+            result = null;
+        } else {
+            switch(kind) {
+                case ENUMERATION:
+                    result = decodeEnum(enumClass, encodedValue);
+                    break;
+                case BOOLEAN:
+                    result = Boolean.valueOf(encodedValue);
+                    break;
+                case INTEGER:
+                    result = Integer.valueOf(encodedValue);
+                    break;
+                case DOUBLE:
+                    result = Double.valueOf(encodedValue);
+                    break;
+                case STRING:
+                    result = encodedValue;
+                    break;
+                case COLOR:
+                case PAINT:
+                    result = Color.web(encodedValue);
+                    break;
+                case FONT:
+                    final int space = encodedValue.indexOf(' ');
+                    if (space == -1) {
+                        throw new IllegalArgumentException(encodedValue);
+                    }
+                    result = new Font(encodedValue.substring(space+1), 
+                            Double.parseDouble(encodedValue.substring(0, space)));
+                    break;
+                case DURATION:
+                    result = new SBDuration(Double.parseDouble(encodedValue));
+                    break;
+                default:
+                    throw new IllegalArgumentException(encodedValue);
+            }
+        }
+        
+        return result;
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private static Enum<?> decodeEnum(Class<?> enumClass, String name) {
+        assert enumClass.isEnum();
+        
+        Enum<?> result = null;
+        for (Object constant : enumClass.getEnumConstants()) {
+            if ((result == null) && ((Enum<?>) constant).name().equals(name)) {
+                result = (Enum<?>) constant;
+            }
+        }
+        if (result == null) {
+            throw new IllegalArgumentException(name);
+        }
+        
+        return result;
+    }
+}
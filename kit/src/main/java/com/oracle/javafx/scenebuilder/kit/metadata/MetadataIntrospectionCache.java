@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.IntrospectedProperty.Kind;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.InspectorPath;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-disk cache of custom component introspections.
+ * 
+ * Entries are keyed by class name and validated by a fingerprint of the
+ * files (jar or class file) defining the class and its custom ancestors.
+ * Fingerprints are computed lazily: once per file and per session, unless
+ * the file size or modification time changes. The whole cache is dropped
+ * when the file defining Metadata changes (ie Scene Builder is updated).
+ * 
+ * New entries are written to disk by a single delayed flush (or by an 
+ * explicit call to {@link #flush()}) rather than one write per class.
+ */
+class MetadataIntrospectionCache {
+    
+    private static final int FORMAT_VERSION = 1;
+    // Longer default values are not worth caching
+    private static final int MAX_ENCODED_LENGTH = 8192;
+    // Delay between the first unsaved entry and the flush
+    private static final long FLUSH_DELAY = 5; // seconds
+    
+    private static final ScheduledExecutorService flushExecutor 
+            = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread t = new Thread(r, "MetadataIntrospectionCache"); //NOI18N
+                t.setDaemon(true);
+                return t;
+            });
+    
+    private final Path cacheFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Path, FileFingerprint> fileFingerprints = new ConcurrentHashMap<>();
+    private final Object saveLock = new Object();
+    private String metadataFingerprint;
+    private volatile boolean loaded;
+    private boolean dirty;
+    private boolean flushScheduled;
+    
+    public MetadataIntrospectionCache(Path cacheFile) {
+        assert cacheFile != null;
+        this.cacheFile = cacheFile;
+    }
+    
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+    
+    /**
+     * Returns the cached introspection of the specified class.
+     * 
+     * @param componentClass a custom component class (never null)
+     * @param ancestorClass its first certified ancestor (may be null)
+     * @return the cached properties or null if the class has not been 
+     * cached or if its entry is stale.
+     */
+    public List<IntrospectedProperty> lookup(Class<?> componentClass, Class<?> ancestorClass) {
+        assert componentClass != null;
+        
+        loadIfNeeded();
+        
+        final Entry entry;
+        synchronized(this) {
+            entry = entries.get(componentClass.getName());
+        }
+        
+        List<IntrospectedProperty> result = null;
+        if (entry != null) {
+            // Hashing may read whole jars: it runs outside of the lock
+            final String fingerprint = makeClassFingerprint(componentClass, ancestorClass);
+            if (entry.fingerprint.equals(fingerprint)) {
+                try {
+                    result = entry.decode(componentClass.getClassLoader());
+                } catch(ClassNotFoundException | RuntimeException x) {
+                    // Entry is unusable
+                    removeEntry(componentClass.getName(), entry);
+                }
+            } else {
+                // Entry is stale
+                removeEntry(componentClass.getName(), entry);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Saves the introspection of the specified class. Does nothing if some 
+     * default values cannot be encoded. The cache file is updated later on:
+     * see {@link #flush()}.
+     * 
+     * @param componentClass a custom component class (never null)
+     * @param ancestorClass its first certified ancestor (may be null)
+     * @param properties the introspected properties (never null)
+     */
+    public void store(Class<?> componentClass, Class<?> ancestorClass, 
+            List<IntrospectedProperty> properties) {
+        assert componentClass != null;
+        assert properties != null;
+        
+        loadIfNeeded();
+        
+        final String fingerprint = makeClassFingerprint(componentClass, ancestorClass);
+        final Entry entry = (fingerprint == null) ? null : Entry.encode(fingerprint, properties);
+        if (entry != null) {
+            synchronized(this) {
+                if (metadataFingerprint != null) {
+                    entries.put(componentClass.getName(), entry);
+                    dirty = true;
+                    if (flushScheduled == false) {
+                        flushScheduled = true;
+                        flushExecutor.schedule(this::flush, FLUSH_DELAY, TimeUnit.SECONDS);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes the unsaved entries to the cache file. Does nothing if there 
+     * are no unsaved entries.
+     */
+    public void flush() {
+        synchronized(saveLock) {
+            final String fingerprint;
+            final Map<String, Entry> snapshot;
+            synchronized(this) {
+                flushScheduled = false;
+                if (dirty) {
+                    dirty = false;
+                    fingerprint = metadataFingerprint;
+                    snapshot = new HashMap<>(entries);
+                } else {
+                    fingerprint = null;
+                    snapshot = null;
+                }
+            }
+            if (snapshot != null) {
+                save(fingerprint, snapshot);
+            }
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private void loadIfNeeded() {
+        if (loaded == false) {
+            // Hashing Scene Builder jar runs outside of the lock
+            final String fingerprint = makeFileFingerprint(findDefiningFile(Metadata.class));
+            synchronized(this) {
+                if (loaded == false) {
+                    metadataFingerprint = fingerprint;
+                    if ((metadataFingerprint != null) && Files.exists(cacheFile)) {
+                        try {
+                            load();
+                        } catch(IOException | RuntimeException x) {
+                            // Cache file is corrupted: it will be rewritten
+                            entries.clear();
+                        }
+                    }
+                    loaded = true;
+                }
+            }
+        }
+    }
+    
+    private synchronized void removeEntry(String className, Entry entry) {
+        if (entries.remove(className, entry)) {
+            dirty = true;
+        }
+    }
+    
+    private void load() throws IOException {
+        try (DataInputStream is = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if ((is.readInt() == FORMAT_VERSION) 
+                    && is.readUTF().equals(metadataFingerprint)) {
+                final int entryCount = is.readInt();
+                for (int i = 0; i < entryCount; i++) {
+                    final String className = is.readUTF();
+                    entries.put(className, Entry.read(is));
+                }
+            }
+        }
+    }
+    
+    private void save(String fingerprint, Map<String, Entry> snapshot) {
+        final Path tmpFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp"); //NOI18N
+        try {
+            if (cacheFile.getParent() != null) {
+                Files.createDirectories(cacheFile.getParent());
+            }
+            try (DataOutputStream os = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                os.writeInt(FORMAT_VERSION);
+                os.writeUTF(fingerprint);
+                os.writeInt(snapshot.size());
+                for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                    os.writeUTF(e.getKey());
+                    e.getValue().write(os);
+                }
+            }
+            try {
+                Files.move(tmpFile, cacheFile, 
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch(AtomicMoveNotSupportedException x) {
+                Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch(IOException x) {
+            // Cache is not persisted: introspection will run again next time
+        }
+    }
+    
+    /*
+     * Fingerprint of the files defining componentClass and its ancestors
+     * up to ancestorClass. Ancestors without defining file are platform 
+     * classes: they are skipped.
+     */
+    private String makeClassFingerprint(Class<?> componentClass, Class<?> ancestorClass) {
+        final StringBuilder result = new StringBuilder();
+        
+        Class<?> c = componentClass;
+        while ((c != null) && (c != ancestorClass) && (c != Object.class)) {
+            final String fingerprint = makeFileFingerprint(findDefiningFile(c));
+            if (fingerprint != null) {
+                result.append(fingerprint).append(';');
+            } else if (c == componentClass) {
+                // Component class has no defining file: it cannot be cached
+                return null;
+            }
+            c = c.getSuperclass();
+        }
+        
+        return result.toString();
+    }
+    
+    private static Path findDefiningFile(Class<?> c) {
+        Path result;
+        
+        try {
+            final CodeSource codeSource = c.getProtectionDomain().getCodeSource();
+            if ((codeSource == null) || (codeSource.getLocation() == null)) {
+                result = null;
+            } else {
+                result = Paths.get(codeSource.getLocation().toURI());
+                if (Files.isDirectory(result)) {
+                    result = result.resolve(c.getName().replace('.', '/') + ".class"); //NOI18N
+                }
+                if (Files.isRegularFile(result) == false) {
+                    result = null;
+                }
+            }
+        } catch(URISyntaxException | RuntimeException x) {
+            // SecurityException, FileSystemNotFoundException...
+            result = null;
+        }
+        
+        return result;
+    }
+    
+    private String makeFileFingerprint(Path file) {
+        String result;
+        
+        if (file == null) {
+            result = null;
+        } else {
+            try {
+                final long size = Files.size(file);
+                final long lastModified = Files.getLastModifiedTime(file).toMillis();
+                final FileFingerprint cached = fileFingerprints.get(file);
+                if ((cached != null) && (cached.size == size) && (cached.lastModified == lastModified)) {
+                    result = cached.hash;
+                } else {
+                    result = hash(file);
+                    fileFingerprints.put(file, new FileFingerprint(size, lastModified, result));
+                }
+            } catch(IOException x) {
+                result = null;
+            }
+        }
+        
+        return result;
+    }
+    
+    private static String hash(Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256"); //NOI18N
+        } catch(NoSuchAlgorithmException x) {
+            throw new IOException(x);
+        }
+        
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream is = Files.newInputStream(file)) {
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+            }
+        }
+        
+        final StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16));
+            result.append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+    
+    
+    private static class FileFingerprint {
+        final long size;
+        final long lastModified;
+        final String hash;
+        
+        FileFingerprint(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+    
+    
+    /*
+     * Introspection of one class, with default values encoded as strings.
+     */
+    private static class Entry {
+        final String fingerprint;
+        final List<Record> records;
+        
+        Entry(String fingerprint, List<Record> records) {
+            this.fingerprint = fingerprint;
+            this.records = records;
+        }
+        
+        static Entry encode(String fingerprint, List<IntrospectedProperty> properties) {
+            final List<Record> records = new ArrayList<>();
+            for (IntrospectedProperty p : properties) {
+                final String defaultValue = p.encodeDefaultValue();
+                if ((p.isDefaultValueEncodable() == false)
+                        || ((defaultValue != null) && (defaultValue.length() > MAX_ENCODED_LENGTH))) {
+                    return null;
+                }
+                final Class<?> enumClass = p.getEnumClass();
+                records.add(new Record(p.getName().getName(), p.getKind(), 
+                        (enumClass == null) ? null : enumClass.getName(),
+                        p.isReadWrite(), defaultValue, p.getInspectorPath()));
+            }
+            return new Entry(fingerprint, Collections.unmodifiableList(records));
+        }
+        
+        List<IntrospectedProperty> decode(ClassLoader classLoader) throws ClassNotFoundException {
+            final List<IntrospectedProperty> result = new ArrayList<>();
+            for (Record r : records) {
+                final Class<?> enumClass = (r.enumClassName == null) 
+                        ? null : Class.forName(r.enumClassName, false, classLoader);
+                final Object defaultValue 
+                        = IntrospectedProperty.decodeDefaultValue(r.kind, enumClass, r.defaultValue);
+                result.add(new IntrospectedProperty(new PropertyName(r.name), r.kind, 
+                        enumClass, r.readWrite, defaultValue, r.inspectorPath));
+            }
+            return result;
+        }
+        
+        static Entry read(DataInputStream is) throws IOException {
+            final String fingerprint = is.readUTF();
+            final int recordCount = is.readInt();
+            final List<Record> records = new ArrayList<>();
+            for (int i = 0; i < recordCount; i++) {
+                final String name = is.readUTF();
+                final Kind kind = Kind.valueOf(is.readUTF());
+                final String enumClassName = is.readBoolean() ? is.readUTF() : null;
+                final boolean readWrite = is.readBoolean();
+                final String defaultValue = is.readBoolean() ? is.readUTF() : null;
+                final InspectorPath inspectorPath 
+                        = new InspectorPath(is.readUTF(), is.readUTF(), is.readInt());
+                records.add(new Record(name, kind, enumClassName, readWrite, defaultValue, inspectorPath));
+            }
+            return new Entry(fingerprint, Collections.unmodifiableList(records));
+        }
+        
+        void write(DataOutputStream os) throws IOException {
+            os.writeUTF(fingerprint);
+            os.writeInt(records.size());
+            for (Record r : records) {
+                os.writeUTF(r.name);
+                os.writeUTF(r.kind.name());
+                writeOptionalUTF(os, r.enumClassName);
+                os.writeBoolean(r.readWrite);
+                writeOptionalUTF(os, r.defaultValue);
+                os.writeUTF(r.inspectorPath.getSectionTag());
+                os.writeUTF(r.inspectorPath.getSubSectionTag());
+                os.writeInt(r.inspectorPath.getSubSectionIndex());
+            }
+        }
+        
+        private static void writeOptionalUTF(DataOutputStream os, String s) throws IOException {
+            os.writeBoolean(s != null);
+            if (s != null) {
+                os.writeUTF(s);
+            }
+        }
+    }
+    
+    private static class Record {
+        final String name;
+        final Kind kind;
+        final String enumClassName;
+        final boolean readWrite;
+        final String defaultValue;
+        final InspectorPath inspectorPath;
+        
+        Record(String name, Kind kind, String enumClassName, boolean readWrite, 
+                String defaultValue, InspectorPath inspectorPath) {
+            this.name = name;
+            this.kind = kind;
+            this.enumClassName = enumClassName;
+            this.readWrite = readWrite;
+            this.defaultValue = defaultValue;
+            this.inspectorPath = inspectorPath;
+        }
+    }
+}
@@ -33,22 +33,10 @@
 package com.oracle.javafx.scenebuilder.kit.metadata;
 
 import com.oracle.javafx.scenebuilder.kit.editor.panel.inspector.editors.util.SBDuration;
+import com.oracle.javafx.scenebuilder.kit.metadata.IntrospectedProperty.Kind;
 import com.oracle.javafx.scenebuilder.kit.metadata.klass.ComponentClassMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.klass.CustomComponentClassMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.BooleanPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DurationPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EventHandlerPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.ImagePropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.list.StringListPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.paint.ColorPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoublePropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.DoublePropertyMetadata.DoubleKind;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.EnumerationPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.FontPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.IntegerPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.paint.PaintPropertyMetadata;
-import com.oracle.javafx.scenebuilder.kit.metadata.property.value.StringPropertyMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.InspectorPath;
 
 import static com.oracle.javafx.scenebuilder.kit.metadata.util.InspectorPath.CUSTOM_SECTION;
@@ -65,15 +53,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
 import javafx.fxml.FXMLLoader;
-import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
-import javafx.scene.text.Font;
 import javafx.util.Duration;
 
 /**
@@ -84,43 +69,44 @@ class MetadataIntrospector {
     
     private final Class<?> componentClass;
     private final ComponentClassMetadata ancestorMetadata;
+    private final MetadataIntrospectionCache cache;
     private int counter;
     
-    public MetadataIntrospector(Class<?> componentClass, ComponentClassMetadata ancestorMetadata) {
+    public MetadataIntrospector(Class<?> componentClass, 
+            ComponentClassMetadata ancestorMetadata, MetadataIntrospectionCache cache) {
         this.componentClass = componentClass;
         this.ancestorMetadata = ancestorMetadata;
+        this.cache = cache;
     }
     
     public ComponentClassMetadata introspect() {
-        final Set<PropertyMetadata> properties = new HashSet<>();
-        final Set<PropertyName> hiddenProperties = Metadata.getMetadata().getHiddenProperties();
+        final Class<?> ancestorClass 
+                = (ancestorMetadata == null) ? null : ancestorMetadata.getKlass();
+        List<IntrospectedProperty> properties;
         Exception exception;
         
-        
-        try {
-            final Object sample = instantiate();
-            final BeanInfo beanInfo = Introspector.getBeanInfo(componentClass);
-            for (PropertyDescriptor d : beanInfo.getPropertyDescriptors()) {
-                final PropertyName name = new PropertyName(d.getName());
-                PropertyMetadata propertyMetadata 
-                        = lookupPropertyMetadata(ancestorMetadata, name);
-                if ((propertyMetadata == null) 
-                        && (hiddenProperties.contains(name) == false)) {
-                    propertyMetadata = makePropertyMetadata(name, d, sample);
-                    if (propertyMetadata != null) {
-                        properties.add(propertyMetadata);
-                    }
+        properties = (cache == null) ? null : cache.lookup(componentClass, ancestorClass);
+        if (properties != null) {
+            exception = null;
+        } else {
+            properties = new ArrayList<>();
+            try {
+                introspectProperties(properties);
+                exception = null;
+                if (cache != null) {
+                    cache.store(componentClass, ancestorClass, properties);
                 }
+            } catch(IOException | IntrospectionException x) {
+                exception = x;
             }
-            exception = null;
-        } catch(IOException | IntrospectionException x) {
-            exception = x;
         }
         
         final CustomComponentClassMetadata result 
                 = new CustomComponentClassMetadata(componentClass,  
                 ancestorMetadata, exception);
-        result.getProperties().addAll(properties);
+        for (IntrospectedProperty p : properties) {
+            result.getProperties().add(p.makePropertyMetadata());
+        }
         
         return result;
     }
@@ -130,6 +116,23 @@ class MetadataIntrospector {
      * Private
      */
     
+    private void introspectProperties(List<IntrospectedProperty> properties) 
+            throws IOException, IntrospectionException {
+        final Set<PropertyName> hiddenProperties = Metadata.getMetadata().getHiddenProperties();
+        final Object sample = instantiate();
+        final BeanInfo beanInfo = Introspector.getBeanInfo(componentClass);
+        for (PropertyDescriptor d : beanInfo.getPropertyDescriptors()) {
+            final PropertyName name = new PropertyName(d.getName());
+            if ((lookupPropertyMetadata(ancestorMetadata, name) == null) 
+                    && (hiddenProperties.contains(name) == false)) {
+                final IntrospectedProperty p = introspectProperty(name, d, sample);
+                if (p != null) {
+                    properties.add(p);
+                }
+            }
+        }
+    }
+    
     private Object instantiate() throws IOException {
         final StringBuilder sb = new StringBuilder();
         Object result;
@@ -178,9 +181,9 @@ class MetadataIntrospector {
         return result;
     }
     
-    private PropertyMetadata makePropertyMetadata(PropertyName name, 
+    private IntrospectedProperty introspectProperty(PropertyName name, 
             PropertyDescriptor propertyDescriptor, Object sample) {
-        PropertyMetadata result;
+        IntrospectedProperty result;
         
         if (propertyDescriptor.getPropertyType() == null) {
             result = null;
@@ -196,73 +199,49 @@ class MetadataIntrospector {
                 result = null;
             } else if (propertyType.isEnum()) {
                 final Object fallback = propertyType.getEnumConstants()[0];
-                result = new EnumerationPropertyMetadata(
-                        name,
-                        propertyType,
-                        readWrite,
-                        (Enum<?>)getDefaultValue(sample, propertyDescriptor.getReadMethod(), fallback),
+                result = new IntrospectedProperty(name, Kind.ENUMERATION, propertyType, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), fallback),
                         inspectorPath);
             } else if (propertyType == Boolean.class) {
-                result = new BooleanPropertyMetadata(
-                        name,
-                        readWrite,
-                        (Boolean)getDefaultValue(sample, propertyDescriptor.getReadMethod(), false),
+                result = new IntrospectedProperty(name, Kind.BOOLEAN, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), false),
                         inspectorPath);
             } else if (propertyType == Integer.class) {
-                result = new IntegerPropertyMetadata(
-                        name,
-                        readWrite,
-                        (Integer)getDefaultValue(sample, propertyDescriptor.getReadMethod(), 0),
+                result = new IntrospectedProperty(name, Kind.INTEGER, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), 0),
                         inspectorPath);
             } else if (propertyType == Double.class) {
-                result = new DoublePropertyMetadata(
-                        name,
-                        DoubleKind.COORDINATE,
-                        readWrite,
-                        (Double)getDefaultValue(sample, propertyDescriptor.getReadMethod(), 0.0),
+                result = new IntrospectedProperty(name, Kind.DOUBLE, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), 0.0),
                         inspectorPath);
             } else if (propertyType == String.class) {
-                result = new StringPropertyMetadata(
-                        name,
-                        readWrite,
-                        (String)getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
+                result = new IntrospectedProperty(name, Kind.STRING, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
                         inspectorPath);
             } else if (propertyType == javafx.scene.paint.Color.class) {
-                result = new ColorPropertyMetadata(
-                        name,
-                        readWrite,
-                        (Color)getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
+                result = new IntrospectedProperty(name, Kind.COLOR, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
                         inspectorPath);
             } else if (propertyType == javafx.scene.paint.Paint.class) {
-                result = new PaintPropertyMetadata(
-                        name,
-                        readWrite,
-                        (Paint) getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
+                result = new IntrospectedProperty(name, Kind.PAINT, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
                         inspectorPath);
             } else if (propertyType == javafx.scene.text.Font.class) {
-                result = new FontPropertyMetadata(
-                        name,
-                        readWrite,
-                        (Font) getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
+                result = new IntrospectedProperty(name, Kind.FONT, null, readWrite,
+                        getDefaultValue(sample, propertyDescriptor.getReadMethod(), null),
                         inspectorPath);
             } else if (propertyType == javafx.scene.image.Image.class) {
-                result = new ImagePropertyMetadata(
-                        name,
-                        readWrite,
+                result = new IntrospectedProperty(name, Kind.IMAGE, null, readWrite,
                         null,
                         inspectorPath);
             } else if (propertyType == javafx.util.Duration.class) {
                 Duration defaultValue = (Duration)getDefaultValue(sample, propertyDescriptor.getReadMethod(), null);
-                result = new DurationPropertyMetadata(
-                        name,
-                        readWrite,
+                result = new IntrospectedProperty(name, Kind.DURATION, null, readWrite,
                         defaultValue == null? null : new SBDuration(defaultValue),
                         inspectorPath);
 
             } else if (propertyType == javafx.event.EventHandler.class) {
-                result = new EventHandlerPropertyMetadata(
-                        name,
-                        readWrite,
+                result = new IntrospectedProperty(name, Kind.EVENT_HANDLER, null, readWrite,
                         null,
                         inspectorPath);
 //            The following doesn't work because FXMLLoader is only prepared to load 'function' types
@@ -287,10 +266,8 @@ class MetadataIntrospector {
                         if (genericType instanceof Class) {
                             Class genericClass = (Class) parameterizedType.getActualTypeArguments()[0];
                             if (genericClass.equals(java.lang.String.class)) {
-                                result = new StringListPropertyMetadata(
-                                        name,
-                                        readWrite,
-                                        Collections.emptyList(),
+                                result = new IntrospectedProperty(name, Kind.STRING_LIST, null, readWrite,
+                                        null,
                                         inspectorPath);
                             }
                         }
@@ -34,8 +34,10 @@ package com.oracle.javafx.scenebuilder.kit.metadata.klass;
 
 import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
 import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -47,14 +49,33 @@ public class ComponentClassMetadata extends ClassMetadata {
     private final Set<PropertyMetadata> properties = new HashSet<>();
     private final boolean freeChildPositioning;
     private final ComponentClassMetadata parentMetadata;
+    private volatile PropertyInitializer propertyInitializer;
+    private volatile Map<PropertyName, PropertyMetadata> flattenedProperties;
 
     public ComponentClassMetadata(Class<?> klass, ComponentClassMetadata parentMetadata) {
+        this(klass, parentMetadata, null);
+    }
+
+    /**
+     * Creates a class metadata whose properties are added by the specified
+     * initializer the first time they are requested.
+     * 
+     * @param klass the component class (never null)
+     * @param parentMetadata metadata of the ancestor class (may be null)
+     * @param propertyInitializer an initializer (may be null)
+     */
+    public ComponentClassMetadata(Class<?> klass, ComponentClassMetadata parentMetadata, 
+            PropertyInitializer propertyInitializer) {
         super(klass);
         this.parentMetadata = parentMetadata;
+        this.propertyInitializer = propertyInitializer;
         this.freeChildPositioning = false; // TODO(elp)
     }
 
     public Set<PropertyMetadata> getProperties() {
+        if (propertyInitializer != null) {
+            initializeProperties();
+        }
         return properties;
     }
 
@@ -89,21 +110,43 @@ public class ComponentClassMetadata extends ClassMetadata {
     }
     
     public PropertyMetadata lookupProperty(PropertyName propertyName) {
-        PropertyMetadata result = null;
-        
         assert propertyName != null;
         
-        final Iterator<PropertyMetadata> it = properties.iterator();
-        while ((result == null) && it.hasNext()) {
-            final PropertyMetadata pm = it.next();
-            if (pm.getName().equals(propertyName)) {
-                result = pm;
+        final PropertyMetadata result = getFlattenedProperties().get(propertyName);
+        return ((result != null) && getProperties().contains(result)) ? result : null;
+    }
+    
+    /**
+     * Returns the properties of this class and of its ancestors, indexed
+     * by name. A property declared by this class hides the ancestor ones
+     * with the same name.
+     * 
+     * The map is computed on first call: properties of this class and of
+     * its ancestors must not change afterwards.
+     * 
+     * @return an unmodifiable map (never null).
+     */
+    public Map<PropertyName, PropertyMetadata> getFlattenedProperties() {
+        Map<PropertyName, PropertyMetadata> result = flattenedProperties;
+        if (result == null) {
+            final Map<PropertyName, PropertyMetadata> map = new HashMap<>();
+            ComponentClassMetadata classMetadata = this;
+            while (classMetadata != null) {
+                for (PropertyMetadata pm : classMetadata.getProperties()) {
+                    map.putIfAbsent(pm.getName(), pm);
+                }
+                classMetadata = classMetadata.getParentMetadata();
             }
+            result = Collections.unmodifiableMap(map);
+            flattenedProperties = result;
         }
-        
         return result;
     }
 
+    public interface PropertyInitializer {
+        public void initializeProperties(ComponentClassMetadata classMetadata, Set<PropertyMetadata> properties);
+    }
+
     /*
      * Object
      */
@@ -123,6 +166,19 @@ public class ComponentClassMetadata extends ClassMetadata {
      * Private
      */
     
+    private void initializeProperties() {
+        final PropertyInitializer initializer = propertyInitializer;
+        if (initializer != null) {
+            // Initializers share state between classes: one lock per initializer
+            synchronized (initializer) {
+                if (propertyInitializer != null) {
+                    initializer.initializeProperties(this, properties);
+                    propertyInitializer = null;
+                }
+            }
+        }
+    }
+    
     private static PropertyName getSubComponentProperty(Class<?> componentClass) {
         final PropertyName result;
         
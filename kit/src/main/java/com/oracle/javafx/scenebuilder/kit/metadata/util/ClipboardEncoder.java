@@ -70,7 +70,7 @@ public class ClipboardEncoder {
         final FXOMArchive fxomArchive = new FXOMArchive(fxomObjects);
         
         // SB_DATA_FORMAT
-        result.put(SB_DATA_FORMAT, new FXOMArchive(fxomObjects));
+        result.put(SB_DATA_FORMAT, fxomArchive);
             
         // FXML_DATA_FORMAT
         final FXOMArchive.Entry entry0 = fxomArchive.getEntries().get(0);
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Getter and setter of a property, resolved once per (class, property).
+ * 
+ * Bean properties are resolved with java.beans.Introspector. Static 
+ * properties (like GridPane.rowIndex) are resolved like FXMLLoader does:
+ * with the static getXxx(node) / setXxx(node, value) methods of the 
+ * residence class.
+ * 
+ * Accessors are invoked through method handles. Methods which are not 
+ * reachable by public lookup (eg public methods of non public classes) are 
+ * invoked with reflection.
+ */
+class PropertyAccessor {
+    
+    private static final MethodType GETTER_TYPE 
+            = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE 
+            = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    // Marks properties which cannot be found (ConcurrentHashMap rejects null)
+    private static final PropertyAccessor MISSING 
+            = new PropertyAccessor("", false, null, null); //NOI18N
+    
+    private static final ClassValue<Map<String, PropertyAccessor>> beanAccessors 
+            = new AccessorMap();
+    private static final ClassValue<Map<String, PropertyAccessor>> staticAccessors 
+            = new AccessorMap();
+    
+    private final String propertyName;
+    private final boolean staticProperty;
+    private final Method readMethod;
+    private final Method writeMethod;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    
+    private PropertyAccessor(String propertyName, boolean staticProperty, 
+            Method readMethod, Method writeMethod) {
+        this.propertyName = propertyName;
+        this.staticProperty = staticProperty;
+        this.readMethod = readMethod;
+        this.writeMethod = writeMethod;
+        this.getter = unreflect(readMethod, GETTER_TYPE);
+        this.setter = unreflect(writeMethod, SETTER_TYPE);
+    }
+    
+    /**
+     * Returns the accessor of a bean property.
+     * 
+     * @param beanClass a class (never null)
+     * @param propertyName a property name (never null)
+     * @return the accessor or null if beanClass has no such property.
+     */
+    public static PropertyAccessor getBeanAccessor(Class<?> beanClass, String propertyName) {
+        assert beanClass != null;
+        assert propertyName != null;
+        
+        final PropertyAccessor result = beanAccessors.get(beanClass)
+                .computeIfAbsent(propertyName, n -> makeBeanAccessor(beanClass, n));
+        return (result == MISSING) ? null : result;
+    }
+    
+    /**
+     * Returns the accessor of a static property.
+     * 
+     * @param residenceClass the class defining the property (never null)
+     * @param propertyName a property name (never null)
+     * @return the accessor or null if residenceClass has no such property.
+     */
+    public static PropertyAccessor getStaticAccessor(Class<?> residenceClass, String propertyName) {
+        assert residenceClass != null;
+        assert propertyName != null;
+        
+        final PropertyAccessor result = staticAccessors.get(residenceClass)
+                .computeIfAbsent(propertyName, n -> makeStaticAccessor(residenceClass, n));
+        return (result == MISSING) ? null : result;
+    }
+    
+    public boolean isReadable() {
+        return readMethod != null;
+    }
+    
+    public boolean isWritable() {
+        return writeMethod != null;
+    }
+    
+    public Object getValue(Object object) {
+        final Object result;
+        
+        if (readMethod == null) {
+            throw new RuntimeException(propertyName + " is not readable"); //NOI18N
+        }
+        try {
+            if (getter != null) {
+                result = getter.invokeExact(object);
+            } else if (staticProperty) {
+                result = readMethod.invoke(null, object);
+            } else {
+                result = readMethod.invoke(object);
+            }
+        } catch(InvocationTargetException x) {
+            // Same as method handles: the target exception is wrapped
+            throw new RuntimeException(x.getCause());
+        } catch(Throwable x) {
+            throw new RuntimeException(x);
+        }
+        
+        return result;
+    }
+    
+    public void setValue(Object object, Object value) {
+        if (writeMethod == null) {
+            throw new RuntimeException(propertyName + " is read only"); //NOI18N
+        }
+        try {
+            if (setter != null) {
+                setter.invokeExact(object, value);
+            } else if (staticProperty) {
+                writeMethod.invoke(null, object, value);
+            } else {
+                writeMethod.invoke(object, value);
+            }
+        } catch(InvocationTargetException x) {
+            // Same as method handles: the target exception is wrapped
+            throw new RuntimeException(x.getCause());
+        } catch(Throwable x) {
+            throw new RuntimeException(x);
+        }
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private static PropertyAccessor makeBeanAccessor(Class<?> beanClass, String propertyName) {
+        PropertyAccessor result = MISSING;
+        
+        try {
+            for (PropertyDescriptor d : Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+                if (d.getName().equals(propertyName)) {
+                    result = new PropertyAccessor(propertyName, false, 
+                            d.getReadMethod(), d.getWriteMethod());
+                    break;
+                }
+            }
+        } catch(IntrospectionException x) {
+            throw new RuntimeException(x);
+        }
+        
+        return result;
+    }
+    
+    private static PropertyAccessor makeStaticAccessor(Class<?> residenceClass, String propertyName) {
+        final String suffix = propertyName.isEmpty() ? propertyName
+                : propertyName.substring(0, 1).toUpperCase(Locale.ROOT) + propertyName.substring(1);
+        Method readMethod = null;
+        Method writeMethod = null;
+        
+        for (Method m : residenceClass.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers())) {
+                final int parameterCount = m.getParameterCount();
+                if ((readMethod == null) && (parameterCount == 1)
+                        && (m.getName().equals("get" + suffix) || m.getName().equals("is" + suffix))) { //NOI18N
+                    readMethod = m;
+                } else if ((writeMethod == null) && (parameterCount == 2)
+                        && m.getName().equals("set" + suffix)) { //NOI18N
+                    writeMethod = m;
+                }
+            }
+        }
+        
+        final PropertyAccessor result;
+        if ((readMethod == null) && (writeMethod == null)) {
+            result = MISSING;
+        } else {
+            result = new PropertyAccessor(propertyName, true, readMethod, writeMethod);
+        }
+        
+        return result;
+    }
+    
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        MethodHandle result;
+        
+        if (method == null) {
+            result = null;
+        } else {
+            try {
+                // Static and instance methods both take the object as first argument
+                result = MethodHandles.publicLookup().unreflect(method).asType(type);
+            } catch(IllegalAccessException | RuntimeException x) {
+                // Falls back on reflection
+                result = null;
+            }
+        }
+        
+        return result;
+    }
+    
+    private static class AccessorMap extends ClassValue<Map<String, PropertyAccessor>> {
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    }
+}
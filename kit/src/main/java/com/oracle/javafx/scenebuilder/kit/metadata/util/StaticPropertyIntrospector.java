@@ -53,12 +53,20 @@ class StaticPropertyIntrospector {
     }
     
     public Object getValue(String propertyName) {
-        // So far we have no use for this : we'll implement when needed.
-        throw new UnsupportedOperationException("Not yet implemented"); //NOI18N
+        return findAccessor(propertyName).getValue(targetObject);
     }
     
     public void setValue(String propertyName, Object value) {
-        // So far we have no use for this : we'll implement when needed.
-        throw new UnsupportedOperationException("Not yet implemented"); //NOI18N
+        findAccessor(propertyName).setValue(targetObject, value);
+    }
+    
+    private PropertyAccessor findAccessor(String propertyName) {
+        final PropertyAccessor result 
+                = PropertyAccessor.getStaticAccessor(residenceClass, propertyName);
+        if (result == null) {
+            throw new RuntimeException(residenceClass.getSimpleName() 
+                    + "." + propertyName + " not found"); //NOI18N
+        }
+        return result;
     }
 }
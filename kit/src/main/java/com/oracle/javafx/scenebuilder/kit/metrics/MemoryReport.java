@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimate of the memory retained by an open document, broken down by
+ * category. Sizes are computed with heuristics (no instrumentation agent):
+ * they are meant to compare documents with each other, not to be exact.
+ */
+public class MemoryReport {
+    
+    public enum Category {
+        FXOM_TREE("FXOM tree"), //NOI18N
+        GLUE_TREE("glue tree"), //NOI18N
+        SCENE_GRAPH("scene graph"), //NOI18N
+        SAMPLE_DATA("sample data"), //NOI18N
+        UNDO_STACK("undo stack"), //NOI18N
+        IMAGES("images"); //NOI18N
+        
+        private final String label;
+        
+        Category(String label) {
+            this.label = label;
+        }
+        
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+    
+    private final String name;
+    private final Map<Category, Long> bytes = new EnumMap<>(Category.class);
+    private int fxomObjectCount;
+    private int propertyCount;
+    private int sceneGraphNodeCount;
+    private int jobCount;
+    private int imageCount;
+    
+    public MemoryReport(String name) {
+        assert name != null;
+        this.name = name;
+        for (Category c : Category.values()) {
+            bytes.put(c, 0L);
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getBytes(Category category) {
+        assert category != null;
+        return bytes.get(category);
+    }
+    
+    public void addBytes(Category category, long count) {
+        assert category != null;
+        assert count >= 0;
+        bytes.put(category, bytes.get(category) + count);
+    }
+    
+    public long getTotalBytes() {
+        long result = 0;
+        for (long b : bytes.values()) {
+            result += b;
+        }
+        return result;
+    }
+
+    public int getFxomObjectCount() {
+        return fxomObjectCount;
+    }
+
+    public void setFxomObjectCount(int fxomObjectCount) {
+        this.fxomObjectCount = fxomObjectCount;
+    }
+
+    public int getPropertyCount() {
+        return propertyCount;
+    }
+
+    public void setPropertyCount(int propertyCount) {
+        this.propertyCount = propertyCount;
+    }
+
+    public int getSceneGraphNodeCount() {
+        return sceneGraphNodeCount;
+    }
+
+    public void setSceneGraphNodeCount(int sceneGraphNodeCount) {
+        this.sceneGraphNodeCount = sceneGraphNodeCount;
+    }
+
+    public int getJobCount() {
+        return jobCount;
+    }
+
+    public void setJobCount(int jobCount) {
+        this.jobCount = jobCount;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(int imageCount) {
+        this.imageCount = imageCount;
+    }
+    
+    /*
+     * Object
+     */
+    
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        result.append(String.format("%s: %,d KB%n", name, getTotalBytes() / 1024)); //NOI18N
+        for (Category c : Category.values()) {
+            result.append(String.format("    %-16s %,12d KB%n", c, bytes.get(c) / 1024)); //NOI18N
+        }
+        result.append(String.format("    %,d FXOM objects, %,d properties, %,d scene graph nodes, " //NOI18N
+                + "%,d jobs, %,d images%n", //NOI18N
+                fxomObjectCount, propertyCount, sceneGraphNodeCount, jobCount, imageCount));
+        return result.toString();
+    }
+}
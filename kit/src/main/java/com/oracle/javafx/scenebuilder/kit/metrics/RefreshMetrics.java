@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process registry of refresh durations: one entry per refresh phase
+ * and one entry per sceneGraphRevision listener. Entries are kept in the
+ * order they are first recorded.
+ */
+public class RefreshMetrics {
+    
+    private static final String LISTENER_PREFIX = "listener "; //NOI18N
+    private static final RefreshMetrics singleton = new RefreshMetrics();
+    
+    private final Map<String, Statistics> statistics = new LinkedHashMap<>();
+    
+    public static RefreshMetrics getMetrics() {
+        return singleton;
+    }
+    
+    public void recordPhase(RefreshPhase phase, long durationNanos) {
+        assert phase != null;
+        record(phase.toString(), durationNanos);
+    }
+    
+    public void recordListener(String listenerName, long durationNanos) {
+        assert listenerName != null;
+        record(LISTENER_PREFIX + listenerName, durationNanos);
+    }
+    
+    /**
+     * Returns a snapshot of the statistics recorded so far.
+     * 
+     * @return a list of statistics (never null).
+     */
+    public synchronized List<Statistics> getStatistics() {
+        final List<Statistics> result = new ArrayList<>();
+        for (Statistics s : statistics.values()) {
+            result.add(new Statistics(s));
+        }
+        return result;
+    }
+    
+    public synchronized void reset() {
+        statistics.clear();
+    }
+    
+    /*
+     * Object
+     */
+    
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        result.append(String.format("%-48s %8s %10s %10s %10s%n", //NOI18N
+                "", "count", "mean ms", "max ms", "last ms")); //NOI18N
+        for (Statistics s : getStatistics()) {
+            result.append(String.format("%-48s %8d %10.3f %10.3f %10.3f%n", //NOI18N
+                    s.getName(), s.getCount(), 
+                    s.getMeanNanos() / 1e6, s.getMaxNanos() / 1e6, s.getLastNanos() / 1e6));
+        }
+        return result.toString();
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private synchronized void record(String name, long durationNanos) {
+        statistics.computeIfAbsent(name, Statistics::new).add(durationNanos);
+    }
+    
+    
+    public static class Statistics {
+        private final String name;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long lastNanos;
+        
+        private Statistics(String name) {
+            this.name = name;
+        }
+        
+        private Statistics(Statistics source) {
+            this.name = source.name;
+            this.count = source.count;
+            this.totalNanos = source.totalNanos;
+            this.maxNanos = source.maxNanos;
+            this.lastNanos = source.lastNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getLastNanos() {
+            return lastNanos;
+        }
+        
+        public double getMeanNanos() {
+            return (count == 0) ? 0.0 : (double) totalNanos / count;
+        }
+        
+        private void add(long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            maxNanos = Math.max(maxNanos, durationNanos);
+            lastNanos = durationNanos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metrics;
+
+/**
+ * Phases of an FXOM scene graph refresh.
+ */
+public enum RefreshPhase {
+    /** Whole refresh, from FXOM changes to revision listeners */
+    REFRESH,
+    /** FXOM changes applied to the live scene graph (delta refresh) */
+    DELTA_APPLY,
+    /** FXML text produced from glue (full refresh) */
+    SERIALIZATION,
+    /** Glue of the reloaded text copied from document glue (full refresh) */
+    GLUE_COPY,
+    /** FXMLLoader run on the FXML text (full refresh) */
+    FXML_LOAD,
+    /** Scene graph objects transferred to the document tree (full refresh) */
+    TREE_SWAP,
+    /** TransientStateBackup restored */
+    STATE_RESTORE,
+    /** SplitPane.dividerPositions synchronized with FXOM */
+    DIVIDER_SYNC,
+    /** Sample data assigned to the scene graph */
+    SAMPLE_DATA,
+    /** sceneGraphRevision listeners notified */
+    REVISION_FANOUT
+}
@@ -211,10 +211,7 @@ public final class PreviewWindowController extends AbstractWindowController {
         // We clone the FXOMDocument
         FXOMDocument clone;
         try {
-            clone = new FXOMDocument(fxomDocument.getFxmlText(false),
-                    fxomDocument.getLocation(),
-                    fxomDocument.getClassLoader(),
-                    fxomDocument.getResources());
+            clone = fxomDocument.loadCopy();
             clone.setSampleDataEnabled(fxomDocument.isSampleDataEnabled());
         } catch (IOException ex) {
             throw new RuntimeException("Bug in PreviewWindowController::openDialog", ex); //NOI18N
@@ -277,10 +274,7 @@ public final class PreviewWindowController extends AbstractWindowController {
                     FXOMDocument clone;
 
                     try {
-                        clone = new FXOMDocument(fxomDocument.getFxmlText(false),
-                                fxomDocument.getLocation(),
-                                fxomDocument.getClassLoader(),
-                                fxomDocument.getResources());
+                        clone = fxomDocument.loadCopy();
                         clone.setSampleDataEnabled(fxomDocument.isSampleDataEnabled());
                     } catch (IOException ex) {
                         throw new RuntimeException("Bug in PreviewWindowController::requestUpdate", ex); //NOI18N
@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.corpus;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueElement;
+import com.oracle.javafx.scenebuilder.kit.fxom.glue.GlueInstruction;
+import com.oracle.javafx.scenebuilder.kit.library.BuiltinLibrary;
+import com.oracle.javafx.scenebuilder.kit.library.LibraryItem;
+import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import javafx.scene.control.Label;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+
+/**
+ * Generates FXML documents of arbitrary size for scaling and stress tests.
+ * 
+ * Leaves are the simple controls of {@link BuiltinLibrary} (as dropped from
+ * the library panel). They are laid out in a tree of containers whose 
+ * sub-component properties are looked up in {@link Metadata}. Generation
+ * is deterministic for a given seed.
+ * 
+ * The root VBox keeps adding children until the node count is reached:
+ * depth and fan-out only bound nested containers.
+ */
+public class FXMLCorpusGenerator {
+    
+    public enum Container {
+        GRID_PANE(GridPane.class),
+        TAB_PANE(TabPane.class),
+        SPLIT_PANE(SplitPane.class),
+        TABLE_VIEW(TableView.class),
+        VBOX(VBox.class);
+        
+        private final Class<?> componentClass;
+        
+        private Container(Class<?> componentClass) {
+            this.componentClass = componentClass;
+        }
+        
+        public Class<?> getComponentClass() {
+            return componentClass;
+        }
+    }
+    
+    private static final int GRID_COLUMN_COUNT = 3;
+    private static final PropertyName TAB_CONTENT = new PropertyName("content"); //NOI18N
+    private static final PropertyName LABEL_FOR = new PropertyName("labelFor"); //NOI18N
+    private static final PropertyName ROW_INDEX = new PropertyName("rowIndex", GridPane.class); //NOI18N
+    private static final PropertyName COLUMN_INDEX = new PropertyName("columnIndex", GridPane.class); //NOI18N
+    
+    /* Library controls too heavy or too environment dependent for a corpus */
+    private static final Set<String> EXCLUDED_LEAVES = new HashSet<>(Arrays.asList(
+            "HTMLEditor", "MediaView", "WebView", "SwingNode")); //NOI18N
+    
+    private int nodeCount = 100;
+    private int maxDepth = 4;
+    private int fanOut = 8;
+    private double containerRatio = 0.3;
+    private List<Container> containers = Arrays.asList(Container.values());
+    private double fxIdDensity = 0.25;
+    private double referenceDensity = 0.05;
+    private String includeSource;
+    private double includeDensity = 0.02;
+    private long seed;
+    
+    private final List<LibraryItem> leafItems = new ArrayList<>();
+    
+    /* Generation state */
+    private GlueDocument glue;
+    private Set<String> imports;
+    private List<String> nodeFxIds;
+    private Random random;
+    private int count;
+    private int fxIdIndex;
+    
+    public FXMLCorpusGenerator() {
+        for (LibraryItem item : BuiltinLibrary.getLibrary().getItems()) {
+            if (BuiltinLibrary.TAG_CONTROLS.equals(item.getSection()) && isSimpleLeaf(item)) {
+                leafItems.add(item);
+            }
+        }
+        assert leafItems.isEmpty() == false;
+    }
+    
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Sets the number of FXOM objects (instances, collections and intrinsics)
+     * of the generated documents. The generated count may exceed it by a few
+     * objects: the last leaf or container is always complete.
+     * 
+     * @param nodeCount a positive count
+     */
+    public void setNodeCount(int nodeCount) {
+        assert nodeCount >= 1;
+        this.nodeCount = nodeCount;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        assert maxDepth >= 1;
+        this.maxDepth = maxDepth;
+    }
+
+    public int getFanOut() {
+        return fanOut;
+    }
+
+    public void setFanOut(int fanOut) {
+        assert fanOut >= 1;
+        this.fanOut = fanOut;
+    }
+
+    public double getContainerRatio() {
+        return containerRatio;
+    }
+
+    public void setContainerRatio(double containerRatio) {
+        assert (0.0 <= containerRatio) && (containerRatio <= 1.0);
+        this.containerRatio = containerRatio;
+    }
+
+    public List<Container> getContainers() {
+        return Collections.unmodifiableList(containers);
+    }
+
+    public void setContainers(Container... containers) {
+        assert containers.length >= 1;
+        this.containers = Arrays.asList(containers);
+    }
+
+    public double getFxIdDensity() {
+        return fxIdDensity;
+    }
+
+    public void setFxIdDensity(double fxIdDensity) {
+        assert (0.0 <= fxIdDensity) && (fxIdDensity <= 1.0);
+        this.fxIdDensity = fxIdDensity;
+    }
+
+    public double getReferenceDensity() {
+        return referenceDensity;
+    }
+
+    /**
+     * Sets the ratio of leaves which are labels referencing (with 
+     * fx:reference) a node generated before them.
+     * 
+     * @param referenceDensity a ratio between 0 and 1
+     */
+    public void setReferenceDensity(double referenceDensity) {
+        assert (0.0 <= referenceDensity) && (referenceDensity <= 1.0);
+        this.referenceDensity = referenceDensity;
+    }
+
+    public String getIncludeSource() {
+        return includeSource;
+    }
+
+    /**
+     * Sets the source of the fx:include elements. The generated document
+     * must then be loaded from a location where this source can be resolved
+     * (see {@link #makeIncludedFxmlText()}). If null (default), generated
+     * documents have no fx:include.
+     * 
+     * @param includeSource null or a path relative to the generated document
+     */
+    public void setIncludeSource(String includeSource) {
+        this.includeSource = includeSource;
+    }
+
+    public double getIncludeDensity() {
+        return includeDensity;
+    }
+
+    public void setIncludeDensity(double includeDensity) {
+        assert (0.0 <= includeDensity) && (includeDensity <= 1.0);
+        this.includeDensity = includeDensity;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Generates an FXML document with the current settings.
+     * 
+     * @return an FXML text.
+     * @throws IOException if a library item cannot be parsed
+     */
+    public String generate() throws IOException {
+        glue = new GlueDocument();
+        imports = new TreeSet<>();
+        nodeFxIds = new ArrayList<>();
+        random = new Random(seed);
+        count = 0;
+        fxIdIndex = 0;
+        
+        final GlueElement rootElement = makeRoot();
+        glue.setRootElement(rootElement);
+        rootElement.getAttributes().put("xmlns:fx", "http://javafx.com/fxml/1"); //NOI18N
+        for (String i : imports) {
+            glue.getHeader().add(new GlueInstruction(glue, "import", i)); //NOI18N
+        }
+        glue.updateIndent();
+        
+        final String result = glue.toString();
+        glue = null;
+        return result;
+    }
+    
+    /**
+     * Returns the number of FXOM objects of the last generated document.
+     * 
+     * @return a count.
+     */
+    public int getGeneratedNodeCount() {
+        return count;
+    }
+    
+    /**
+     * Returns the FXML text to be saved at the include source.
+     * 
+     * @return an FXML text.
+     */
+    public static String makeIncludedFxmlText() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n" //NOI18N
+                + "<?import javafx.scene.control.Button?>\n" //NOI18N
+                + "<?import javafx.scene.layout.HBox?>\n\n" //NOI18N
+                + "<HBox xmlns:fx=\"http://javafx.com/fxml/1\">\n" //NOI18N
+                + "   <children>\n" //NOI18N
+                + "      <Button text=\"Included\" />\n" //NOI18N
+                + "   </children>\n" //NOI18N
+                + "</HBox>\n"; //NOI18N
+    }
+    
+    
+    /*
+     * Private
+     */
+    
+    private GlueElement makeRoot() throws IOException {
+        final GlueElement result = makeElement(VBox.class);
+        final GlueElement children = makePropertyElement(VBox.class, result);
+        while (count < nodeCount) {
+            makeChild(1).addToParent(children);
+        }
+        return result;
+    }
+    
+    private GlueElement makeChild(int depth) throws IOException {
+        final GlueElement result;
+        if ((depth < maxDepth) && (random.nextDouble() < containerRatio)) {
+            result = makeContainer(containers.get(random.nextInt(containers.size())), depth);
+        } else if ((nodeFxIds.isEmpty() == false) && (random.nextDouble() < referenceDensity)) {
+            result = makeReferencingLabel();
+        } else if ((includeSource != null) && (random.nextDouble() < includeDensity)) {
+            result = makeInclude();
+        } else {
+            result = makeLeaf();
+        }
+        return result;
+    }
+    
+    private GlueElement makeContainer(Container container, int depth) throws IOException {
+        final Class<?> componentClass = container.getComponentClass();
+        final GlueElement result = makeElement(componentClass);
+        final GlueElement items = makePropertyElement(componentClass, result);
+        
+        // At least one child: FXOM has no empty collection properties
+        for (int i = 0; (i < fanOut) && ((i == 0) || (count < nodeCount)); i++) {
+            final GlueElement child;
+            switch (container) {
+                case GRID_PANE:
+                    child = makeChild(depth+1);
+                    setStaticProperty(child, ROW_INDEX, i / GRID_COLUMN_COUNT);
+                    setStaticProperty(child, COLUMN_INDEX, i % GRID_COLUMN_COUNT);
+                    break;
+                case TAB_PANE:
+                    child = makeElement(Tab.class);
+                    child.getAttributes().put("text", "Tab " + i); //NOI18N
+                    assert Metadata.getMetadata().queryProperty(Tab.class, TAB_CONTENT) != null;
+                    final GlueElement content = new GlueElement(glue, TAB_CONTENT.getName());
+                    content.addToParent(child);
+                    makeChild(depth+1).addToParent(content);
+                    break;
+                case TABLE_VIEW:
+                    child = makeElement(TableColumn.class);
+                    child.getAttributes().put("prefWidth", "75.0"); //NOI18N
+                    child.getAttributes().put("text", "Column " + i); //NOI18N
+                    break;
+                default:
+                    child = makeChild(depth+1);
+                    break;
+            }
+            child.addToParent(items);
+        }
+        
+        // Referenced only once complete: fx:reference cannot point to an ancestor
+        addReferenceCandidate(result);
+        
+        return result;
+    }
+    
+    private GlueElement makeLeaf() throws IOException {
+        final LibraryItem item = leafItems.get(random.nextInt(leafItems.size()));
+        final GlueDocument itemGlue = new GlueDocument(item.getFxmlText());
+        for (GlueInstruction i : itemGlue.collectInstructions("import")) { //NOI18N
+            imports.add(i.getData());
+        }
+        final GlueElement result = itemGlue.getRootElement();
+        result.getAttributes().remove("xmlns:fx"); //NOI18N
+        result.getAttributes().remove("xmlns"); //NOI18N
+        result.moveToDocument(glue);
+        count++;
+        assignFxId(result);
+        addReferenceCandidate(result);
+        return result;
+    }
+    
+    private GlueElement makeReferencingLabel() {
+        assert Metadata.getMetadata().queryProperty(Label.class, LABEL_FOR) != null;
+        final GlueElement result = makeElement(Label.class);
+        result.getAttributes().put("text", "Label"); //NOI18N
+        final GlueElement labelFor = new GlueElement(glue, LABEL_FOR.getName());
+        labelFor.addToParent(result);
+        final GlueElement reference = new GlueElement(glue, "fx:reference"); //NOI18N
+        reference.getAttributes().put("source", nodeFxIds.get(random.nextInt(nodeFxIds.size()))); //NOI18N
+        reference.addToParent(labelFor);
+        count++; // fx:reference is an FXOM object
+        return result;
+    }
+    
+    private GlueElement makeInclude() {
+        final GlueElement result = new GlueElement(glue, "fx:include"); //NOI18N
+        result.getAttributes().put("source", includeSource); //NOI18N
+        count++;
+        return result;
+    }
+    
+    private GlueElement makeElement(Class<?> componentClass) {
+        final GlueElement result = new GlueElement(glue, componentClass.getSimpleName());
+        imports.add(componentClass.getName());
+        count++;
+        assignFxId(result);
+        return result;
+    }
+    
+    private GlueElement makePropertyElement(Class<?> componentClass, GlueElement parent) {
+        final PropertyName name = Metadata.getMetadata()
+                .queryComponentMetadata(componentClass).getSubComponentProperty();
+        assert name != null : componentClass;
+        final GlueElement result = new GlueElement(glue, name.getName());
+        result.addToParent(parent);
+        return result;
+    }
+    
+    private void assignFxId(GlueElement element) {
+        if (random.nextDouble() < fxIdDensity) {
+            final String fxId = Character.toLowerCase(element.getTagName().charAt(0))
+                    + element.getTagName().substring(1) + (fxIdIndex++);
+            element.getAttributes().put("fx:id", fxId); //NOI18N
+        }
+    }
+    
+    private void addReferenceCandidate(GlueElement node) {
+        final String fxId = node.getAttributes().get("fx:id"); //NOI18N
+        if (fxId != null) {
+            nodeFxIds.add(fxId);
+        }
+    }
+    
+    private static void setStaticProperty(GlueElement element, PropertyName name, int value) {
+        assert name.getResidenceClass() != null;
+        if (value != 0) {
+            final String attribute = name.getResidenceClass().getSimpleName() + "." + name.getName(); //NOI18N
+            element.getAttributes().put(attribute, String.valueOf(value));
+        }
+    }
+    
+    private static boolean isSimpleLeaf(LibraryItem item) {
+        boolean result;
+        try {
+            final GlueElement rootElement = new GlueDocument(item.getFxmlText()).getRootElement();
+            result = (rootElement != null)
+                    && rootElement.getChildren().isEmpty()
+                    && (EXCLUDED_LEAVES.contains(rootElement.getTagName()) == false);
+        } catch(IOException x) {
+            result = false;
+        }
+        return result;
+    }
+}
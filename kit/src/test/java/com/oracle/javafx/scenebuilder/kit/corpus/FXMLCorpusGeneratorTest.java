@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.corpus;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javafx.embed.swing.JFXPanel;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link FXMLCorpusGenerator}.
+ */
+public class FXMLCorpusGeneratorTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testGeneratedDocumentLoads() throws IOException {
+        final FXMLCorpusGenerator generator = new FXMLCorpusGenerator();
+        generator.setNodeCount(500);
+        generator.setSeed(42);
+        final String fxmlText = generator.generate();
+
+        final FXOMDocument fxomDocument = new FXOMDocument(fxmlText, null, null, null);
+        assertNotNull(fxomDocument.getSceneGraphRoot());
+        assertEquals(generator.getGeneratedNodeCount(), countObjects(fxomDocument.getFxomRoot()));
+        assertTrue(generator.getGeneratedNodeCount() >= 500);
+        assertTrue(generator.getGeneratedNodeCount() < 500 + 3 * generator.getMaxDepth());
+    }
+
+    @Test
+    public void testGenerationIsDeterministic() throws IOException {
+        final FXMLCorpusGenerator generator = new FXMLCorpusGenerator();
+        generator.setSeed(7);
+        final String first = generator.generate();
+        final String second = generator.generate();
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testGeneratedDocumentWithIncludesLoads() throws IOException {
+        final File includedFile = testFolder.newFile("Included.fxml");
+        Files.write(includedFile.toPath(),
+                FXMLCorpusGenerator.makeIncludedFxmlText().getBytes(StandardCharsets.UTF_8));
+
+        final FXMLCorpusGenerator generator = new FXMLCorpusGenerator();
+        generator.setNodeCount(200);
+        generator.setIncludeSource(includedFile.getName());
+        generator.setIncludeDensity(0.2);
+        final String fxmlText = generator.generate();
+        assertTrue(fxmlText.contains("fx:include"));
+
+        final File mainFile = testFolder.newFile("Main.fxml");
+        final FXOMDocument fxomDocument 
+                = new FXOMDocument(fxmlText, mainFile.toURI().toURL(), null, null);
+        assertNotNull(fxomDocument.getSceneGraphRoot());
+        assertEquals(generator.getGeneratedNodeCount(), countObjects(fxomDocument.getFxomRoot()));
+    }
+
+    private static int countObjects(FXOMObject object) {
+        int result = 1;
+        for (FXOMObject child : object.getChildObjects()) {
+            result += countObjects(child);
+        }
+        return result;
+    }
+}
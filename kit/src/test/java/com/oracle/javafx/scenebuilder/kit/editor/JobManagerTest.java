@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.editor;
+
+import com.oracle.javafx.scenebuilder.kit.editor.job.Job;
+import com.oracle.javafx.scenebuilder.kit.editor.job.atomic.ModifyObjectJob;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMInstance;
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMPropertyT;
+import com.oracle.javafx.scenebuilder.kit.metadata.Metadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.ValuePropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link JobManager}.
+ */
+public class JobManagerTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"first\" text=\"First\" />\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testJobsSeeCoalescedUpdates() throws IOException {
+        final EditorController editorController = new EditorController();
+        editorController.setFxmlText(FXML_TEXT, false);
+        final FXOMDocument fxomDocument = editorController.getFxomDocument();
+        assertTrue(fxomDocument.isRefreshCoalescingEnabled());
+        
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+        final FXOMPropertyT text = (FXOMPropertyT) first.getProperties().get(new PropertyName("text"));
+        fxomDocument.beginUpdate();
+        text.setValue("Changed");
+        fxomDocument.endUpdate();
+        assertTrue(fxomDocument.isSceneGraphRefreshPending());
+        
+        final ReadTextJob job = new ReadTextJob(editorController, first);
+        editorController.getJobManager().push(job);
+        assertEquals("Changed", job.texts.get(0));
+        
+        fxomDocument.beginUpdate();
+        text.setValue("Changed again");
+        fxomDocument.endUpdate();
+        editorController.getJobManager().undo();
+        assertEquals("Changed again", job.texts.get(1));
+    }
+
+    @Test
+    public void testBurstOfModificationsRefreshesOnce() throws IOException {
+        final EditorController editorController = new EditorController();
+        editorController.setFxmlText(FXML_TEXT, false);
+        final FXOMDocument fxomDocument = editorController.getFxomDocument();
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+        final Button button = (Button) first.getSceneGraphObject();
+        final ValuePropertyMetadata textMetadata 
+                = Metadata.getMetadata().queryValueProperty(first, new PropertyName("text"));
+        final int revision = fxomDocument.sceneGraphRevisionProperty().get();
+        
+        // Eg text field committed on each key stroke
+        for (int i = 0; i < 5; i++) {
+            editorController.getJobManager().push(
+                    new ModifyObjectJob(first, textMetadata, "Changed" + i, editorController));
+        }
+        
+        assertTrue(fxomDocument.isSceneGraphRefreshPending());
+        assertEquals(revision, fxomDocument.sceneGraphRevisionProperty().get());
+        
+        editorController.flushSceneGraphRefresh();
+        
+        assertEquals(revision + 1, fxomDocument.sceneGraphRevisionProperty().get());
+        assertEquals("Changed4", button.getText());
+    }
+
+    /*
+     * Records the text of the button scene graph object each time it runs.
+     */
+    private static class ReadTextJob extends Job {
+        final FXOMInstance fxomInstance;
+        final List<String> texts = new ArrayList<>();
+
+        ReadTextJob(EditorController editorController, FXOMInstance fxomInstance) {
+            super(editorController);
+            this.fxomInstance = fxomInstance;
+        }
+
+        @Override
+        public boolean requiresConsistentSceneGraph() {
+            return true;
+        }
+
+        @Override
+        public boolean isExecutable() {
+            return true;
+        }
+
+        @Override
+        public void execute() {
+            texts.add(((Button) fxomInstance.getSceneGraphObject()).getText());
+        }
+
+        @Override
+        public void undo() {
+            execute();
+        }
+
+        @Override
+        public void redo() {
+            execute();
+        }
+
+        @Override
+        public String getDescription() {
+            return "Read Text"; //NOI18N
+        }
+    }
+}
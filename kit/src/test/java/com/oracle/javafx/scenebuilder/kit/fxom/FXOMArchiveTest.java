@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import javafx.scene.layout.VBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link FXOMArchive}.
+ */
+public class FXOMArchiveTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <VBox fx:id=\"panel\">\n"
+            + "         <children>\n"
+            + "            <Button fx:id=\"ok\" text=\"OK\" />\n"
+            + "         </children>\n"
+            + "      </VBox>\n"
+            + "   </children>\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testSnapshotDecodingMatchesTextDecoding() throws IOException {
+        final FXOMDocument sourceDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject panel = sourceDocument.searchWithFxId("panel");
+        final FXOMArchive archive = new FXOMArchive(Collections.singletonList(panel));
+
+        final FXOMDocument targetDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final List<FXOMObject> cloned = archive.decode(targetDocument);
+        final List<FXOMObject> parsed = archive.decodeFxmlText(targetDocument);
+
+        assertEquals(1, cloned.size());
+        assertTrue(cloned.get(0).getSceneGraphObject() instanceof VBox);
+        assertEquals(
+                FXOMNodes.newDocument(parsed.get(0)).getFxmlText(false),
+                FXOMNodes.newDocument(cloned.get(0)).getFxmlText(false));
+    }
+
+    @Test
+    public void testPastedSnapshotGetsItsOwnSceneGraph() throws IOException {
+        final FXOMDocument sourceDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject ok = sourceDocument.searchWithFxId("ok");
+        final FXOMArchive archive = new FXOMArchive(Collections.singletonList(ok));
+
+        final FXOMDocument targetDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject okClone = archive.decode(targetDocument).get(0);
+        final FXOMObject panel = targetDocument.searchWithFxId("panel");
+        targetDocument.beginUpdate();
+        final FXOMPropertyC children = (FXOMPropertyC) ((FXOMInstance) panel)
+                .getProperties().get(new PropertyName("children")); //NOI18N
+        okClone.addToParentProperty(-1, children);
+        targetDocument.endUpdate();
+
+        final Button okButton = (Button) okClone.getSceneGraphObject();
+        assertNotSame(ok.getSceneGraphObject(), okButton);
+        assertTrue(((VBox) panel.getSceneGraphObject()).getChildren().contains(okButton));
+        // fx:id conflicting with the target document has been renamed
+        assertTrue("ok".equals(okClone.getFxId()) == false); //NOI18N
+    }
+
+    @Test
+    public void testArchiveWithoutKeyIsDecodedFromText() throws Exception {
+        final FXOMDocument sourceDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject panel = sourceDocument.searchWithFxId("panel");
+        final FXOMArchive archive = copy(new FXOMArchive(Collections.singletonList(panel)));
+        // Same as an archive serialized by a build without the key field
+        final Field keyField = FXOMArchive.class.getDeclaredField("key"); //NOI18N
+        keyField.setAccessible(true);
+        keyField.set(archive, null);
+
+        final FXOMDocument targetDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final List<FXOMObject> decoded = archive.decode(targetDocument);
+
+        assertEquals(1, decoded.size());
+        final Object sceneGraphObject = decoded.get(0).getSceneGraphObject();
+        assertTrue(sceneGraphObject instanceof VBox);
+        // Not lent by the snapshot
+        assertNotSame(panel.getSceneGraphObject(), sceneGraphObject);
+    }
+    
+    private static FXOMArchive copy(FXOMArchive archive) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(archive);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            return (FXOMArchive) ois.readObject();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.IOException;
+import javafx.collections.ListChangeListener;
+import javafx.css.StyleOrigin;
+import javafx.css.StyleableProperty;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.AnchorPane;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link FXOMDeltaRefresher} driven through {@link FXOMDocument#endUpdate()}.
+ */
+public class FXOMDeltaRefreshTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"first\" text=\"First\" />\n"
+            + "      <Button fx:id=\"second\" text=\"Second\" />\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testPropertyValueChangeIsAppliedAsDelta() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+        final Object sceneGraphRoot = fxomDocument.getSceneGraphRoot();
+        final Button button = (Button) first.getSceneGraphObject();
+
+        fxomDocument.beginUpdate();
+        final FXOMPropertyT text = (FXOMPropertyT) first.getProperties().get(new PropertyName("text"));
+        text.setValue("Changed");
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.DELTA, fxomDocument.getLastRefreshMode());
+        assertSame(sceneGraphRoot, fxomDocument.getSceneGraphRoot());
+        assertSame(button, first.getSceneGraphObject());
+        assertEquals("Changed", button.getText());
+    }
+
+    @Test
+    public void testRemovedStyleablePropertyMatchesFullRefresh() throws IOException {
+        final String fxmlText = FXML_TEXT.replace("text=\"First\"", //NOI18N
+                "alignment=\"BOTTOM_RIGHT\" focusTraversable=\"false\" text=\"First\""); //NOI18N
+        final FXOMDocument fxomDocument = new FXOMDocument(fxmlText, null, null, null);
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+
+        fxomDocument.beginUpdate();
+        first.getProperties().get(new PropertyName("alignment")).removeFromParentInstance();
+        first.getProperties().get(new PropertyName("focusTraversable")).removeFromParentInstance();
+        fxomDocument.endUpdate();
+
+        // Reference : the same document loaded without the properties
+        final FXOMDocument reference = new FXOMDocument(FXML_TEXT, null, null, null);
+        final Button expected = (Button) reference.searchWithFxId("first").getSceneGraphObject();
+        final Button button = (Button) first.getSceneGraphObject();
+        assertEquals(expected.getAlignment(), button.getAlignment());
+        assertEquals(expected.isFocusTraversable(), button.isFocusTraversable());
+        // Properties are left to CSS : they must not hold a user value
+        assertNotEquals(StyleOrigin.USER, 
+                ((StyleableProperty<?>) button.alignmentProperty()).getStyleOrigin());
+        assertNotEquals(StyleOrigin.USER, 
+                ((StyleableProperty<?>) button.focusTraversableProperty()).getStyleOrigin());
+    }
+
+    @Test
+    public void testChildRemovalIsAppliedAsDelta() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+        final AnchorPane anchorPane = (AnchorPane) fxomDocument.getSceneGraphRoot();
+
+        fxomDocument.beginUpdate();
+        second.removeFromParentProperty();
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.DELTA, fxomDocument.getLastRefreshMode());
+        assertSame(anchorPane, fxomDocument.getSceneGraphRoot());
+        assertEquals(1, anchorPane.getChildren().size());
+        assertFalse(anchorPane.getChildren().contains(second.getSceneGraphObject()));
+    }
+
+    @Test
+    public void testNewObjectIsInstantiatedAsSubtree() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        final Object sceneGraphRoot = fxomDocument.getSceneGraphRoot();
+        final Object firstButton = first.getSceneGraphObject();
+
+        fxomDocument.beginUpdate();
+        final FXOMInstance newButton = new FXOMInstance(fxomDocument, Button.class);
+        final FXOMPropertyT text = new FXOMPropertyT(fxomDocument, new PropertyName("text"), "Third");
+        text.addToParentInstance(-1, newButton);
+        newButton.addToParentProperty(-1, first.getParentProperty());
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.SUBTREE, fxomDocument.getLastRefreshMode());
+        assertSame(sceneGraphRoot, fxomDocument.getSceneGraphRoot());
+        assertSame(firstButton, first.getSceneGraphObject());
+        final AnchorPane anchorPane = (AnchorPane) sceneGraphRoot;
+        assertEquals(3, anchorPane.getChildren().size());
+        assertSame(newButton.getSceneGraphObject(), anchorPane.getChildren().get(2));
+        assertEquals("Third", ((Button) newButton.getSceneGraphObject()).getText());
+    }
+
+    @Test
+    public void testSubtreeResolvesReferencesAgainstLiveDocument() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+
+        fxomDocument.beginUpdate();
+        final FXOMInstance newLabel = new FXOMInstance(fxomDocument, Label.class);
+        final FXOMPropertyT labelFor = new FXOMPropertyT(fxomDocument, new PropertyName("labelFor"), "$first");
+        labelFor.addToParentInstance(-1, newLabel);
+        newLabel.addToParentProperty(-1, first.getParentProperty());
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.SUBTREE, fxomDocument.getLastRefreshMode());
+        assertSame(first.getSceneGraphObject(), ((Label) newLabel.getSceneGraphObject()).getLabelFor());
+    }
+
+    @Test
+    public void testCoalescedUpdatesRefreshOnce() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+        final Button button = (Button) first.getSceneGraphObject();
+        final FXOMPropertyT text = (FXOMPropertyT) first.getProperties().get(new PropertyName("text"));
+        final int revision = fxomDocument.sceneGraphRevisionProperty().get();
+        fxomDocument.setRefreshCoalescingEnabled(true);
+
+        for (int i = 0; i < 3; i++) {
+            fxomDocument.beginUpdate();
+            text.setValue("Changed" + i);
+            fxomDocument.endUpdate();
+        }
+
+        assertTrue(fxomDocument.isSceneGraphRefreshPending());
+        assertEquals(revision, fxomDocument.sceneGraphRevisionProperty().get());
+        assertEquals("First", button.getText());
+
+        fxomDocument.flushSceneGraphRefresh();
+
+        assertFalse(fxomDocument.isSceneGraphRefreshPending());
+        assertEquals(revision + 1, fxomDocument.sceneGraphRevisionProperty().get());
+        assertEquals("Changed2", button.getText());
+    }
+
+    @Test
+    public void testCoalescingDoesNotDeferNewObjects() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        fxomDocument.setRefreshCoalescingEnabled(true);
+
+        fxomDocument.beginUpdate();
+        final FXOMInstance newButton = new FXOMInstance(fxomDocument, Button.class);
+        newButton.addToParentProperty(-1, first.getParentProperty());
+        fxomDocument.endUpdate();
+
+        assertFalse(fxomDocument.isSceneGraphRefreshPending());
+        assertTrue(newButton.getSceneGraphObject() instanceof Button);
+    }
+
+    @Test
+    public void testExplicitRefreshIsFull() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+
+        fxomDocument.refreshSceneGraph();
+
+        assertEquals(FXOMDocument.RefreshMode.FULL, fxomDocument.getLastRefreshMode());
+    }
+
+    @Test
+    public void testSampleDataIsRemovedAfterDeltaRefresh() throws IOException {
+        final String fxmlText
+                = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<?import javafx.scene.control.ListView?>\n"
+                + "<?import javafx.scene.layout.VBox?>\n"
+                + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+                + "   <children>\n"
+                + "      <ListView fx:id=\"first\" />\n"
+                + "      <ListView fx:id=\"second\" />\n"
+                + "   </children>\n"
+                + "</VBox>\n";
+        final FXOMDocument fxomDocument = new FXOMDocument(fxmlText, null, null, null);
+        fxomDocument.setSampleDataEnabled(true);
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+        final ListView<?> firstListView = (ListView<?>) first.getSceneGraphObject();
+        final ListView<?> secondListView = (ListView<?>) fxomDocument.searchWithFxId("second").getSceneGraphObject();
+        assertFalse(secondListView.getItems().isEmpty());
+        final int[] changeCount = new int[1];
+        secondListView.getItems().addListener((ListChangeListener.Change<?> c) -> changeCount[0]++);
+
+        fxomDocument.beginUpdate();
+        final FXOMPropertyT prefHeight = new FXOMPropertyT(fxomDocument, new PropertyName("prefHeight"), "100.0");
+        prefHeight.addToParentInstance(-1, first);
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.DELTA, fxomDocument.getLastRefreshMode());
+        assertSame(firstListView, first.getSceneGraphObject());
+        assertFalse(firstListView.getItems().isEmpty());
+        // Untouched objects are not visited
+        assertEquals(0, changeCount[0]);
+
+        fxomDocument.setSampleDataEnabled(false);
+
+        assertTrue(firstListView.getItems().isEmpty());
+        assertTrue(secondListView.getItems().isEmpty());
+    }
+
+    @Test
+    public void testSampleDataFollowsTableColumns() throws IOException {
+        final String fxmlText
+                = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<?import javafx.scene.control.TableColumn?>\n"
+                + "<?import javafx.scene.control.TableView?>\n"
+                + "<TableView fx:id=\"table\" xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+                + "   <columns>\n"
+                + "      <TableColumn text=\"A\" />\n"
+                + "   </columns>\n"
+                + "</TableView>\n";
+        final FXOMDocument fxomDocument = new FXOMDocument(fxmlText, null, null, null);
+        fxomDocument.setSampleDataEnabled(true);
+        final FXOMInstance table = (FXOMInstance) fxomDocument.searchWithFxId("table");
+        final TableView<?> tableView = (TableView<?>) table.getSceneGraphObject();
+        assertFalse(tableView.getItems().isEmpty());
+
+        fxomDocument.beginUpdate();
+        final FXOMInstance newColumn = new FXOMInstance(fxomDocument, TableColumn.class);
+        newColumn.addToParentProperty(-1, (FXOMPropertyC) table.getProperties().get(new PropertyName("columns")));
+        fxomDocument.endUpdate();
+
+        assertSame(tableView, table.getSceneGraphObject());
+        assertEquals(2, tableView.getColumns().size());
+        assertFalse(tableView.getItems().isEmpty());
+        for (TableColumn<?, ?> c : tableView.getColumns()) {
+            assertNotNull(c.getCellValueFactory());
+        }
+
+        fxomDocument.setSampleDataEnabled(false);
+
+        assertTrue(tableView.getItems().isEmpty());
+        for (TableColumn<?, ?> c : tableView.getColumns()) {
+            assertNull(c.getCellValueFactory());
+        }
+    }
+}
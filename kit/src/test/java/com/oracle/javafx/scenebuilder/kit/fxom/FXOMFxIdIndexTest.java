@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.MapChangeListener;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for {@link FXOMFxIdIndex}: the index must stay equal to
+ * {@link FXOMDocument#collectFxIds()} as the document is edited.
+ */
+public class FXOMFxIdIndexTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"first\" text=\"First\" />\n"
+            + "      <VBox fx:id=\"box\">\n"
+            + "         <children>\n"
+            + "            <Button fx:id=\"second\" text=\"Second\" />\n"
+            + "         </children>\n"
+            + "      </VBox>\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testIndexAfterLoad() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMFxIdIndex index = fxomDocument.getFxIdIndex();
+
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+        assertSame(fxomDocument.getFxomRoot().searchWithFxId("second"), index.lookup("second"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedConstructorTakesSnapshot() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        final FXOMFxIdIndex snapshot = new FXOMFxIdIndex(fxomDocument);
+
+        assertEquals(fxomDocument.collectFxIds(), snapshot.getFxIds());
+
+        first.setFxId("renamed");
+
+        assertSame(first, snapshot.lookup("first"));
+        assertNull(snapshot.lookup("renamed"));
+    }
+
+    @Test
+    public void testSetFxIdUpdatesIndex() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMFxIdIndex index = fxomDocument.getFxIdIndex();
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        final List<String> changedFxIds = new ArrayList<>();
+        index.getObservableFxIds().addListener((MapChangeListener<String, FXOMObject>) c -> changedFxIds.add(c.getKey()));
+
+        first.setFxId("renamed");
+
+        assertNull(index.lookup("first"));
+        assertSame(first, index.lookup("renamed"));
+        assertSame(first, fxomDocument.searchWithFxId("renamed"));
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+        assertEquals(2, changedFxIds.size());
+    }
+
+    @Test
+    public void testRemoveAndAddUpdateIndex() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMFxIdIndex index = fxomDocument.getFxIdIndex();
+        final FXOMObject box = fxomDocument.searchWithFxId("box");
+        final FXOMPropertyC children = box.getParentProperty();
+
+        fxomDocument.beginUpdate();
+        box.removeFromParentProperty();
+        fxomDocument.endUpdate();
+
+        assertNull(index.lookup("box"));
+        assertNull(index.lookup("second"));
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+
+        fxomDocument.beginUpdate();
+        box.addToParentProperty(-1, children);
+        final FXOMInstance newButton = new FXOMInstance(fxomDocument, Button.class);
+        newButton.setFxId("third");
+        newButton.addToParentProperty(-1, children);
+        fxomDocument.endUpdate();
+
+        assertSame(box, index.lookup("box"));
+        assertSame(newButton, index.lookup("third"));
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+    }
+
+    @Test
+    public void testDuplicateFxId() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMFxIdIndex index = fxomDocument.getFxIdIndex();
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+
+        second.setFxId("first");
+
+        // Same rules as the tree walks
+        assertSame(first, fxomDocument.searchWithFxId("first"));
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+
+        second.setFxId(null);
+
+        assertSame(first, index.lookup("first"));
+        assertEquals(fxomDocument.collectFxIds(), index.getFxIds());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.IOException;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link FXOMImportIndex}.
+ * Consistency check is enabled: each result is compared with a tree walk.
+ */
+public class FXOMImportIndexTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<?import javafx.scene.layout.GridPane?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"first\" text=\"First\" AnchorPane.topAnchor=\"10.0\" />\n"
+            + "      <VBox fx:id=\"box\">\n"
+            + "         <children>\n"
+            + "            <Button fx:id=\"second\" text=\"Second\" GridPane.columnIndex=\"1\" />\n"
+            + "         </children>\n"
+            + "      </VBox>\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+        FXOMImportIndex.setConsistencyCheckEnabled(true);
+    }
+
+    @AfterClass
+    public static void terminate() {
+        FXOMImportIndex.setConsistencyCheckEnabled(false);
+    }
+
+    @Test
+    public void testImportsAfterInsertion() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+        assertFalse(fxomDocument.getFxmlText(false).contains("<?import javafx.scene.control.Label?>"));
+
+        final FXOMInstance label = new FXOMInstance(fxomDocument, Label.class);
+        final FXOMPropertyT hgrow = new FXOMPropertyT(fxomDocument, 
+                new PropertyName("hgrow", HBox.class), "ALWAYS");
+        hgrow.addToParentInstance(-1, label);
+        label.addToParentProperty(-1, second.getParentProperty());
+
+        final String fxmlText = fxomDocument.getFxmlText(false);
+        assertTrue(fxmlText.contains("<?import javafx.scene.control.Label?>"));
+        assertTrue(fxmlText.contains("<?import javafx.scene.layout.HBox?>"));
+    }
+
+    @Test
+    public void testImportsAfterRemoval() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject box = fxomDocument.searchWithFxId("box");
+        final FXOMInstance first = (FXOMInstance) fxomDocument.searchWithFxId("first");
+
+        box.removeFromParentProperty();
+        String fxmlText = fxomDocument.getFxmlText(false);
+        assertFalse(fxmlText.contains("<?import javafx.scene.layout.VBox?>"));
+        assertTrue(fxmlText.contains("<?import javafx.scene.control.Button?>"));
+
+        first.removeFromParentProperty();
+        fxmlText = fxomDocument.getFxmlText(false);
+        assertFalse(fxmlText.contains("<?import javafx.scene.control.Button?>"));
+    }
+
+    @Test
+    public void testImportsAfterStaticPropertyRemoval() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMInstance second = (FXOMInstance) fxomDocument.searchWithFxId("second");
+        assertTrue(fxomDocument.getFxmlText(false).contains("<?import javafx.scene.layout.GridPane?>"));
+
+        second.getProperties().get(new PropertyName("columnIndex", GridPane.class)).removeFromParentInstance();
+
+        assertFalse(fxomDocument.getFxmlText(false).contains("<?import javafx.scene.layout.GridPane?>"));
+    }
+}
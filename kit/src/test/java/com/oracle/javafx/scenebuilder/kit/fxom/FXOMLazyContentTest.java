@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.io.IOException;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TitledPane;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for lazy Tab and TitledPane content.
+ */
+public class FXOMLazyContentTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Label?>\n"
+            + "<?import javafx.scene.control.Tab?>\n"
+            + "<?import javafx.scene.control.TabPane?>\n"
+            + "<?import javafx.scene.control.TitledPane?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <TabPane>\n"
+            + "         <tabs>\n"
+            + "            <Tab fx:id=\"tab1\" text=\"One\">\n"
+            + "               <content>\n"
+            + "                  <Label fx:id=\"label1\" text=\"One\" />\n"
+            + "               </content>\n"
+            + "            </Tab>\n"
+            + "            <Tab fx:id=\"tab2\" text=\"Two\">\n"
+            + "               <content>\n"
+            + "                  <Label fx:id=\"label2\" text=\"Two\" />\n"
+            + "               </content>\n"
+            + "            </Tab>\n"
+            + "         </tabs>\n"
+            + "      </TabPane>\n"
+            + "      <TitledPane fx:id=\"pane\" expanded=\"false\">\n"
+            + "         <content>\n"
+            + "            <Label fx:id=\"label3\" text=\"Three\" />\n"
+            + "         </content>\n"
+            + "      </TitledPane>\n"
+            + "   </children>\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testHiddenContentIsDeferred() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final String fxmlText = fxomDocument.getFxmlText(false);
+        fxomDocument.setLazyContentEnabled(true);
+        assertDeferred(fxomDocument);
+
+        // Full reloads leave deferred content out
+        fxomDocument.refreshSceneGraph();
+        assertEquals(FXOMDocument.RefreshMode.FULL, fxomDocument.getLastRefreshMode());
+        assertDeferred(fxomDocument);
+        assertEquals(fxmlText, fxomDocument.getFxmlText(false));
+    }
+
+    @Test
+    public void testSelectedContentIsMaterialized() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        fxomDocument.setLazyContentEnabled(true);
+
+        final FXOMObject label2 = fxomDocument.searchWithFxId("label2");
+        fxomDocument.materializeContent(label2);
+        final Tab tab2 = (Tab) fxomDocument.searchWithFxId("tab2").getSceneGraphObject();
+        assertTrue(label2.getSceneGraphObject() instanceof Label);
+        assertSame(label2.getSceneGraphObject(), tab2.getContent());
+        assertSame(label2, fxomDocument.searchWithSceneGraphObject(tab2.getContent()));
+
+        // Materialized content survives full reloads
+        fxomDocument.refreshSceneGraph();
+        assertTrue(label2.getSceneGraphObject() instanceof Label);
+        assertNull(fxomDocument.searchWithFxId("label3").getSceneGraphObject());
+        
+        // Disabling lazy content instantiates everything
+        fxomDocument.setLazyContentEnabled(false);
+        final FXOMObject label3 = fxomDocument.searchWithFxId("label3");
+        final TitledPane pane = (TitledPane) fxomDocument.searchWithFxId("pane").getSceneGraphObject();
+        assertSame(label3.getSceneGraphObject(), pane.getContent());
+    }
+
+    private static void assertDeferred(FXOMDocument fxomDocument) {
+        final Tab tab1 = (Tab) fxomDocument.searchWithFxId("tab1").getSceneGraphObject();
+        final Tab tab2 = (Tab) fxomDocument.searchWithFxId("tab2").getSceneGraphObject();
+        final TitledPane pane = (TitledPane) fxomDocument.searchWithFxId("pane").getSceneGraphObject();
+        assertSame(fxomDocument.searchWithFxId("label1").getSceneGraphObject(), tab1.getContent());
+        assertTrue(tab1.getContent() instanceof Label);
+        assertNull(tab2.getContent());
+        assertNull(pane.getContent());
+        assertNull(fxomDocument.searchWithFxId("label2").getSceneGraphObject());
+        assertNull(fxomDocument.searchWithFxId("label3").getSceneGraphObject());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport;
+import com.oracle.javafx.scenebuilder.kit.metrics.MemoryReport.Category;
+import java.io.IOException;
+import javafx.embed.swing.JFXPanel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for FXOMDocument.makeMemoryReport().
+ */
+public class FXOMMemoryEstimatorTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"button1\" text=\"One\" />\n"
+            + "      <Button fx:id=\"button2\" text=\"Two\" />\n"
+            + "   </children>\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testDocumentReport() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final MemoryReport report = fxomDocument.makeMemoryReport();
+        
+        assertEquals(3, report.getFxomObjectCount());
+        // children + two text
+        assertEquals(3, report.getPropertyCount());
+        assertTrue(report.getSceneGraphNodeCount() >= 3);
+        assertTrue(report.getBytes(Category.FXOM_TREE) > 0);
+        assertTrue(report.getBytes(Category.GLUE_TREE) > 0);
+        assertTrue(report.getBytes(Category.SCENE_GRAPH) > 0);
+        assertEquals(0, report.getBytes(Category.UNDO_STACK));
+        assertEquals(0, report.getJobCount());
+    }
+
+    @Test
+    public void testSubtreeEstimate() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final MemoryReport report = fxomDocument.makeMemoryReport();
+        final FXOMObject button1 = fxomDocument.searchWithFxId("button1");
+        
+        final long bytes = FXOMMemoryEstimator.estimateBytes(button1);
+        assertTrue(bytes > 0);
+        assertTrue(bytes < report.getBytes(Category.FXOM_TREE) + report.getBytes(Category.GLUE_TREE));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.ListView;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit test for the streaming variants of 
+ * {@link FXOMDocument#writeFxmlText(java.io.Writer, boolean)}: they must 
+ * produce the same text as {@link FXOMDocument#getFxmlText(boolean)}.
+ */
+public class FXOMSaverStreamTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <Button fx:id=\"first\" text=\"&lt;Café &amp; 日本&gt;\" />\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testWriterMatchesText() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final String expected = fxomDocument.getFxmlText(false);
+
+        final StringWriter writer = new StringWriter();
+        fxomDocument.writeFxmlText(writer, false);
+
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void testChannelMatchesEncodedText() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final String expected = fxomDocument.getFxmlText(false);
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(os)) {
+            fxomDocument.writeFxmlText(channel, false);
+        }
+
+        assertEquals(expected, new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyDocumentWritesNothing() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument();
+
+        final StringWriter writer = new StringWriter();
+        fxomDocument.writeFxmlText(writer, false);
+
+        assertEquals(fxomDocument.getFxmlText(false), writer.toString());
+        assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void testSampleDataIsNotSerialized() throws IOException {
+        final String fxmlText
+                = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<?import javafx.scene.control.ListView?>\n"
+                + "<ListView xmlns:fx=\"http://javafx.com/fxml/1\" />\n";
+        final FXOMDocument fxomDocument = new FXOMDocument(fxmlText, null, null, null);
+        final String expected = fxomDocument.getFxmlText(false);
+        final ListView<?> listView = (ListView<?>) fxomDocument.getSceneGraphRoot();
+
+        fxomDocument.setSampleDataEnabled(true);
+        final List<?> sampleItems = new ArrayList<>(listView.getItems());
+        assertFalse(sampleItems.isEmpty());
+
+        assertEquals(expected, fxomDocument.getFxmlText(false));
+        // Sample data has been left in place
+        assertEquals(sampleItems, listView.getItems());
+    }
+}
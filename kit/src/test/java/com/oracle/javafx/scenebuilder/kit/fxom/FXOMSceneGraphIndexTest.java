@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.io.IOException;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for {@link FXOMSceneGraphIndex} through
+ * {@link FXOMDocument#searchWithSceneGraphObject(java.lang.Object)}.
+ * Consistency check is enabled: each lookup is compared with a tree search.
+ */
+public class FXOMSceneGraphIndexTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button fx:id=\"first\" text=\"First\" />\n"
+            + "      <VBox fx:id=\"box\">\n"
+            + "         <children>\n"
+            + "            <Button fx:id=\"second\" text=\"Second\" />\n"
+            + "         </children>\n"
+            + "      </VBox>\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+        FXOMSceneGraphIndex.setConsistencyCheckEnabled(true);
+    }
+
+    @AfterClass
+    public static void terminate() {
+        FXOMSceneGraphIndex.setConsistencyCheckEnabled(false);
+    }
+
+    @Test
+    public void testLookupAfterLoad() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+
+        assertSame(fxomDocument.getFxomRoot(), fxomDocument.searchWithSceneGraphObject(fxomDocument.getSceneGraphRoot()));
+        assertSame(second, fxomDocument.searchWithSceneGraphObject(second.getSceneGraphObject()));
+        assertNull(fxomDocument.searchWithSceneGraphObject(new Button()));
+    }
+
+    @Test
+    public void testLookupAfterRemoval() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject box = fxomDocument.searchWithFxId("box");
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+        final Object secondButton = second.getSceneGraphObject();
+        // Populates the index
+        assertSame(second, fxomDocument.searchWithSceneGraphObject(secondButton));
+
+        fxomDocument.beginUpdate();
+        box.removeFromParentProperty();
+        fxomDocument.endUpdate();
+
+        assertNull(fxomDocument.searchWithSceneGraphObject(secondButton));
+    }
+
+    @Test
+    public void testLookupAfterInsertion() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject box = fxomDocument.searchWithFxId("box");
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        assertSame(first, fxomDocument.searchWithSceneGraphObject(first.getSceneGraphObject()));
+
+        fxomDocument.beginUpdate();
+        final FXOMInstance newButton = new FXOMInstance(fxomDocument, Button.class);
+        newButton.addToParentProperty(-1, box.getChildObjects().get(0).getParentProperty());
+        fxomDocument.endUpdate();
+
+        assertSame(newButton, fxomDocument.searchWithSceneGraphObject(newButton.getSceneGraphObject()));
+    }
+
+    @Test
+    public void testLookupAfterFullRefresh() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMObject first = fxomDocument.searchWithFxId("first");
+        final Object oldButton = first.getSceneGraphObject();
+        assertSame(first, fxomDocument.searchWithSceneGraphObject(oldButton));
+
+        fxomDocument.refreshSceneGraph();
+
+        assertNull(fxomDocument.searchWithSceneGraphObject(oldButton));
+        assertSame(first, fxomDocument.searchWithSceneGraphObject(first.getSceneGraphObject()));
+    }
+}
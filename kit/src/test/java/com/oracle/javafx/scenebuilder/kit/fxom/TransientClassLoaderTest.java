@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for {@link TransientClassLoader} lookup memoization.
+ */
+public class TransientClassLoaderTest {
+
+    @Test
+    public void testClassLookupsAreMemoized() throws ClassNotFoundException {
+        final CountingClassLoader parent = new CountingClassLoader();
+        final TransientClassLoader loader = new TransientClassLoader(parent);
+
+        assertSame(String.class, loader.loadClass("java.lang.String"));
+        assertSame(String.class, loader.loadClass("java.lang.String"));
+        for (int i = 0; i < 3; i++) {
+            try {
+                loader.loadClass("javafx.scene.control.Unknown");
+            } catch(ClassNotFoundException x) {
+                // Expected
+            }
+        }
+        assertEquals(2, parent.classLookups.size());
+    }
+
+    @Test
+    public void testResourceLookupsAreMemoized() {
+        final CountingClassLoader parent = new CountingClassLoader();
+        final TransientClassLoader loader = new TransientClassLoader(parent);
+
+        final URL url = loader.getResource("unknown/image.png");
+        assertNotNull(url);
+        assertSame(url, loader.getResource("unknown/image.png"));
+        assertEquals(1, parent.resourceLookups.size());
+    }
+
+    @Test
+    public void testSharedLoadersAreCleared() {
+        final ClassLoader parent = new CountingClassLoader();
+        final TransientClassLoader loader = TransientClassLoader.getClassLoader(parent);
+        assertSame(loader, TransientClassLoader.getClassLoader(parent));
+        FXOMDocument.clearClassResolutionCache();
+        assertNotSame(loader, TransientClassLoader.getClassLoader(parent));
+    }
+
+    private static class CountingClassLoader extends ClassLoader {
+        final List<String> classLookups = new ArrayList<>();
+        final List<String> resourceLookups = new ArrayList<>();
+
+        CountingClassLoader() {
+            super(CountingClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            classLookups.add(name);
+            return super.loadClass(name, resolve);
+        }
+
+        @Override
+        public URL getResource(String name) {
+            resourceLookups.add(name);
+            return super.getResource(name);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.io.IOException;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link TransientStateBackup} and {@link FXOMTransientStateRegistry}.
+ */
+public class TransientStateBackupTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Tab?>\n"
+            + "<?import javafx.scene.control.TabPane?>\n"
+            + "<TabPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <tabs>\n"
+            + "      <Tab fx:id=\"first\" text=\"First\" />\n"
+            + "      <Tab fx:id=\"second\" text=\"Second\" />\n"
+            + "   </tabs>\n"
+            + "</TabPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testSelectedTabSurvivesFullRefresh() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final TabPane tabPane = (TabPane) fxomDocument.getSceneGraphRoot();
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+        tabPane.getSelectionModel().select((Tab) second.getSceneGraphObject());
+
+        fxomDocument.refreshSceneGraph();
+
+        final TabPane newTabPane = (TabPane) fxomDocument.getSceneGraphRoot();
+        assertNotSame(tabPane, newTabPane);
+        assertSame(second.getSceneGraphObject(), newTabPane.getSelectionModel().getSelectedItem());
+    }
+
+    @Test
+    public void testSelectedTabSurvivesDeltaRefresh() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final TabPane tabPane = (TabPane) fxomDocument.getSceneGraphRoot();
+        final FXOMInstance second = (FXOMInstance) fxomDocument.searchWithFxId("second");
+        final Tab secondTab = (Tab) second.getSceneGraphObject();
+        tabPane.getSelectionModel().select(secondTab);
+
+        fxomDocument.beginUpdate();
+        final FXOMPropertyT text = (FXOMPropertyT) second.getProperties().get(new PropertyName("text"));
+        text.setValue("Changed");
+        fxomDocument.endUpdate();
+
+        assertEquals(FXOMDocument.RefreshMode.DELTA, fxomDocument.getLastRefreshMode());
+        assertSame(secondTab, tabPane.getSelectionModel().getSelectedItem());
+        assertEquals("Changed", secondTab.getText());
+    }
+
+    @Test
+    public void testHandlerAddedAfterPopulationIsUsed() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final FXOMDocument otherDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        // Populates the registry
+        fxomDocument.refreshSceneGraph();
+        
+        fxomDocument.getTransientStateRegistry().addHandler(new TabDisableHandler());
+        final FXOMObject second = fxomDocument.searchWithFxId("second");
+        ((Tab) second.getSceneGraphObject()).setDisable(true);
+        final FXOMObject otherSecond = otherDocument.searchWithFxId("second");
+        ((Tab) otherSecond.getSceneGraphObject()).setDisable(true);
+        
+        fxomDocument.refreshSceneGraph();
+        otherDocument.refreshSceneGraph();
+        
+        assertTrue(((Tab) second.getSceneGraphObject()).isDisable());
+        // Handlers are per document
+        assertFalse(((Tab) otherSecond.getSceneGraphObject()).isDisable());
+    }
+
+    private static class TabDisableHandler extends FXOMTransientStateRegistry.Handler {
+
+        @Override
+        public boolean accepts(Object sceneGraphObject) {
+            return sceneGraphObject instanceof Tab;
+        }
+
+        @Override
+        public Object capture(FXOMObject fxomObject) {
+            return ((Tab) fxomObject.getSceneGraphObject()).isDisable() ? Boolean.TRUE : null;
+        }
+
+        @Override
+        public void restore(FXOMObject fxomObject, Object state) {
+            ((Tab) fxomObject.getSceneGraphObject()).setDisable(true);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom.glue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for {@link GlueAttributes}: it must behave like a HashMap.
+ */
+public class GlueAttributesTest {
+
+    @Test
+    public void testSameContentAsHashMap() {
+        final Map<String, String> expected = new HashMap<>();
+        final GlueAttributes attributes = new GlueAttributes();
+        for (int i = 0; i < 10; i++) {
+            expected.put("key" + i, "value" + i); //NOI18N
+            attributes.put("key" + i, "value" + i); //NOI18N
+        }
+        expected.put("key3", "other"); //NOI18N
+        assertEquals("value3", attributes.put("key3", "other")); //NOI18N
+        expected.remove("key0"); //NOI18N
+        assertEquals("value0", attributes.remove("key0")); //NOI18N
+        assertNull(attributes.remove("key0")); //NOI18N
+
+        assertEquals(expected, attributes);
+        assertEquals(attributes, expected);
+        assertEquals(expected.hashCode(), attributes.hashCode());
+    }
+
+    @Test
+    public void testIteratorRemoveAndSetValue() {
+        final GlueAttributes attributes = new GlueAttributes();
+        attributes.put("a", "1"); //NOI18N
+        attributes.put("b", "2"); //NOI18N
+        attributes.put("c", "3"); //NOI18N
+
+        final Iterator<Map.Entry<String, String>> it = attributes.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, String> e = it.next();
+            if (e.getKey().equals("b")) { //NOI18N
+                it.remove();
+            } else {
+                e.setValue(e.getValue() + "0"); //NOI18N
+            }
+        }
+
+        assertEquals(Map.of("a", "10", "c", "30"), attributes); //NOI18N
+    }
+
+    @Test
+    public void testKeysAreInterned() {
+        final GlueAttributes attributes = new GlueAttributes();
+        attributes.put(new String("fx:id"), "x"); //NOI18N
+
+        assertSame("fx:id", attributes.keySet().iterator().next()); //NOI18N
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.fxom.glue;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import javafx.embed.swing.JFXPanel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for {@link GlueDocument#makeCopy()}: a copy must have the same
+ * element structure as the glue obtained by parsing the document text.
+ */
+public class GlueDocumentCopyTest {
+
+    // VBox children are implicit: FXOM loader adds a synthetic element
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<!-- Comment -->\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <Button fx:id=\"first\" text=\"First\" />\n"
+            + "   <!-- Another comment -->\n"
+            + "   <Button fx:id=\"second\">\n"
+            + "      <text>Second</text>\n"
+            + "   </Button>\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testCopyMatchesParsedText() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final GlueDocument glue = fxomDocument.getGlue();
+
+        final GlueDocument parsed = new GlueDocument(glue.toString());
+        final GlueDocument copy = glue.makeCopy();
+
+        assertSameStructure(parsed.getRootElement(), copy.getRootElement());
+        assertEquals(parsed.toString(), copy.toString());
+    }
+
+    @Test
+    public void testFragmentCopyMatchesParsedFragment() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        final GlueDocument glue = fxomDocument.getGlue();
+        final GlueElement element = fxomDocument.searchWithFxId("second").getGlueElement();
+        final Set<String> imports = Collections.singleton("javafx.scene.control.Button");
+
+        final GlueDocument parsed = new GlueDocument(glue.makeFragmentText(element, imports));
+        final GlueDocument copy = glue.makeFragmentCopy(element, imports);
+
+        assertSameStructure(parsed.getRootElement(), copy.getRootElement());
+    }
+
+    private static void assertSameStructure(GlueElement expected, GlueElement actual) {
+        assertEquals(expected.getTagName(), actual.getTagName());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0, count = expected.getChildren().size(); i < count; i++) {
+            assertSameStructure(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.klass.ComponentClassMetadata;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import javafx.scene.paint.Color;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit test for {@link MetadataIntrospectionCache}.
+ */
+public class MetadataIntrospectionCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testIntrospectionIsReloadedFromCacheFile() throws IOException {
+        final Path cacheFile = temporaryFolder.getRoot().toPath().resolve("cache.bin"); //NOI18N
+        final ComponentClassMetadata buttonMetadata 
+                = Metadata.getMetadata().queryComponentMetadata(Button.class);
+        
+        final MetadataIntrospectionCache cache = new MetadataIntrospectionCache(cacheFile);
+        new MetadataIntrospector(CustomButton.class, buttonMetadata, cache).introspect();
+        cache.flush();
+        assertEquals(true, Files.exists(cacheFile));
+        
+        final List<IntrospectedProperty> properties 
+                = new MetadataIntrospectionCache(cacheFile).lookup(CustomButton.class, Button.class);
+        assertNotNull(properties);
+        
+        final Map<String, String> defaultValues = new HashMap<>();
+        for (IntrospectedProperty p : properties) {
+            defaultValues.put(p.getName().getName(), p.encodeDefaultValue());
+        }
+        assertEquals("abc", defaultValues.get("label")); //NOI18N
+        assertEquals(Color.RED.toString(), defaultValues.get("tint")); //NOI18N
+        assertEquals("SECOND", defaultValues.get("mode")); //NOI18N
+    }
+
+    @Test
+    public void testCorruptedCacheFileIsIgnored() throws IOException {
+        final Path cacheFile = temporaryFolder.getRoot().toPath().resolve("cache.bin"); //NOI18N
+        Files.write(cacheFile, new byte[] { 0, 0, 0, 1, 42 });
+        
+        assertNull(new MetadataIntrospectionCache(cacheFile).lookup(CustomButton.class, Button.class));
+    }
+
+    @Test
+    public void testEntryIsStaleWhenDefiningFileChanges() throws Exception {
+        final Path cacheFile = temporaryFolder.getRoot().toPath().resolve("cache.bin"); //NOI18N
+        final Path jarFile = temporaryFolder.newFile("custom.jar").toPath(); //NOI18N
+        Files.write(jarFile, new byte[] { 1, 2, 3 });
+        final Class<?> customClass = new SingleClassLoader(jarFile).loadCustomButton();
+        final ComponentClassMetadata buttonMetadata 
+                = Metadata.getMetadata().queryComponentMetadata(Button.class);
+        
+        final MetadataIntrospectionCache cache = new MetadataIntrospectionCache(cacheFile);
+        new MetadataIntrospector(customClass, buttonMetadata, cache).introspect();
+        cache.flush();
+        assertNotNull(cache.lookup(customClass, Button.class));
+        assertNotNull(new MetadataIntrospectionCache(cacheFile).lookup(customClass, Button.class));
+        
+        // Jar file is updated (size changes so that it is hashed again)
+        Files.write(jarFile, new byte[] { 1, 2, 3, 4 });
+        assertNull(new MetadataIntrospectionCache(cacheFile).lookup(customClass, Button.class));
+        assertNull(cache.lookup(customClass, Button.class));
+    }
+
+    /*
+     * Defines CustomButton again, as if it came from the specified jar file.
+     */
+    private static class SingleClassLoader extends ClassLoader {
+        private final Path jarFile;
+
+        SingleClassLoader(Path jarFile) {
+            super(MetadataIntrospectionCacheTest.class.getClassLoader());
+            this.jarFile = jarFile;
+        }
+
+        Class<?> loadCustomButton() throws IOException {
+            final String className = CustomButton.class.getName();
+            final String resourceName = className.substring(className.lastIndexOf('.') + 1) + ".class"; //NOI18N
+            final byte[] bytes;
+            try (InputStream is = CustomButton.class.getResourceAsStream(resourceName)) {
+                bytes = is.readAllBytes();
+            }
+            final CodeSource codeSource 
+                    = new CodeSource(jarFile.toUri().toURL(), (Certificate[]) null);
+            return defineClass(className, bytes, 0, bytes.length, new ProtectionDomain(codeSource, null));
+        }
+    }
+
+    public enum Mode {
+        FIRST, SECOND
+    }
+
+    public static class CustomButton extends Button {
+        private String label = "abc"; //NOI18N
+        private Color tint = Color.RED;
+        private Mode mode = Mode.SECOND;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public Color getTint() {
+            return tint;
+        }
+
+        public void setTint(Color tint) {
+            this.tint = tint;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata;
+
+import com.oracle.javafx.scenebuilder.kit.metadata.klass.ComponentClassMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.property.PropertyMetadata;
+import com.oracle.javafx.scenebuilder.kit.metadata.util.PropertyName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit test for Metadata property queries.
+ */
+public class MetadataTest {
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testQueryPropertyMatchesQueryProperties() {
+        final Metadata metadata = Metadata.getMetadata();
+        final Set<PropertyMetadata> properties = metadata.queryProperties(Button.class);
+        
+        for (PropertyMetadata pm : properties) {
+            assertSame(pm, metadata.queryProperty(Button.class, pm.getName()));
+        }
+        assertNotNull(metadata.queryProperty(Button.class, new PropertyName("layoutX"))); //NOI18N
+        assertNotNull(metadata.queryProperty(Button.class, new PropertyName("rowIndex", GridPane.class))); //NOI18N
+        assertNull(metadata.queryProperty(Button.class, new PropertyName("noSuchProperty"))); //NOI18N
+    }
+
+    @Test
+    public void testLookupPropertyIgnoresAncestors() {
+        final ComponentClassMetadata buttonMetadata
+                = Metadata.getMetadata().queryComponentMetadata(Button.class);
+        final PropertyName layoutXName = new PropertyName("layoutX"); //NOI18N
+        
+        assertNull(buttonMetadata.lookupProperty(layoutXName));
+        // Ancestor properties are initialized on demand
+        assertNotNull(buttonMetadata.getParentMetadata().getParentMetadata()
+                .getParentMetadata().getParentMetadata().getParentMetadata()
+                .getParentMetadata().lookupProperty(layoutXName));
+        assertEquals(buttonMetadata.getFlattenedProperties().size(), 
+                Metadata.getMetadata().queryProperties(Button.class).size());
+    }
+
+    @Test
+    public void testCustomComponentIsIntrospectedOnce() throws Exception {
+        final Metadata metadata = Metadata.getMetadata();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<ComponentClassMetadata>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> metadata.queryComponentMetadata(ConcurrentButton.class)));
+            }
+            final ComponentClassMetadata expected = futures.get(0).get();
+            assertEquals(ConcurrentButton.class, expected.getKlass());
+            for (Future<ComponentClassMetadata> f : futures) {
+                assertSame(expected, f.get());
+            }
+            assertSame(expected, metadata.queryComponentMetadata(ConcurrentButton.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class ConcurrentButton extends Button {
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metadata.util;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit test for {@link PropertyName#getValue(Object)} and 
+ * {@link PropertyName#setValue(Object, Object)}.
+ */
+public class PropertyNameTest {
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testBeanProperty() {
+        final Button button = new Button();
+        final PropertyName textName = new PropertyName("text"); //NOI18N
+        final PropertyName prefWidthName = new PropertyName("prefWidth"); //NOI18N
+        
+        textName.setValue(button, "OK"); //NOI18N
+        prefWidthName.setValue(button, 42.0);
+        assertEquals("OK", button.getText()); //NOI18N
+        assertEquals("OK", textName.getValue(button)); //NOI18N
+        assertEquals(42.0, prefWidthName.getValue(button));
+    }
+
+    @Test
+    public void testStaticProperty() {
+        final Button button = new Button();
+        final PropertyName rowIndexName = new PropertyName("rowIndex", GridPane.class); //NOI18N
+        final PropertyName marginName = new PropertyName("margin", HBox.class); //NOI18N
+        
+        assertNull(rowIndexName.getValue(button));
+        rowIndexName.setValue(button, 3);
+        marginName.setValue(button, new Insets(5.0));
+        assertEquals(Integer.valueOf(3), GridPane.getRowIndex(button));
+        assertEquals(3, rowIndexName.getValue(button));
+        assertEquals(new Insets(5.0), marginName.getValue(button));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnknownProperty() {
+        new PropertyName("noSuchProperty").getValue(new Button()); //NOI18N
+    }
+}
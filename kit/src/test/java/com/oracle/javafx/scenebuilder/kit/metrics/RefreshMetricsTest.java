@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Gluon and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle Corporation and Gluon nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.javafx.scenebuilder.kit.metrics;
+
+import com.oracle.javafx.scenebuilder.kit.fxom.FXOMDocument;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javafx.embed.swing.JFXPanel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link RefreshMetrics} fed by FXOMDocument refreshes.
+ */
+public class RefreshMetricsTest {
+
+    private static final String FXML_TEXT
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.control.Button?>\n"
+            + "<?import javafx.scene.layout.AnchorPane?>\n"
+            + "<AnchorPane xmlns:fx=\"http://javafx.com/fxml/1\">\n"
+            + "   <children>\n"
+            + "      <Button text=\"First\" />\n"
+            + "   </children>\n"
+            + "</AnchorPane>\n";
+
+    @BeforeClass
+    public static void initialize() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void testFullRefreshRecordsEachPhase() throws IOException {
+        final FXOMDocument fxomDocument = new FXOMDocument(FXML_TEXT, null, null, null);
+        RefreshMetrics.getMetrics().reset();
+
+        fxomDocument.refreshSceneGraph();
+
+        final Map<String, RefreshMetrics.Statistics> statistics = new HashMap<>();
+        for (RefreshMetrics.Statistics s : RefreshMetrics.getMetrics().getStatistics()) {
+            statistics.put(s.getName(), s);
+        }
+        for (RefreshPhase phase : new RefreshPhase[] {
+                RefreshPhase.REFRESH, RefreshPhase.SERIALIZATION, RefreshPhase.GLUE_COPY,
+                RefreshPhase.FXML_LOAD, RefreshPhase.TREE_SWAP, RefreshPhase.STATE_RESTORE,
+                RefreshPhase.DIVIDER_SYNC, RefreshPhase.REVISION_FANOUT }) {
+            final RefreshMetrics.Statistics s = statistics.get(phase.toString());
+            assertEquals(phase.toString(), 1, s.getCount());
+            assertTrue(s.getTotalNanos() >= 0);
+        }
+        final long refreshNanos = statistics.get(RefreshPhase.REFRESH.toString()).getTotalNanos();
+        assertTrue(refreshNanos >= statistics.get(RefreshPhase.FXML_LOAD.toString()).getTotalNanos());
+    }
+}